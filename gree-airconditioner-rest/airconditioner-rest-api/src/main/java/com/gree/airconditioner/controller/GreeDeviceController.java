@@ -4,6 +4,8 @@ import com.gree.airconditioner.dto.api.ApiResponse;
 import com.gree.airconditioner.dto.api.DeviceControlDto;
 import com.gree.airconditioner.dto.api.DeviceInfoDto;
 import com.gree.airconditioner.dto.api.DeviceStatusDto;
+import com.gree.airconditioner.dto.api.GroupCommandResultDto;
+import com.gree.airconditioner.dto.api.GroupControlDto;
 import com.gree.airconditioner.service.HvacDeviceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -208,6 +210,49 @@ public class GreeDeviceController {
             });
   }
 
+  @PostMapping("/control")
+  @Operation(
+      summary = "Control a group of devices",
+      description =
+          "Send the same control commands to several GREE devices at once and report the outcome"
+              + " and latency for each device")
+  public CompletableFuture<ResponseEntity<ApiResponse<List<GroupCommandResultDto>>>> controlDevices(
+      @Parameter(description = "Devices to control and the control parameters to apply")
+          @RequestBody
+          GroupControlDto groupControl) {
+    if (groupControl.getDeviceIds() == null
+        || groupControl.getDeviceIds().isEmpty()
+        || groupControl.getControl() == null) {
+      return CompletableFuture.completedFuture(
+          ResponseEntity.badRequest()
+              .body(
+                  ApiResponse.<List<GroupCommandResultDto>>error(
+                      "Device ids and control parameters are required")));
+    }
+
+    log.info("Controlling devices {}: {}", groupControl.getDeviceIds(), groupControl.getControl());
+    return hvacDeviceService
+        .controlDevices(groupControl.getDeviceIds(), groupControl.getControl())
+        .thenApply(
+            results -> {
+              long failed = results.stream().filter(result -> !result.isSuccess()).count();
+              log.info("Group control completed, {} of {} failed", failed, results.size());
+              String message =
+                  failed == 0
+                      ? "Devices controlled successfully"
+                      : failed + " of " + results.size() + " devices failed";
+              return ResponseEntity.ok(ApiResponse.success(message, results));
+            })
+        .exceptionally(
+            ex -> {
+              log.error("Error controlling devices {}", groupControl.getDeviceIds(), ex);
+              return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                  .body(
+                      ApiResponse.<List<GroupCommandResultDto>>error(
+                          "Group control failed: " + ex.getMessage()));
+            });
+  }
+
   // Convenience endpoints for common operations
 
   @PostMapping("/{deviceId}/power")
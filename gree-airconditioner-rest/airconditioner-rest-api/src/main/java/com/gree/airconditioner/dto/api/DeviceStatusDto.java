@@ -18,4 +18,10 @@ public class DeviceStatusDto {
   private boolean health;
   private boolean powerSave;
   private boolean sleep;
+
+  /** Time of the last status report in epoch milliseconds, null before the first */
+  private Long lastUpdated;
+
+  /** The device did not answer the last status request; values are the last ones reported */
+  private boolean stale;
 }
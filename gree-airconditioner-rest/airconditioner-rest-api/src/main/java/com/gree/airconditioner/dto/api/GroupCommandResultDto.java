@@ -0,0 +1,23 @@
+package com.gree.airconditioner.dto.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Outcome of a group command for one device")
+public class GroupCommandResultDto {
+
+  @Schema(description = "Device identifier", example = "device-001")
+  private String deviceId;
+
+  @Schema(description = "Whether the device confirmed the command", example = "true")
+  private boolean success;
+
+  @Schema(description = "Why the command failed, absent on success")
+  private String error;
+
+  @Schema(
+      description = "Time until the device confirmed or the command failed (ms)",
+      example = "85")
+  private long latency;
+}
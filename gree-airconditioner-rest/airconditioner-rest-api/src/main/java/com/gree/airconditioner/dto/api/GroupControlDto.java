@@ -0,0 +1,16 @@
+package com.gree.airconditioner.dto.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.Data;
+
+@Data
+@Schema(description = "Control parameters sent to a group of devices")
+public class GroupControlDto {
+
+  @Schema(description = "Identifiers of the devices to control", example = "[\"device-001\"]")
+  private List<String> deviceIds;
+
+  @Schema(description = "Control parameters applied to every device")
+  private DeviceControlDto control;
+}
@@ -3,19 +3,32 @@ package com.gree.airconditioner.service;
 import com.gree.airconditioner.dto.api.DeviceControlDto;
 import com.gree.airconditioner.dto.api.DeviceInfoDto;
 import com.gree.airconditioner.dto.api.DeviceStatusDto;
+import com.gree.airconditioner.dto.api.GroupCommandResultDto;
 import com.gree.airconditioner.exceptions.HvacDeviceException;
 import com.gree.hvac.GreeHvac;
+import com.gree.hvac.client.DeviceKeyStore;
+import com.gree.hvac.client.FileDeviceKeyStore;
+import com.gree.hvac.client.FleetStatusPublisher;
+import com.gree.hvac.client.GroupCommandResult;
 import com.gree.hvac.client.HvacClient;
 import com.gree.hvac.client.HvacClientOptions;
+import com.gree.hvac.client.HvacFleet;
 import com.gree.hvac.dto.DeviceControl;
 import com.gree.hvac.dto.DeviceInfo;
 import com.gree.hvac.dto.DeviceStatus;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /** Service layer that bridges REST API DTOs with GREE HVAC library */
@@ -25,14 +38,53 @@ public class HvacDeviceService {
 
   private final Map<String, HvacClient> connectedClients = new ConcurrentHashMap<>();
   private final Map<String, DeviceInfo> discoveredDevices = new ConcurrentHashMap<>();
+  private final FleetStatusPublisher fleetStatus = new FleetStatusPublisher();
+  private final HvacFleet fleet;
+  private DeviceKeyStore keyStore;
+  private double maxSendRate;
+  private int sendBurst = 5;
 
   // Configuration constants for retry logic
-  private static final int MAX_STATUS_RETRIES = 3;
+  private static final long STATUS_TIMEOUT_MS = 10000;
   private static final int MAX_RECONNECT_RETRIES = 2;
-  private static final long RETRY_DELAY_MS = 500;
   private static final long RECONNECT_DELAY_MS = 1000;
   private static final long CONNECTION_STABILIZATION_DELAY_MS = 1500;
 
+  public HvacDeviceService() {
+    this(HvacFleet.DEFAULT_MAX_CONCURRENCY);
+  }
+
+  /**
+   * @param groupConcurrency devices a group command waits on at the same time
+   */
+  @Autowired
+  public HvacDeviceService(
+      @Value("${gree.hvac.group-concurrency:" + HvacFleet.DEFAULT_MAX_CONCURRENCY + "}")
+          int groupConcurrency) {
+    this.fleet = new HvacFleet(groupConcurrency);
+  }
+
+  /** Persist device keys in the given file so connections after a restart skip binding */
+  @Value("${gree.hvac.key-store:}")
+  public void setKeyStorePath(String keyStorePath) {
+    this.keyStore =
+        keyStorePath == null || keyStorePath.isBlank()
+            ? null
+            : new FileDeviceKeyStore(Path.of(keyStorePath));
+  }
+
+  /** Frames per second sent to each device, 0 for no limit */
+  @Value("${gree.hvac.max-send-rate:0}")
+  public void setMaxSendRate(double maxSendRate) {
+    this.maxSendRate = maxSendRate;
+  }
+
+  /** Frames sent back to back to a device before the send rate applies */
+  @Value("${gree.hvac.send-burst:5}")
+  public void setSendBurst(int sendBurst) {
+    this.sendBurst = sendBurst;
+  }
+
   /** Discover GREE devices on the network */
   public CompletableFuture<List<DeviceInfoDto>> discoverDevices() {
     return GreeHvac.discoverDevices()
@@ -67,6 +119,8 @@ public class HvacDeviceService {
                 // Remove stale client
                 log.info("Removing stale connection for device {}", deviceId);
                 connectedClients.remove(deviceId);
+                fleet.remove(deviceId, existingClient);
+                fleetStatus.remove(existingClient);
                 try {
                   existingClient.shutdown();
                 } catch (Exception e) {
@@ -91,11 +145,13 @@ public class HvacDeviceService {
                 GreeHvac.createClient(
                     new HvacClientOptions(deviceInfo.getIpAddress())
                         .setAutoConnect(false)
-                        .setPoll(
-                            false) // Disable auto-polling to prevent conflicts with manual status
-                        // requests
+                        // The client polls on the shared timer and publishes every change
+                        .setPoll(true)
                         .setPollingTimeout(10000) // Increase timeout to 10 seconds
-                        .setConnectTimeout(8000)); // Increase connect timeout
+                        .setConnectTimeout(8000) // Increase connect timeout
+                        .setMaxSendRate(maxSendRate)
+                        .setSendBurst(sendBurst)
+                        .setKeyStore(keyStore));
 
             // Setup event listeners
             client.onConnect(
@@ -110,7 +166,9 @@ public class HvacDeviceService {
                   log.info("Disconnected from device: {}", deviceId);
                   deviceInfo.setConnected(false);
                   deviceInfo.setStatus("Disconnected");
-                  connectedClients.remove(deviceId);
+                  connectedClients.remove(deviceId, client);
+                  fleet.remove(deviceId, client);
+                  fleetStatus.remove(client);
                 });
 
             client.onError(
@@ -125,6 +183,8 @@ public class HvacDeviceService {
             // Connect to the device
             client.connect().get();
             connectedClients.put(deviceId, client);
+            fleet.add(deviceId, client);
+            fleetStatus.add(client);
 
             log.info("Device {} connected successfully", deviceId);
             return true;
@@ -149,6 +209,8 @@ public class HvacDeviceService {
 
             log.info("Disconnecting from device: {}", deviceId);
             client.disconnect().get();
+            fleet.remove(deviceId, client);
+            fleetStatus.remove(client);
             client.shutdown();
             connectedClients.remove(deviceId);
 
@@ -240,95 +302,136 @@ public class HvacDeviceService {
             || status.getCurrentTemperature() != null);
   }
 
-  /** Get current status of a device with robust retry logic and connection health checks */
+  /**
+   * Get current status of a device. Waits for the first status report of a device that has just
+   * connected instead of polling for it.
+   */
   public CompletableFuture<DeviceStatusDto> getDeviceStatus(String deviceId) {
     return ensureHealthyConnection(deviceId)
         .thenCompose(
-            client ->
-                CompletableFuture.supplyAsync(
-                    () -> {
-                      int attempt = 0;
-                      Exception lastException = null;
-
-                      while (attempt < MAX_STATUS_RETRIES) {
-                        try {
-                          log.debug(
-                              "Getting status for device {} (attempt {})", deviceId, attempt + 1);
-
-                          DeviceStatus status = client.getStatus();
-
-                          if (isStatusValid(status)) {
-                            log.debug(
-                                "Successfully retrieved valid status for device {} on attempt {}",
-                                deviceId,
-                                attempt + 1);
-                            return convertToApiDto(status);
-                          }
-
-                          log.warn(
-                              "Received invalid/empty status for device {}, attempt {}",
-                              deviceId,
-                              attempt + 1);
-
-                        } catch (Exception e) {
-                          lastException = e;
-                          log.warn(
-                              "Status request failed for device {} (attempt {}): {}",
-                              deviceId,
-                              attempt + 1,
-                              e.getMessage());
-                        }
+            client -> {
+              DeviceStatus status = client.getStatus();
+              if (isStatusValid(status)) {
+                return CompletableFuture.completedFuture(convertToApiDto(status));
+              }
 
-                        attempt++;
-
-                        if (attempt < MAX_STATUS_RETRIES) {
-                          try {
-                            // Exponential backoff with jitter
-                            long delay =
-                                RETRY_DELAY_MS * (1L << (attempt - 1))
-                                    + (long) (Math.random() * 100);
-                            Thread.sleep(delay);
-                          } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            throw new HvacDeviceException("Status request interrupted", ie);
-                          }
+              log.debug("Waiting for the first status report of device {}", deviceId);
+              return firstValidStatus(client)
+                  .orTimeout(STATUS_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                  .handle(
+                      (received, e) -> {
+                        if (e == null) {
+                          return convertToApiDto(received);
                         }
-                      }
-
-                      // If all attempts failed, throw the last exception
-                      String errorMessage =
-                          "Failed to get device status after " + MAX_STATUS_RETRIES + " attempts";
-                      if (lastException != null) {
+                        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                        String reason =
+                            cause instanceof TimeoutException
+                                ? "no valid status within " + STATUS_TIMEOUT_MS + " ms"
+                                : cause.getMessage();
                         throw new HvacDeviceException(
-                            errorMessage + ": " + lastException.getMessage(), lastException);
-                      } else {
-                        throw new HvacDeviceException(errorMessage + ": Invalid status received");
-                      }
-                    }));
+                            "Failed to get device status: " + reason, cause);
+                      });
+            });
+  }
+
+  /**
+   * Stream of status updates of a connected device. Updates a subscriber has not requested yet are
+   * conflated into the latest one.
+   */
+  public Flow.Publisher<DeviceStatusDto> getStatusUpdates(String deviceId) {
+    HvacClient client = connectedClients.get(deviceId);
+    if (client == null) {
+      throw new HvacDeviceException("Device " + deviceId + " is not connected");
+    }
+    return subscriber -> client.getStatusPublisher().subscribe(new DtoSubscriber(subscriber));
   }
 
-  /** Control device properties with connection health check */
+  /** Merged stream of status updates of every connected device, conflated per device */
+  public Flow.Publisher<DeviceStatusDto> getAllStatusUpdates() {
+    return subscriber -> fleetStatus.subscribe(new DtoSubscriber(subscriber));
+  }
+
+  /** Complete with the first status carrying meaningful data */
+  private CompletableFuture<DeviceStatus> firstValidStatus(HvacClient client) {
+    CompletableFuture<DeviceStatus> first = new CompletableFuture<>();
+    client
+        .getStatusPublisher()
+        .subscribe(
+            new Flow.Subscriber<>() {
+              private Flow.Subscription subscription;
+
+              @Override
+              public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                first.whenComplete((status, e) -> subscription.cancel());
+                subscription.request(1);
+              }
+
+              @Override
+              public void onNext(DeviceStatus status) {
+                if (isStatusValid(status)) {
+                  first.complete(status);
+                } else {
+                  subscription.request(1);
+                }
+              }
+
+              @Override
+              public void onError(Throwable throwable) {
+                first.completeExceptionally(throwable);
+              }
+
+              @Override
+              public void onComplete() {
+                first.completeExceptionally(
+                    new HvacDeviceException("Device disconnected before reporting its status"));
+              }
+            });
+    return first;
+  }
+
+  /**
+   * Control device properties with connection health check. Completes once the device confirms the
+   * command.
+   */
   public CompletableFuture<Boolean> controlDevice(String deviceId, DeviceControlDto controlDto) {
     return ensureHealthyConnection(deviceId)
         .thenCompose(
-            client ->
-                CompletableFuture.supplyAsync(
-                    () -> {
-                      try {
-                        log.info("Controlling device {}: {}", deviceId, controlDto);
-
-                        DeviceControl control = convertFromApiDto(controlDto);
-                        client.control(control).get();
+            client -> {
+              log.info("Controlling device {}: {}", deviceId, controlDto);
+
+              DeviceControl control = convertFromApiDto(controlDto);
+              return client.control(control);
+            })
+        .handle(
+            (result, e) -> {
+              if (e != null) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause instanceof HvacDeviceException deviceException) {
+                  throw deviceException;
+                }
+                log.error("Failed to control device {}: {}", deviceId, cause.getMessage());
+                throw new HvacDeviceException(
+                    "Failed to control device: " + cause.getMessage(), cause);
+              }
 
-                        log.info("Successfully controlled device: {}", deviceId);
-                        return true;
+              log.info("Successfully controlled device: {}", deviceId);
+              return true;
+            });
+  }
 
-                      } catch (Exception e) {
-                        log.error("Failed to control device {}: {}", deviceId, e.getMessage());
-                        throw new HvacDeviceException(
-                            "Failed to control device: " + e.getMessage(), e);
-                      }
-                    }));
+  /**
+   * Send the same control to several devices at once. Devices are commanded concurrently up to the
+   * group concurrency and are not reconnected: a device that is not connected fails in its result
+   * without holding up the others.
+   */
+  public CompletableFuture<List<GroupCommandResultDto>> controlDevices(
+      List<String> deviceIds, DeviceControlDto controlDto) {
+    log.info("Controlling {} devices: {}", deviceIds.size(), controlDto);
+    return fleet
+        .control(deviceIds, convertFromApiDto(controlDto))
+        .thenApply(
+            results -> results.stream().map(this::convertToApiDto).collect(Collectors.toList()));
   }
 
   /** Cleanup - disconnect all devices */
@@ -346,7 +449,9 @@ public class HvacDeviceService {
               }
             });
     connectedClients.clear();
+    fleet.getDeviceIds().forEach(fleet::remove);
     discoveredDevices.clear();
+    fleetStatus.close();
   }
 
   // Conversion methods between library DTOs and API DTOs
@@ -380,6 +485,46 @@ public class HvacDeviceService {
     dto.setHealth(status.getHealth());
     dto.setPowerSave(status.getPowerSave());
     dto.setSleep(status.getSleep());
+    dto.setLastUpdated(status.getLastUpdated());
+    dto.setStale(status.isStale());
+    return dto;
+  }
+
+  /** Passes library status updates on to a subscriber as API DTOs */
+  private final class DtoSubscriber implements Flow.Subscriber<DeviceStatus> {
+    private final Flow.Subscriber<? super DeviceStatusDto> downstream;
+
+    DtoSubscriber(Flow.Subscriber<? super DeviceStatusDto> downstream) {
+      this.downstream = downstream;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      downstream.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(DeviceStatus status) {
+      downstream.onNext(convertToApiDto(status));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      downstream.onComplete();
+    }
+  }
+
+  private GroupCommandResultDto convertToApiDto(GroupCommandResult result) {
+    GroupCommandResultDto dto = new GroupCommandResultDto();
+    dto.setDeviceId(result.getDeviceId());
+    dto.setSuccess(result.isSuccess());
+    dto.setError(result.getError());
+    dto.setLatency(result.getLatency());
     return dto;
   }
 
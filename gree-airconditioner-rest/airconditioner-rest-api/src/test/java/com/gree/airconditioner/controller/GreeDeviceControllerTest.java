@@ -8,6 +8,8 @@ import com.gree.airconditioner.dto.api.ApiResponse;
 import com.gree.airconditioner.dto.api.DeviceControlDto;
 import com.gree.airconditioner.dto.api.DeviceInfoDto;
 import com.gree.airconditioner.dto.api.DeviceStatusDto;
+import com.gree.airconditioner.dto.api.GroupCommandResultDto;
+import com.gree.airconditioner.dto.api.GroupControlDto;
 import com.gree.airconditioner.service.HvacDeviceService;
 import java.util.Arrays;
 import java.util.List;
@@ -585,4 +587,85 @@ class GreeDeviceControllerTest {
 
     verify(hvacDeviceService).controlDevice(eq(deviceId), any(DeviceControlDto.class));
   }
+
+  @Test
+  @DisplayName("Should control a group of devices and report each result")
+  void shouldControlGroupOfDevices() throws ExecutionException, InterruptedException {
+    // Given
+    List<String> deviceIds = List.of("device-001", "device-002");
+    GroupControlDto groupControl = new GroupControlDto();
+    groupControl.setDeviceIds(deviceIds);
+    groupControl.setControl(mockDeviceControlDto);
+    List<GroupCommandResultDto> results =
+        List.of(groupResult("device-001", true, null), groupResult("device-002", true, null));
+    when(hvacDeviceService.controlDevices(deviceIds, mockDeviceControlDto))
+        .thenReturn(CompletableFuture.completedFuture(results));
+
+    // When
+    ResponseEntity<ApiResponse<List<GroupCommandResultDto>>> response =
+        controller.controlDevices(groupControl).get();
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertTrue(response.getBody().isSuccess());
+    assertEquals("Devices controlled successfully", response.getBody().getMessage());
+    assertEquals(results, response.getBody().getData());
+
+    verify(hvacDeviceService).controlDevices(deviceIds, mockDeviceControlDto);
+  }
+
+  @Test
+  @DisplayName("Should report partial failure of a group control")
+  void shouldReportPartialGroupFailure() throws ExecutionException, InterruptedException {
+    // Given
+    GroupControlDto groupControl = new GroupControlDto();
+    groupControl.setDeviceIds(List.of("device-001", "device-002"));
+    groupControl.setControl(mockDeviceControlDto);
+    List<GroupCommandResultDto> results =
+        List.of(
+            groupResult("device-001", true, null),
+            groupResult("device-002", false, "Client is not connected to the HVAC device"));
+    when(hvacDeviceService.controlDevices(anyList(), any(DeviceControlDto.class)))
+        .thenReturn(CompletableFuture.completedFuture(results));
+
+    // When
+    ResponseEntity<ApiResponse<List<GroupCommandResultDto>>> response =
+        controller.controlDevices(groupControl).get();
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("1 of 2 devices failed", response.getBody().getMessage());
+    assertFalse(response.getBody().getData().get(1).isSuccess());
+  }
+
+  @Test
+  @DisplayName("Should reject a group control without devices")
+  void shouldRejectGroupControlWithoutDevices() throws ExecutionException, InterruptedException {
+    // Given
+    GroupControlDto groupControl = new GroupControlDto();
+    groupControl.setDeviceIds(List.of());
+    groupControl.setControl(mockDeviceControlDto);
+
+    // When
+    ResponseEntity<ApiResponse<List<GroupCommandResultDto>>> response =
+        controller.controlDevices(groupControl).get();
+
+    // Then
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertFalse(response.getBody().isSuccess());
+
+    verifyNoInteractions(hvacDeviceService);
+  }
+
+  private static GroupCommandResultDto groupResult(String deviceId, boolean success, String error) {
+    GroupCommandResultDto result = new GroupCommandResultDto();
+    result.setDeviceId(deviceId);
+    result.setSuccess(success);
+    result.setError(error);
+    result.setLatency(42);
+    return result;
+  }
 }
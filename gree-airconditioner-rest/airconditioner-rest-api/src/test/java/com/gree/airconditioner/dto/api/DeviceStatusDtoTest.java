@@ -309,4 +309,18 @@ class DeviceStatusDtoTest {
     assertEquals("COOL & DRY", dto.getMode());
     assertEquals("AUTO-MODE", dto.getFanSpeed());
   }
+
+  @Test
+  @DisplayName("Should carry the freshness of the status")
+  void shouldCarryFreshness() {
+    DeviceStatusDto dto = new DeviceStatusDto();
+    assertNull(dto.getLastUpdated());
+    assertFalse(dto.isStale());
+
+    dto.setLastUpdated(1700000000000L);
+    dto.setStale(true);
+
+    assertEquals(1700000000000L, dto.getLastUpdated());
+    assertTrue(dto.isStale());
+  }
 }
@@ -0,0 +1,40 @@
+package com.gree.airconditioner.dto.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Group control DTO Tests")
+class GroupCommandResultDtoTest {
+
+  @Test
+  @DisplayName("Should carry the outcome of one device")
+  void shouldCarryOutcome() {
+    GroupCommandResultDto dto = new GroupCommandResultDto();
+    dto.setDeviceId("device-001");
+    dto.setSuccess(false);
+    dto.setError("Device is not registered");
+    dto.setLatency(120);
+
+    assertEquals("device-001", dto.getDeviceId());
+    assertFalse(dto.isSuccess());
+    assertEquals("Device is not registered", dto.getError());
+    assertEquals(120, dto.getLatency());
+  }
+
+  @Test
+  @DisplayName("Should carry the devices and control of a group")
+  void shouldCarryGroupControl() {
+    DeviceControlDto control = new DeviceControlDto();
+    control.setPower(false);
+
+    GroupControlDto dto = new GroupControlDto();
+    dto.setDeviceIds(List.of("device-001", "device-002"));
+    dto.setControl(control);
+
+    assertEquals(List.of("device-001", "device-002"), dto.getDeviceIds());
+    assertFalse(dto.getControl().getPower());
+  }
+}
@@ -0,0 +1,107 @@
+package com.gree.hvac.benchmarks;
+
+import com.gree.hvac.protocol.EncryptionService;
+import java.nio.charset.StandardCharsets;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/** Representative GREE protocol messages shared by the benchmarks */
+public final class BenchmarkFrames {
+
+  public static final String MAC = "f4911e7aca59";
+
+  /** Vendor columns requested by a status poll */
+  public static final String[] STATUS_COLUMNS = {
+    "Pow",
+    "Mod",
+    "TemUn",
+    "SetTem",
+    "TemSen",
+    "WdSpd",
+    "Air",
+    "Blo",
+    "Health",
+    "SwhSlp",
+    "Lig",
+    "SwingLfRig",
+    "SwUpDn",
+    "Quiet",
+    "Tur",
+    "SvSt",
+    "StHt"
+  };
+
+  private BenchmarkFrames() {
+    // Utility class
+  }
+
+  /** Status request as sent by the client before encryption */
+  public static JSONObject statusRequest() {
+    JSONObject request = new JSONObject();
+    request.put("cols", new JSONArray(STATUS_COLUMNS));
+    request.put("mac", MAC);
+    request.put("t", "status");
+    return request;
+  }
+
+  /** Decrypted {@code dat} pack answering a status request; the variant changes the set point */
+  public static JSONObject statusPack(int variant) {
+    JSONObject pack = new JSONObject();
+    pack.put("t", "dat");
+    pack.put("mac", MAC);
+    pack.put("r", 200);
+    pack.put("cols", new JSONArray(STATUS_COLUMNS));
+    pack.put(
+        "dat",
+        new JSONArray(new int[] {1, 1, 0, 24 + variant, 63, 2, 0, 0, 1, 0, 1, 0, 0, 0, 0, 0, 0}));
+    return pack;
+  }
+
+  /** Decrypted {@code res} pack confirming a command */
+  public static JSONObject commandResultPack() {
+    JSONObject pack = new JSONObject();
+    pack.put("t", "res");
+    pack.put("mac", MAC);
+    pack.put("r", 200);
+    pack.put("opt", new JSONArray(new String[] {"Pow", "SetTem", "WdSpd"}));
+    pack.put("p", new JSONArray(new int[] {1, 24, 2}));
+    pack.put("val", new JSONArray(new int[] {1, 24, 2}));
+    return pack;
+  }
+
+  /** Decrypted {@code dev} pack answering a discovery scan */
+  public static JSONObject deviceInfoPack() {
+    JSONObject pack = new JSONObject();
+    pack.put("t", "dev");
+    pack.put("cid", MAC);
+    pack.put("bc", "gree");
+    pack.put("brand", "gree");
+    pack.put("catalog", "gree");
+    pack.put("mac", MAC);
+    pack.put("mid", "10001");
+    pack.put("model", "gree");
+    pack.put("name", "Living Room");
+    pack.put("series", "gree");
+    pack.put("vender", "1");
+    pack.put("ver", "V1.2.1");
+    pack.put("lock", 0);
+    return pack;
+  }
+
+  /** Wrap a pack into a wire frame encrypted with the given service */
+  public static byte[] wireFrame(EncryptionService encryptionService, JSONObject pack)
+      throws Exception {
+    EncryptionService.EncryptedMessage encrypted = encryptionService.encrypt(pack);
+
+    JSONObject frame = new JSONObject();
+    frame.put("cid", MAC);
+    frame.put("i", 0);
+    frame.put("t", "pack");
+    frame.put("uid", 0);
+    frame.put("pack", encrypted.getPayload());
+    if (encrypted.getTag() != null) {
+      frame.put("tag", encrypted.getTag());
+    }
+    return frame.toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
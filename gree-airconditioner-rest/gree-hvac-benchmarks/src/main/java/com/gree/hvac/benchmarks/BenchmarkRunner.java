@@ -0,0 +1,38 @@
+package com.gree.hvac.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}
+ *
+ * <p>Accepts the regular JMH command line, but always attaches the GC profiler so every run reports
+ * allocation rate ({@code gc.alloc.rate.norm}) next to throughput, and writes a JSON result file
+ * that can be archived per release and compared for regressions.
+ */
+public final class BenchmarkRunner {
+
+  private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  private BenchmarkRunner() {
+    // Utility class
+  }
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+
+    Options options =
+        new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+            .result(commandLine.getResult().orElse(DEFAULT_RESULT_FILE))
+            .build();
+
+    new Runner(options).run();
+  }
+}
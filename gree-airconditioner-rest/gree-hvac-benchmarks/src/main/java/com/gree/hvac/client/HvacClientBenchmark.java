@@ -0,0 +1,165 @@
+package com.gree.hvac.client;
+
+import com.gree.hvac.benchmarks.BenchmarkFrames;
+import com.gree.hvac.dto.DeviceStatus;
+import com.gree.hvac.network.FrameHandler;
+import com.gree.hvac.network.NetworkService;
+import com.gree.hvac.network.NetworkSocket;
+import com.gree.hvac.protocol.EncryptionService;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Inbound frame handling and status snapshots of a single client
+ *
+ * <p>Frames are fed through the handler the client registers with its {@link NetworkService}, so
+ * the measured path is exactly the one a datagram from the device takes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HvacClientBenchmark {
+
+  /** Whether consecutive {@code dat} frames change a property and trigger a status update */
+  @Param({"false", "true"})
+  public boolean changing;
+
+  /** Decode inbound frames with GreeFrameCodec instead of org.json */
+  @Param({"false", "true"})
+  public boolean streamingCodec;
+
+  private HvacClient client;
+  private CapturingNetworkService networkService;
+  private ByteBuffer[] datFrames;
+  private ByteBuffer resFrame;
+  private int next;
+
+  @Setup
+  public void setUp() throws Exception {
+    HvacClientOptions options =
+        new HvacClientOptions("192.168.1.100")
+            .setAutoConnect(false)
+            .setPoll(false)
+            .setStreamingCodec(streamingCodec)
+            .setConnectTimeout((int) TimeUnit.HOURS.toMillis(1));
+
+    networkService = new CapturingNetworkService();
+    client = new HvacClient(options, networkService);
+    client.connect();
+
+    EncryptionService deviceEncryption = new EncryptionService();
+    datFrames =
+        new ByteBuffer[] {
+          frame(deviceEncryption, 0), frame(deviceEncryption, changing ? 1 : 0),
+        };
+    resFrame =
+        ByteBuffer.wrap(
+                BenchmarkFrames.wireFrame(deviceEncryption, BenchmarkFrames.commandResultPack()))
+            .asReadOnlyBuffer();
+
+    deliver(datFrames[0]);
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.shutdown();
+  }
+
+  @Benchmark
+  public void handleDatFrame() {
+    deliver(datFrames[next++ & 1]);
+  }
+
+  @Benchmark
+  public void handleResFrame() {
+    deliver(resFrame);
+  }
+
+  @Benchmark
+  public DeviceStatus getStatus() {
+    return client.getStatus();
+  }
+
+  private void deliver(ByteBuffer frame) {
+    networkService.handler.onFrame(frame.rewind());
+  }
+
+  private static ByteBuffer frame(EncryptionService encryptionService, int variant)
+      throws Exception {
+    return ByteBuffer.wrap(
+            BenchmarkFrames.wireFrame(encryptionService, BenchmarkFrames.statusPack(variant)))
+        .asReadOnlyBuffer();
+  }
+
+  /** Network service that drops outbound data and keeps the client's frame handler */
+  static class CapturingNetworkService implements NetworkService {
+
+    private volatile FrameHandler handler;
+
+    @Override
+    public NetworkSocket createSocket(int port) {
+      return new NetworkSocket() {
+        @Override
+        public boolean isClosed() {
+          return false;
+        }
+
+        @Override
+        public void close() {
+          // Nothing to release
+        }
+
+        @Override
+        public Object getUnderlyingSocket() {
+          return null;
+        }
+      };
+    }
+
+    @Override
+    public InetAddress resolveAddress(String hostname) throws Exception {
+      return InetAddress.getByName(hostname);
+    }
+
+    @Override
+    public CompletableFuture<Void> startListening(
+        NetworkSocket socket, Consumer<byte[]> messageHandler) {
+      return startFrameListening(
+          socket,
+          frame -> {
+            byte[] data = new byte[frame.remaining()];
+            frame.get(data);
+            messageHandler.accept(data);
+          });
+    }
+
+    @Override
+    public CompletableFuture<Void> startFrameListening(
+        NetworkSocket socket, FrameHandler frameHandler) {
+      handler = frameHandler;
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void sendData(NetworkSocket socket, byte[] data, InetAddress address, int port) {
+      // Outbound traffic is not part of the measurement
+    }
+
+    @Override
+    public boolean isClosed(NetworkSocket socket) {
+      return false;
+    }
+
+    @Override
+    public void closeSocket(NetworkSocket socket) {
+      // Nothing to release
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.gree.hvac.discovery;
+
+import com.gree.hvac.benchmarks.BenchmarkFrames;
+import com.gree.hvac.dto.DeviceInfo;
+import com.gree.hvac.protocol.EncryptionService;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Parse and decrypt a single scan reply as received during discovery */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HvacDiscoveryBenchmark {
+
+  private HvacDiscovery discovery;
+  private String response;
+  private InetAddress source;
+
+  @Setup
+  public void setUp() throws Exception {
+    discovery = new HvacDiscovery();
+    response =
+        new String(
+            BenchmarkFrames.wireFrame(new EncryptionService(), BenchmarkFrames.deviceInfoPack()),
+            StandardCharsets.UTF_8);
+    source = InetAddress.getByAddress(new byte[] {(byte) 192, (byte) 168, 1, 100});
+  }
+
+  @Benchmark
+  public DeviceInfo parseDeviceResponse() {
+    return discovery.parseDeviceResponse(response, source);
+  }
+}
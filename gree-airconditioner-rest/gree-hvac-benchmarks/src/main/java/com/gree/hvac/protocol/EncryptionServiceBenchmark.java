@@ -0,0 +1,55 @@
+package com.gree.hvac.protocol;
+
+import com.gree.hvac.benchmarks.BenchmarkFrames;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+/** Encrypt and decrypt a status request in both cipher modes used by GREE devices */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncryptionServiceBenchmark {
+
+  @Param({"ecb", "gcm"})
+  public String cipher;
+
+  private EncryptionService encryptionService;
+  private JSONObject request;
+  private JSONObject response;
+
+  @Setup
+  public void setUp() throws Exception {
+    encryptionService = new EncryptionService();
+    if ("gcm".equals(cipher)) {
+      // The second bind attempt switches the service to GCM
+      JSONObject bind = new JSONObject();
+      bind.put("t", "bind");
+      encryptionService.encrypt(bind);
+      encryptionService.encrypt(bind);
+    }
+
+    request = BenchmarkFrames.statusRequest();
+
+    EncryptionService.EncryptedMessage encrypted =
+        encryptionService.encrypt(BenchmarkFrames.statusPack(0));
+    response = new JSONObject();
+    response.put("pack", encrypted.getPayload());
+    if (encrypted.getTag() != null) {
+      response.put("tag", encrypted.getTag());
+    }
+  }
+
+  @Benchmark
+  public EncryptionService.EncryptedMessage encrypt() throws Exception {
+    return encryptionService.encrypt(request);
+  }
+
+  @Benchmark
+  public JSONObject decrypt() throws Exception {
+    return encryptionService.decrypt(response);
+  }
+}
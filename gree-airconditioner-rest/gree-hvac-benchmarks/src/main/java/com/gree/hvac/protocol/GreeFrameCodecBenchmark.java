@@ -0,0 +1,56 @@
+package com.gree.hvac.protocol;
+
+import com.gree.hvac.benchmarks.BenchmarkFrames;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+/** Decode a status response envelope and payload with GreeFrameCodec versus org.json */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GreeFrameCodecBenchmark {
+
+  private GreeFrameCodec codec;
+  private ByteBuffer envelope;
+  private ByteBuffer payload;
+
+  @Setup
+  public void setUp() throws Exception {
+    codec = new GreeFrameCodec();
+    envelope =
+        ByteBuffer.wrap(
+                BenchmarkFrames.wireFrame(new EncryptionService(), BenchmarkFrames.statusPack(0)))
+            .asReadOnlyBuffer();
+    payload =
+        ByteBuffer.wrap(BenchmarkFrames.statusPack(0).toString().getBytes(StandardCharsets.UTF_8))
+            .asReadOnlyBuffer();
+  }
+
+  @Benchmark
+  public GreeFrameCodec.Envelope envelopeCodec() {
+    return codec.decodeEnvelope(envelope.rewind());
+  }
+
+  @Benchmark
+  public String envelopeJson() {
+    return new JSONObject(StandardCharsets.UTF_8.decode(envelope.rewind()).toString())
+        .getString("pack");
+  }
+
+  @Benchmark
+  public GreeFrame payloadCodec() {
+    return codec.decode(payload.rewind());
+  }
+
+  @Benchmark
+  public GreeFrame payloadJson() {
+    return GreeFrame.fromJson(
+        new JSONObject(StandardCharsets.UTF_8.decode(payload.rewind()).toString()));
+  }
+}
@@ -0,0 +1,79 @@
+package com.gree.hvac.protocol;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Translate a full status snapshot between vendor and friendly property names */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertyTransformerBenchmark {
+
+  private PropertyTransformer transformer;
+  private Map<String, Object> vendorProperties;
+  private Map<String, Object> friendlyProperties;
+  private Property[] properties;
+  private int[] vendorCodes;
+
+  @Setup
+  public void setUp() {
+    transformer = new PropertyTransformer();
+
+    vendorProperties = new HashMap<>();
+    vendorProperties.put("Pow", 1);
+    vendorProperties.put("Mod", 1);
+    vendorProperties.put("TemUn", 0);
+    vendorProperties.put("SetTem", 24);
+    vendorProperties.put("TemSen", 63);
+    vendorProperties.put("WdSpd", 2);
+    vendorProperties.put("Air", 0);
+    vendorProperties.put("Blo", 0);
+    vendorProperties.put("Health", 1);
+    vendorProperties.put("SwhSlp", 0);
+    vendorProperties.put("Lig", 1);
+    vendorProperties.put("SwingLfRig", 0);
+    vendorProperties.put("SwUpDn", 0);
+    vendorProperties.put("Quiet", 0);
+    vendorProperties.put("Tur", 0);
+    vendorProperties.put("SvSt", 0);
+    vendorProperties.put("StHt", 0);
+
+    properties = Property.values();
+    vendorCodes = new int[properties.length];
+    for (Property property : properties) {
+      vendorCodes[property.ordinal()] =
+          (Integer) vendorProperties.get(transformer.toVendorCode(property));
+    }
+
+    friendlyProperties = new HashMap<>();
+    friendlyProperties.put("power", "on");
+    friendlyProperties.put("mode", "cool");
+    friendlyProperties.put("temperature", 24);
+    friendlyProperties.put("fanSpeed", "medium");
+    friendlyProperties.put("lights", "on");
+    friendlyProperties.put("turbo", "off");
+  }
+
+  @Benchmark
+  public Map<String, Object> fromVendor() {
+    return transformer.fromVendor(vendorProperties);
+  }
+
+  @Benchmark
+  public void fromVendorByProperty(Blackhole blackhole) {
+    for (Property property : properties) {
+      blackhole.consume(transformer.fromVendor(property, vendorCodes[property.ordinal()]));
+    }
+  }
+
+  @Benchmark
+  public Map<String, Object> toVendor() {
+    return transformer.toVendor(friendlyProperties);
+  }
+}
@@ -0,0 +1,68 @@
+package com.gree.hvac.controller;
+
+import com.gree.hvac.dto.DeviceStatus;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shows device status updates on the JavaFX application thread
+ *
+ * <p>Requests the next update only after the previous one was shown, so while the UI is busy the
+ * client conflates the updates and the UI catches up with the latest status.
+ */
+@Slf4j
+final class FxStatusSubscriber implements Flow.Subscriber<DeviceStatus> {
+
+  private final Consumer<DeviceStatus> display;
+  private volatile Flow.Subscription subscription;
+  private volatile boolean cancelled = false;
+
+  FxStatusSubscriber(Consumer<DeviceStatus> display) {
+    this.display = display;
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    if (cancelled) {
+      subscription.cancel();
+    } else {
+      subscription.request(1);
+    }
+  }
+
+  @Override
+  public void onNext(DeviceStatus status) {
+    Platform.runLater(
+        () -> {
+          try {
+            if (!cancelled) {
+              display.accept(status);
+            }
+          } finally {
+            subscription.request(1);
+          }
+        });
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    log.error("Device status stream failed", throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    log.debug("Device status stream completed");
+  }
+
+  /** Stop receiving updates */
+  void cancel() {
+    cancelled = true;
+    Flow.Subscription current = subscription;
+    if (current != null) {
+      current.cancel();
+    }
+  }
+}
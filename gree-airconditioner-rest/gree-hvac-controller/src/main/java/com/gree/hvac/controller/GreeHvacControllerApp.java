@@ -94,8 +94,16 @@ public class GreeHvacControllerApp extends Application {
     return root;
   }
 
+  // Rapid +/- clicks within this window are sent to the device as one command
+  private static final int COMMAND_COALESCE_WINDOW_MS = 200;
+
+  // Devices answer a scan within tens of milliseconds; stop once none answered for this long
+  private static final int DISCOVERY_QUIET_PERIOD_MS = 500;
+
   private java.util.List<com.gree.hvac.dto.DeviceInfo> discoveredDevices =
       new java.util.ArrayList<>();
+  // MAC addresses of the last scan, read by the rescans on the discovery thread
+  private volatile java.util.List<String> knownDeviceMacs = java.util.List.of();
   private com.gree.hvac.dto.DeviceInfo selectedDevice = null;
   private com.gree.hvac.client.HvacClient currentClient = null;
   private javafx.scene.control.ComboBox<String> deviceComboBox;
@@ -117,9 +125,8 @@ public class GreeHvacControllerApp extends Application {
   private java.util.concurrent.ScheduledExecutorService discoveryExecutor;
   private java.util.concurrent.ScheduledFuture<?> discoveryTask;
 
-  // Status polling
-  private java.util.concurrent.ScheduledExecutorService statusPollingExecutor;
-  private java.util.concurrent.ScheduledFuture<?> statusPollingTask;
+  // Status updates of the connected device
+  private FxStatusSubscriber statusSubscriber;
 
   // New enhanced UI methods
   private javafx.scene.layout.HBox createHeaderWithControls() {
@@ -443,7 +450,12 @@ public class GreeHvacControllerApp extends Application {
   }
 
   private void performDiscovery() {
-    com.gree.hvac.GreeHvac.discoverDevices()
+    // Rescans return as soon as the known devices answered or the network went quiet
+    com.gree.hvac.discovery.DiscoveryOptions options =
+        new com.gree.hvac.discovery.DiscoveryOptions()
+            .setQuietPeriod(DISCOVERY_QUIET_PERIOD_MS)
+            .setExpectedDevices(knownDeviceMacs);
+    com.gree.hvac.GreeHvac.discoverDevices(options)
         .thenAccept(
             devices -> {
               Platform.runLater(
@@ -451,6 +463,8 @@ public class GreeHvacControllerApp extends Application {
                     boolean devicesChanged = !devices.equals(discoveredDevices);
                     discoveredDevices.clear();
                     discoveredDevices.addAll(devices);
+                    knownDeviceMacs =
+                        devices.stream().map(com.gree.hvac.dto.DeviceInfo::getMacAddress).toList();
                     updateDeviceComboBox();
 
                     if (devicesChanged) {
@@ -511,7 +525,10 @@ public class GreeHvacControllerApp extends Application {
     connectionStatusLabel.setStyle("-fx-text-fill: #FF9800; -fx-font-style: italic;");
 
     try {
-      currentClient = com.gree.hvac.GreeHvac.createClient(selectedDevice);
+      currentClient =
+          com.gree.hvac.GreeHvac.createClient(
+              new com.gree.hvac.client.HvacClientOptions(selectedDevice.getIpAddress())
+                  .setCommandCoalesceWindow(COMMAND_COALESCE_WINDOW_MS));
       currentClient
           .connect()
           .thenRun(
@@ -529,9 +546,7 @@ public class GreeHvacControllerApp extends Application {
                           "-fx-text-fill: #4CAF50; -fx-font-style: italic;");
                       setControlPanelEnabled(true);
 
-                      // Start status polling
-                      startStatusPolling();
-                      updateDeviceStatus();
+                      subscribeToStatus();
 
                       // Check if this was a device switch
                       String statusMessage =
@@ -574,6 +589,7 @@ public class GreeHvacControllerApp extends Application {
   }
 
   private void disconnectFromDevice(boolean isSwitching) {
+    unsubscribeFromStatus();
     if (currentClient != null) {
       currentClient.disconnect();
       currentClient = null;
@@ -593,65 +609,49 @@ public class GreeHvacControllerApp extends Application {
 
     setControlPanelEnabled(false);
     resetControlsToDefault();
-    stopStatusPolling();
   }
 
-  private void startStatusPolling() {
-    if (statusPollingExecutor == null) {
-      statusPollingExecutor = java.util.concurrent.Executors.newSingleThreadScheduledExecutor();
-    }
+  private void subscribeToStatus() {
+    if (currentClient == null) return;
 
-    // Poll device status every 3 seconds
-    statusPollingTask =
-        statusPollingExecutor.scheduleAtFixedRate(
-            this::updateDeviceStatus, 1, 3, java.util.concurrent.TimeUnit.SECONDS);
+    unsubscribeFromStatus();
+    statusSubscriber = new FxStatusSubscriber(this::updateDeviceStatus);
+    currentClient.getStatusPublisher().subscribe(statusSubscriber);
   }
 
-  private void stopStatusPolling() {
-    if (statusPollingTask != null) {
-      statusPollingTask.cancel(true);
-      statusPollingTask = null;
+  private void unsubscribeFromStatus() {
+    if (statusSubscriber != null) {
+      statusSubscriber.cancel();
+      statusSubscriber = null;
     }
   }
 
-  private void updateDeviceStatus() {
-    if (currentClient == null || !currentClient.isConnected()) return;
-
-    try {
-      com.gree.hvac.dto.DeviceStatus status = currentClient.getStatus();
-      javafx.application.Platform.runLater(
-          () -> {
-            if (status != null) {
-              // Update power toggle
-              if (status.getPower() != null) {
-                powerToggle.setSelected(status.getPower());
-                powerToggle.setText(status.getPower() ? "ON" : "OFF");
-              }
+  private void updateDeviceStatus(com.gree.hvac.dto.DeviceStatus status) {
+    // Update power toggle
+    if (status.getPower() != null) {
+      powerToggle.setSelected(status.getPower());
+      powerToggle.setText(status.getPower() ? "ON" : "OFF");
+    }
 
-              // Update temperature setting and label
-              if (status.getTemperature() != null) {
-                currentTemperature = status.getTemperature();
-                temperatureLabel.setText(currentTemperature + "°C");
-              }
+    // Update temperature setting and label
+    if (status.getTemperature() != null) {
+      currentTemperature = status.getTemperature();
+      temperatureLabel.setText(currentTemperature + "°C");
+    }
 
-              // Update current temperature
-              if (status.getCurrentTemperature() != null && currentTempLabel != null) {
-                currentTempLabel.setText("Current: " + status.getCurrentTemperature() + "°C");
-              }
+    // Update current temperature
+    if (status.getCurrentTemperature() != null && currentTempLabel != null) {
+      currentTempLabel.setText("Current: " + status.getCurrentTemperature() + "°C");
+    }
 
-              // Update mode
-              if (status.getMode() != null) {
-                modeComboBox.setValue(status.getMode().toUpperCase());
-              }
+    // Update mode
+    if (status.getMode() != null) {
+      modeComboBox.setValue(status.getMode().toUpperCase());
+    }
 
-              // Update fan speed
-              if (status.getFanSpeed() != null) {
-                fanSpeedComboBox.setValue(status.getFanSpeed().toUpperCase());
-              }
-            }
-          });
-    } catch (Exception e) {
-      // Silently handle status update errors to avoid spamming the UI
+    // Update fan speed
+    if (status.getFanSpeed() != null) {
+      fanSpeedComboBox.setValue(status.getFanSpeed().toUpperCase());
     }
   }
 
@@ -683,15 +683,8 @@ public class GreeHvacControllerApp extends Application {
 
     com.gree.hvac.dto.DeviceControl control = new com.gree.hvac.dto.DeviceControl();
     control.setPower(power);
-    currentClient
-        .control(control)
-        .thenRun(
-            () -> {
-              // Wait a moment then update status
-              java.util.concurrent.CompletableFuture.delayedExecutor(
-                      1, java.util.concurrent.TimeUnit.SECONDS)
-                  .execute(this::updateDeviceStatus);
-            });
+    // The confirmed state reaches the controls through the status stream
+    currentClient.control(control);
   }
 
   private void increaseTemperature() {
@@ -722,15 +715,8 @@ public class GreeHvacControllerApp extends Application {
   private void sendTemperatureCommand() {
     com.gree.hvac.dto.DeviceControl control = new com.gree.hvac.dto.DeviceControl();
     control.setTemperature(currentTemperature);
-    currentClient
-        .control(control)
-        .thenRun(
-            () -> {
-              // Wait a moment then update status
-              java.util.concurrent.CompletableFuture.delayedExecutor(
-                      1, java.util.concurrent.TimeUnit.SECONDS)
-                  .execute(this::updateDeviceStatus);
-            });
+    // The confirmed state reaches the controls through the status stream
+    currentClient.control(control);
   }
 
   private void updateDeviceMode() {
@@ -739,15 +725,8 @@ public class GreeHvacControllerApp extends Application {
     String mode = modeComboBox.getValue();
     com.gree.hvac.dto.DeviceControl control = new com.gree.hvac.dto.DeviceControl();
     control.setMode(mode);
-    currentClient
-        .control(control)
-        .thenRun(
-            () -> {
-              // Wait a moment then update status
-              java.util.concurrent.CompletableFuture.delayedExecutor(
-                      1, java.util.concurrent.TimeUnit.SECONDS)
-                  .execute(this::updateDeviceStatus);
-            });
+    // The confirmed state reaches the controls through the status stream
+    currentClient.control(control);
   }
 
   private void updateDeviceFanSpeed() {
@@ -756,15 +735,8 @@ public class GreeHvacControllerApp extends Application {
     String fanSpeed = fanSpeedComboBox.getValue();
     com.gree.hvac.dto.DeviceControl control = new com.gree.hvac.dto.DeviceControl();
     control.setFanSpeed(fanSpeed);
-    currentClient
-        .control(control)
-        .thenRun(
-            () -> {
-              // Wait a moment then update status
-              java.util.concurrent.CompletableFuture.delayedExecutor(
-                      1, java.util.concurrent.TimeUnit.SECONDS)
-                  .execute(this::updateDeviceStatus);
-            });
+    // The confirmed state reaches the controls through the status stream
+    currentClient.control(control);
   }
 
   @Override
@@ -784,13 +756,7 @@ public class GreeHvacControllerApp extends Application {
       discoveryExecutor.shutdown();
     }
 
-    if (statusPollingTask != null) {
-      statusPollingTask.cancel(true);
-    }
-
-    if (statusPollingExecutor != null) {
-      statusPollingExecutor.shutdown();
-    }
+    unsubscribeFromStatus();
 
     if (systemTray != null && trayIcon != null) {
       systemTray.remove(trayIcon);
@@ -2,6 +2,7 @@ package com.gree.hvac.controller;
 
 import com.gree.hvac.GreeHvac;
 import com.gree.hvac.client.HvacClient;
+import com.gree.hvac.client.HvacClientOptions;
 import com.gree.hvac.dto.DeviceControl;
 import com.gree.hvac.dto.DeviceInfo;
 import com.gree.hvac.dto.DeviceStatus;
@@ -21,6 +22,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MainController {
 
+  // Slider ticks within this window are sent to the device as one command
+  private static final int COMMAND_COALESCE_WINDOW_MS = 200;
+
   @FXML private VBox mainContainer;
 
   @FXML private Button discoverButton;
@@ -67,6 +71,7 @@ public class MainController {
 
   private Stage primaryStage;
   private HvacClient currentClient;
+  private FxStatusSubscriber statusSubscriber;
   private DeviceInfo selectedDevice;
   private final ObservableList<DeviceInfo> discoveredDevices = FXCollections.observableArrayList();
 
@@ -201,7 +206,10 @@ public class MainController {
     connectButton.setDisable(true);
 
     try {
-      currentClient = GreeHvac.createClient(selectedDevice);
+      currentClient =
+          GreeHvac.createClient(
+              new HvacClientOptions(selectedDevice.getIpAddress())
+                  .setCommandCoalesceWindow(COMMAND_COALESCE_WINDOW_MS));
 
       CompletableFuture<Void> connectFuture = currentClient.connect();
       connectFuture
@@ -214,8 +222,7 @@ public class MainController {
                       setControlPanelEnabled(true);
                       setConnectionStatus("Connected to " + selectedDevice.getName());
 
-                      // Start status polling
-                      startStatusPolling();
+                      subscribeToStatus();
 
                       log.info("Successfully connected to device: {}", selectedDevice.getName());
                     });
@@ -244,6 +251,7 @@ public class MainController {
   private void onDisconnect() {
     if (currentClient != null) {
       log.info("Disconnecting from device");
+      unsubscribeFromStatus();
       currentClient.disconnect();
       currentClient = null;
       selectedDevice = null;
@@ -346,23 +354,19 @@ public class MainController {
             });
   }
 
-  private void startStatusPolling() {
+  private void subscribeToStatus() {
     if (currentClient == null) return;
 
-    // Poll device status every 5 seconds
-    CompletableFuture.runAsync(
-        () -> {
-          while (currentClient != null && currentClient.isConnected()) {
-            try {
-              DeviceStatus status = currentClient.getStatus();
-              Platform.runLater(() -> updateStatusDisplay(status));
-              Thread.sleep(5000);
-            } catch (Exception e) {
-              log.error("Error polling device status", e);
-              break;
-            }
-          }
-        });
+    unsubscribeFromStatus();
+    statusSubscriber = new FxStatusSubscriber(this::updateStatusDisplay);
+    currentClient.getStatusPublisher().subscribe(statusSubscriber);
+  }
+
+  private void unsubscribeFromStatus() {
+    if (statusSubscriber != null) {
+      statusSubscriber.cancel();
+      statusSubscriber = null;
+    }
   }
 
   private void updateStatusDisplay(DeviceStatus status) {
@@ -2,8 +2,11 @@ package com.gree.hvac;
 
 import com.gree.hvac.client.HvacClient;
 import com.gree.hvac.client.HvacClientOptions;
+import com.gree.hvac.discovery.DiscoveryOptions;
 import com.gree.hvac.discovery.HvacDiscovery;
 import com.gree.hvac.dto.DeviceInfo;
+import com.gree.hvac.network.MultiplexedNetworkService;
+import com.gree.hvac.network.NetworkService;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -31,6 +34,18 @@ public final class GreeHvac {
     return discovery.discoverDevices();
   }
 
+  /**
+   * Discover GREE HVAC devices, stopping as soon as the expected devices answered or the network
+   * went quiet
+   *
+   * @param options discovery timeout and early exit conditions
+   * @return CompletableFuture containing list of discovered devices
+   */
+  public static CompletableFuture<List<DeviceInfo>> discoverDevices(DiscoveryOptions options) {
+    HvacDiscovery discovery = new HvacDiscovery();
+    return discovery.discoverDevices(options);
+  }
+
   /**
    * Discover GREE HVAC devices on specific broadcast address
    *
@@ -70,6 +85,25 @@ public final class GreeHvac {
     return new HvacClient(options);
   }
 
+  /**
+   * Create HVAC client that communicates through a shared network service, e.g. a {@link
+   * MultiplexedNetworkService} used by the whole fleet
+   *
+   * @param options client configuration options
+   * @param networkService network service shared between clients
+   * @return HvacClient instance
+   * @throws NullPointerException if options or networkService is null
+   */
+  public static HvacClient createClient(HvacClientOptions options, NetworkService networkService) {
+    if (options == null) {
+      throw new NullPointerException("Options cannot be null");
+    }
+    if (networkService == null) {
+      throw new NullPointerException("NetworkService cannot be null");
+    }
+    return new HvacClient(options, networkService);
+  }
+
   /**
    * Create HVAC client for discovered device
    *
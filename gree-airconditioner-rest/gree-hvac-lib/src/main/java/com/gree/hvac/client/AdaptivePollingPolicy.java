@@ -0,0 +1,74 @@
+package com.gree.hvac.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Decides when the next status poll is due in adaptive polling mode
+ *
+ * <p>The interval doubles after every status response that changes nothing, up to the maximum, and
+ * drops to the fast interval after a command or a detected change. Independently of the interval,
+ * no more than {@code maxPollsPerMinute} polls are made in any sliding minute.
+ */
+class AdaptivePollingPolicy {
+
+  private static final long WINDOW = 60000;
+
+  private final long fastInterval;
+  private final long maxInterval;
+  private final int maxPollsPerMinute;
+  private final Deque<Long> recentPolls = new ArrayDeque<>();
+  private long interval;
+
+  AdaptivePollingPolicy(
+      long initialInterval, long fastInterval, long maxInterval, int maxPollsPerMinute) {
+    if (fastInterval < 1 || maxInterval < fastInterval) {
+      throw new IllegalArgumentException("Polling intervals must satisfy 0 < fast <= max");
+    }
+    this.fastInterval = fastInterval;
+    this.maxInterval = maxInterval;
+    this.maxPollsPerMinute = maxPollsPerMinute;
+    this.interval = Math.max(fastInterval, Math.min(initialInterval, maxInterval));
+  }
+
+  /** Record a status response, backing off if it changed nothing */
+  synchronized void onStatus(boolean changed) {
+    interval = changed ? fastInterval : Math.min(interval * 2, maxInterval);
+  }
+
+  /** Record a command sent to the device */
+  synchronized void onCommand() {
+    interval = fastInterval;
+  }
+
+  /** Record a poll made at the given time */
+  synchronized void onPoll(long now) {
+    recentPolls.addLast(now);
+    expire(now);
+  }
+
+  /** Delay from the given time until the next poll is allowed and due */
+  synchronized long nextDelay(long now) {
+    expire(now);
+    long delay = interval;
+    if (maxPollsPerMinute > 0 && recentPolls.size() >= maxPollsPerMinute) {
+      // The poll that would exceed the cap waits until the oldest one leaves the window
+      delay = Math.max(delay, recentPolls.peekFirst() + WINDOW - now);
+    }
+    return delay;
+  }
+
+  synchronized long getInterval() {
+    return interval;
+  }
+
+  private void expire(long now) {
+    while (!recentPolls.isEmpty() && recentPolls.peekFirst() <= now - WINDOW) {
+      recentPolls.pollFirst();
+    }
+    // Only the last maxPollsPerMinute polls matter for the cap
+    while (maxPollsPerMinute > 0 && recentPolls.size() > maxPollsPerMinute) {
+      recentPolls.pollFirst();
+    }
+  }
+}
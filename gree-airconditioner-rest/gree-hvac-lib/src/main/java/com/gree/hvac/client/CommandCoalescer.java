@@ -0,0 +1,114 @@
+package com.gree.hvac.client;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Merges property writes that arrive within a short window into one command
+ *
+ * <p>The first write after a flush opens the window; writes made before it closes are merged in
+ * arrival order, so the last value written for a property wins. Each write keeps its own future,
+ * which completes with the merged command.
+ */
+class CommandCoalescer {
+
+  private final HvacTimer timer;
+  private final long window;
+  private final Function<Map<String, Object>, CompletableFuture<Void>> sender;
+
+  private Map<String, Object> pending = new LinkedHashMap<>();
+  private List<CompletableFuture<Void>> waiting = new ArrayList<>();
+  // A window timer only flushes while its window is still the open one
+  private HvacTimer.Timeout windowTimeout;
+  private long windowGeneration;
+
+  CommandCoalescer(
+      HvacTimer timer, long window, Function<Map<String, Object>, CompletableFuture<Void>> sender) {
+    this.timer = timer;
+    this.window = window;
+    this.sender = sender;
+  }
+
+  /** Add vendor property values to the next command */
+  CompletableFuture<Void> submit(Map<String, Object> vendorProperties) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    long generation = 0;
+    boolean rejected = false;
+    synchronized (this) {
+      pending.putAll(vendorProperties);
+      waiting.add(future);
+      if (waiting.size() == 1) {
+        generation = ++windowGeneration;
+        long opened = generation;
+        try {
+          windowTimeout = timer.schedule(() -> flush(opened), window, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+          rejected = true;
+        }
+      }
+    }
+    if (rejected) {
+      flush(generation);
+    }
+    return future;
+  }
+
+  /** Fail the writes that have not been sent yet */
+  void failAll(Exception cause) {
+    List<CompletableFuture<Void>> failed;
+    synchronized (this) {
+      closeWindow();
+      failed = waiting;
+      pending = new LinkedHashMap<>();
+      waiting = new ArrayList<>();
+    }
+    failed.forEach(future -> future.completeExceptionally(cause));
+  }
+
+  private void flush(long generation) {
+    Map<String, Object> properties;
+    List<CompletableFuture<Void>> flushed;
+    synchronized (this) {
+      if (generation != windowGeneration || waiting.isEmpty()) {
+        return;
+      }
+      closeWindow();
+      properties = pending;
+      flushed = waiting;
+      pending = new LinkedHashMap<>();
+      waiting = new ArrayList<>();
+    }
+
+    CompletableFuture<Void> command;
+    try {
+      command = sender.apply(properties);
+    } catch (Exception e) {
+      command = CompletableFuture.failedFuture(e);
+    }
+    command.whenComplete(
+        (result, error) ->
+            flushed.forEach(
+                future -> {
+                  if (error != null) {
+                    future.completeExceptionally(error);
+                  } else {
+                    future.complete(null);
+                  }
+                }));
+  }
+
+  /** Cancel the timer of the open window and make any timer already running ignore it */
+  private void closeWindow() {
+    windowGeneration++;
+    if (windowTimeout != null) {
+      windowTimeout.cancel();
+      windowTimeout = null;
+    }
+  }
+}
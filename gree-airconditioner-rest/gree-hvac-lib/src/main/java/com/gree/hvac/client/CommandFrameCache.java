@@ -0,0 +1,81 @@
+package com.gree.hvac.client;
+
+import com.gree.hvac.protocol.EncryptionService;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.json.JSONObject;
+
+/**
+ * Shares the packed, encrypted command frames of one group command between the clients it fans out
+ * to
+ *
+ * <p>A {@code cmd} message carries no MAC and the pack is deterministic, so every device using the
+ * same cipher and key receives the same bytes for the same properties. The first client to need a
+ * frame encrypts it while the others wait for and reuse it. The cache lives as long as the group
+ * command, so it only holds the distinct frames of one command.
+ */
+class CommandFrameCache {
+
+  private final Map<Entry, byte[]> frames = new ConcurrentHashMap<>();
+
+  /**
+   * Get the packed frame for a command encrypted with the service's current cipher and key,
+   * encrypting it on first use. The returned array is shared and must not be modified.
+   */
+  byte[] get(JSONObject command, EncryptionService encryptionService) throws Exception {
+    // Hold the service so the key cannot change between the lookup and the encryption
+    synchronized (encryptionService) {
+      Entry entry =
+          new Entry(encryptionService.getCipher(), encryptionService.getKey(), command.toString());
+      try {
+        return frames.computeIfAbsent(entry, key -> encrypt(command, encryptionService));
+      } catch (IllegalStateException e) {
+        if (e.getCause() instanceof Exception cause) {
+          throw cause;
+        }
+        throw e;
+      }
+    }
+  }
+
+  /** Number of distinct frames encrypted so far */
+  int size() {
+    return frames.size();
+  }
+
+  private static byte[] encrypt(JSONObject command, EncryptionService encryptionService) {
+    try {
+      EncryptionService.EncryptedMessage encrypted = encryptionService.encrypt(command);
+      return HvacClient.packedMessage(encrypted, 0).toString().getBytes(StandardCharsets.UTF_8);
+    } catch (Exception e) {
+      throw new IllegalStateException("Could not encrypt command", e);
+    }
+  }
+
+  private static final class Entry {
+    private final String cipher;
+    private final String key;
+    private final String payload;
+
+    Entry(String cipher, String key, String payload) {
+      this.cipher = cipher;
+      this.key = key;
+      this.payload = payload;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Entry other
+          && cipher.equals(other.cipher)
+          && key.equals(other.key)
+          && payload.equals(other.payload);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(cipher, key, payload);
+    }
+  }
+}
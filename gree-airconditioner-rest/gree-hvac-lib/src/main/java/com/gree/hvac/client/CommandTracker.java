@@ -0,0 +1,205 @@
+package com.gree.hvac.client;
+
+import com.gree.hvac.exceptions.HvacException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the commands sent to one device until the device confirms them
+ *
+ * <p>A {@code res} frame carries no request id, only the vendor properties it applied, so a
+ * confirmation completes the oldest in-flight command for the same set of properties. At most
+ * {@code maxInFlight} commands await a confirmation at a time; further commands are queued and sent
+ * in submission order as confirmations arrive. An unconfirmed command is resent after the timeout
+ * and fails with {@link HvacException} once its retries are used up.
+ */
+@Slf4j
+class CommandTracker {
+
+  /** Transmits an encoded command frame to the device */
+  interface Sender {
+    void send(byte[] frame) throws Exception;
+  }
+
+  private final HvacTimer timer;
+  private final Sender sender;
+  private final int maxInFlight;
+  private final long timeout;
+  private final int retries;
+
+  private final Deque<Command> inFlight = new ArrayDeque<>();
+  private final Deque<Command> queued = new ArrayDeque<>();
+
+  CommandTracker(HvacTimer timer, Sender sender, int maxInFlight, long timeout, int retries) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("At least one command must be allowed in flight");
+    }
+    this.timer = timer;
+    this.sender = sender;
+    this.maxInFlight = maxInFlight;
+    this.timeout = timeout;
+    this.retries = retries;
+  }
+
+  /**
+   * Send a command frame setting the given vendor properties, or queue it if the pipeline is full.
+   * The returned future completes when the device confirms the command.
+   */
+  CompletableFuture<Void> submit(Collection<String> options, byte[] frame) {
+    Command command = new Command(Set.copyOf(options), frame);
+    boolean send;
+    synchronized (this) {
+      send = inFlight.size() < maxInFlight;
+      (send ? inFlight : queued).add(command);
+    }
+    if (send) {
+      transmit(command);
+    }
+    return command.future;
+  }
+
+  /**
+   * Complete the oldest in-flight command for the confirmed vendor properties
+   *
+   * @return false if no in-flight command matches
+   */
+  boolean confirm(Collection<String> options) {
+    Set<String> confirmed = Set.copyOf(options);
+    Command command = null;
+    List<Command> next;
+    synchronized (this) {
+      Iterator<Command> iterator = inFlight.iterator();
+      while (command == null && iterator.hasNext()) {
+        Command candidate = iterator.next();
+        if (candidate.options.equals(confirmed)) {
+          iterator.remove();
+          command = candidate;
+        }
+      }
+      if (command == null) {
+        return false;
+      }
+      cancelTimeout(command);
+      next = promote();
+    }
+    command.future.complete(null);
+    next.forEach(this::transmit);
+    return true;
+  }
+
+  /** Fail every in-flight and queued command, e.g. when the connection is reset */
+  void failAll(Exception cause) {
+    List<Command> failed;
+    synchronized (this) {
+      failed = new ArrayList<>(inFlight);
+      failed.addAll(queued);
+      inFlight.clear();
+      queued.clear();
+      failed.forEach(this::cancelTimeout);
+    }
+    failed.forEach(command -> command.future.completeExceptionally(cause));
+  }
+
+  synchronized int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  synchronized int getQueuedCount() {
+    return queued.size();
+  }
+
+  private void transmit(Command command) {
+    try {
+      sender.send(command.frame);
+      synchronized (this) {
+        command.attempts++;
+        if (inFlight.contains(command)) {
+          command.timeoutTask =
+              timer.schedule(() -> onTimeout(command), timeout, TimeUnit.MILLISECONDS);
+        }
+      }
+    } catch (RejectedExecutionException e) {
+      fail(command, new HvacException("Client is shut down", e));
+    } catch (Exception e) {
+      fail(command, e);
+    }
+  }
+
+  private void onTimeout(Command command) {
+    boolean resend;
+    synchronized (this) {
+      if (!inFlight.contains(command)) {
+        return;
+      }
+      command.timeoutTask = null;
+      resend = command.attempts <= retries;
+    }
+    if (resend) {
+      log.debug("Command {} not confirmed within {}ms, resending", command.options, timeout);
+      transmit(command);
+    } else {
+      log.warn("Command {} not confirmed after {} attempts", command.options, command.attempts);
+      fail(
+          command,
+          new HvacException(
+              "Device did not confirm command "
+                  + command.options
+                  + " after "
+                  + command.attempts
+                  + " attempts"));
+    }
+  }
+
+  private void fail(Command command, Exception cause) {
+    List<Command> next;
+    synchronized (this) {
+      if (!inFlight.remove(command)) {
+        return;
+      }
+      cancelTimeout(command);
+      next = promote();
+    }
+    command.future.completeExceptionally(cause);
+    next.forEach(this::transmit);
+  }
+
+  /** Move queued commands into the freed pipeline slots, to be sent outside the lock */
+  private List<Command> promote() {
+    List<Command> next = new ArrayList<>();
+    while (inFlight.size() < maxInFlight && !queued.isEmpty()) {
+      Command command = queued.poll();
+      inFlight.add(command);
+      next.add(command);
+    }
+    return next;
+  }
+
+  private void cancelTimeout(Command command) {
+    if (command.timeoutTask != null) {
+      command.timeoutTask.cancel();
+      command.timeoutTask = null;
+    }
+  }
+
+  private static final class Command {
+    private final Set<String> options;
+    private final byte[] frame;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private int attempts;
+    private HvacTimer.Timeout timeoutTask;
+
+    Command(Set<String> options, byte[] frame) {
+      this.options = options;
+      this.frame = frame;
+    }
+  }
+}
@@ -0,0 +1,251 @@
+package com.gree.hvac.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Flow.Publisher of state updates that never buffers more than the latest item per key
+ *
+ * <p>Items are delivered only as far as subscribers request them. While a subscriber has no demand,
+ * newer items replace older undelivered ones with the same conflation key, so a slow subscriber
+ * skips intermediate states instead of falling behind; with the default key every item replaces the
+ * previous one. A new subscriber first receives the latest item of every key. Delivery runs on the
+ * executor, one task at a time per subscriber.
+ *
+ * @param <T> item type
+ */
+@Slf4j
+public class ConflatingPublisher<T> implements Flow.Publisher<T> {
+
+  private static final Object SINGLE_KEY = new Object();
+  private static final Executor VIRTUAL_THREADS =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("gree-publisher-", 0).factory());
+
+  private final Executor executor;
+  private final Function<? super T, ?> conflationKey;
+  private final List<ConflatingSubscription> subscriptions = new CopyOnWriteArrayList<>();
+  private final Map<Object, T> latest = new LinkedHashMap<>();
+  private boolean closed = false;
+
+  /** Create a publisher that keeps only the latest item, delivering on virtual threads */
+  public ConflatingPublisher() {
+    this(null);
+  }
+
+  /**
+   * Create a publisher that keeps only the latest item
+   *
+   * @param executor runs the subscribers, a virtual thread per delivery run if null
+   */
+  public ConflatingPublisher(Executor executor) {
+    this(executor, item -> SINGLE_KEY);
+  }
+
+  /**
+   * @param executor runs the subscribers, a virtual thread per delivery run if null
+   * @param conflationKey items with equal keys replace each other while undelivered
+   */
+  public ConflatingPublisher(Executor executor, Function<? super T, ?> conflationKey) {
+    this.executor = executor != null ? executor : VIRTUAL_THREADS;
+    this.conflationKey = Objects.requireNonNull(conflationKey, "conflationKey");
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    ConflatingSubscription subscription = new ConflatingSubscription(subscriber);
+    boolean complete;
+    synchronized (this) {
+      complete = closed;
+      if (!complete) {
+        latest.forEach(subscription::offer);
+        subscriptions.add(subscription);
+      }
+    }
+    if (complete) {
+      subscription.complete();
+    }
+    subscription.schedule();
+  }
+
+  /**
+   * Publish an item to every subscriber
+   *
+   * @return false if the publisher is closed and the item was dropped
+   */
+  public boolean submit(T item) {
+    Objects.requireNonNull(item, "item");
+    Object key = conflationKey.apply(item);
+    synchronized (this) {
+      if (closed) {
+        return false;
+      }
+      latest.remove(key);
+      latest.put(key, item);
+    }
+    for (ConflatingSubscription subscription : subscriptions) {
+      subscription.offer(key, item);
+      subscription.schedule();
+    }
+    return true;
+  }
+
+  /** Forget the latest item of a key, so new subscribers no longer receive it */
+  public synchronized void forget(Object key) {
+    latest.remove(key);
+  }
+
+  /** Complete every subscriber once it has received the items still pending for it */
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    for (ConflatingSubscription subscription : subscriptions) {
+      subscription.complete();
+      subscription.schedule();
+    }
+    subscriptions.clear();
+  }
+
+  public boolean hasSubscribers() {
+    return !subscriptions.isEmpty();
+  }
+
+  public int getSubscriberCount() {
+    return subscriptions.size();
+  }
+
+  private final class ConflatingSubscription implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super T> subscriber;
+    private final Map<Object, T> pending = new LinkedHashMap<>();
+    private long demand;
+    private boolean completing;
+    private boolean done;
+    private boolean running;
+    private boolean subscribed; // only accessed by the delivery task
+    private Throwable error;
+
+    ConflatingSubscription(Flow.Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    synchronized void offer(Object key, T item) {
+      if (!done) {
+        pending.remove(key);
+        pending.put(key, item);
+      }
+    }
+
+    synchronized void complete() {
+      completing = true;
+    }
+
+    @Override
+    public void request(long n) {
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        if (n <= 0) {
+          error = new IllegalArgumentException("Demand must be positive, got " + n);
+        } else {
+          demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (this) {
+        done = true;
+        pending.clear();
+      }
+      subscriptions.remove(this);
+    }
+
+    void schedule() {
+      synchronized (this) {
+        if (running) {
+          return;
+        }
+        running = true;
+      }
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        log.warn("Publisher executor rejected delivery", e);
+        synchronized (this) {
+          running = false;
+        }
+      }
+    }
+
+    /** Deliver signals in order until there is no demand or nothing is pending */
+    @Override
+    public void run() {
+      if (!subscribed) {
+        subscribed = true;
+        signal(() -> subscriber.onSubscribe(this));
+      }
+
+      while (true) {
+        T item = null;
+        Throwable failure = null;
+        synchronized (this) {
+          if (done) {
+            running = false;
+            return;
+          }
+          if (error != null) {
+            failure = error;
+            done = true;
+          } else if (demand > 0 && !pending.isEmpty()) {
+            Iterator<T> iterator = pending.values().iterator();
+            item = iterator.next();
+            iterator.remove();
+            demand--;
+          } else if (completing && pending.isEmpty()) {
+            done = true;
+          } else {
+            running = false;
+            return;
+          }
+        }
+
+        if (failure != null) {
+          Throwable cause = failure;
+          subscriptions.remove(this);
+          signal(() -> subscriber.onError(cause));
+        } else if (item != null) {
+          T next = item;
+          signal(() -> subscriber.onNext(next));
+        } else {
+          signal(subscriber::onComplete);
+        }
+      }
+    }
+
+    private void signal(Runnable signal) {
+      try {
+        signal.run();
+      } catch (Exception e) {
+        log.warn("Subscriber failed, cancelling its subscription", e);
+        cancel();
+      }
+    }
+  }
+}
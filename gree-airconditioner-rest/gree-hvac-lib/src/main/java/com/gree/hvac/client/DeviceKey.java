@@ -0,0 +1,67 @@
+package com.gree.hvac.client;
+
+import java.util.Objects;
+
+/** Key a device handed out in its {@code bindok}, together with where and how it was bound */
+public final class DeviceKey {
+
+  private final String mac;
+  private final String host;
+  private final String cipher;
+  private final String key;
+
+  /**
+   * @param mac device MAC-address
+   * @param host address the client connected to when binding
+   * @param cipher "ecb" or "gcm"
+   * @param key device key
+   */
+  public DeviceKey(String mac, String host, String cipher, String key) {
+    this.mac = Objects.requireNonNull(mac, "mac");
+    this.host = Objects.requireNonNull(host, "host");
+    this.cipher = Objects.requireNonNull(cipher, "cipher");
+    this.key = Objects.requireNonNull(key, "key");
+  }
+
+  public String getMac() {
+    return mac;
+  }
+
+  public String getHost() {
+    return host;
+  }
+
+  public String getCipher() {
+    return cipher;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DeviceKey)) {
+      return false;
+    }
+    DeviceKey other = (DeviceKey) o;
+    return mac.equals(other.mac)
+        && host.equals(other.host)
+        && cipher.equals(other.cipher)
+        && key.equals(other.key);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(mac, host, cipher, key);
+  }
+
+  /** Leaves the key itself out, so keys do not end up in logs */
+  @Override
+  public String toString() {
+    return "DeviceKey{mac=" + mac + ", host=" + host + ", cipher=" + cipher + "}";
+  }
+}
@@ -0,0 +1,20 @@
+package com.gree.hvac.client;
+
+/**
+ * Remembers the keys of bound devices, so a client can skip scan and bind when it reconnects
+ *
+ * <p>A stored key is only a hint: the client verifies it with a status request and binds again if
+ * the device does not answer, e.g. because it was reset or its address now belongs to another
+ * device. Implementations must be thread safe.
+ */
+public interface DeviceKeyStore {
+
+  /** Key of the device last bound at the given host, or null if none is known */
+  DeviceKey find(String host);
+
+  /** Store a key, replacing earlier keys for the same device or the same host */
+  void save(DeviceKey key);
+
+  /** Forget the key of a device */
+  void remove(String mac);
+}
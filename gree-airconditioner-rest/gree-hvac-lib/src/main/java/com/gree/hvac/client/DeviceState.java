@@ -0,0 +1,205 @@
+package com.gree.hvac.client;
+
+import com.gree.hvac.protocol.Property;
+import com.gree.hvac.protocol.PropertyTransformer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Last known vendor values of one device, indexed by {@link Property} ordinal
+ *
+ * <p>Values are kept in an {@code int[]} with a presence bitmask and updated in place from {@code
+ * dat}/{@code res} frames. The rare value that is not an int (e.g. a decimal or string reported by
+ * unusual firmware) is kept as is in a lazily allocated side array. Readers take an immutable
+ * {@link Snapshot}. Every changed property bumps a version counter, so versions order changes.
+ */
+public final class DeviceState {
+
+  private static final Property[] PROPERTIES = Property.values();
+
+  private final int[] values = new int[PROPERTIES.length];
+  private Object[] otherValues;
+  private long present; // one bit per Property ordinal
+  private long version;
+
+  /** Receives each property change applied by an update */
+  @FunctionalInterface
+  public interface ChangeListener {
+    /**
+     * Called while the state is locked, so implementations should only record the change
+     *
+     * @param oldValue previous vendor value, null if the property was not reported before
+     * @param version state version after this change
+     */
+    void changed(Property property, Object oldValue, Object newValue, long version);
+  }
+
+  /**
+   * Apply vendor columns and values, ignoring columns that are not a known property
+   *
+   * @return true if any property was added or changed its value
+   */
+  public boolean update(
+      PropertyTransformer transformer, List<String> columns, List<?> vendorValues) {
+    return update(transformer, columns, vendorValues, null);
+  }
+
+  /**
+   * Apply vendor columns and values, reporting every property that was added or changed its value
+   * to the listener
+   *
+   * @return true if any property was added or changed its value
+   */
+  public synchronized boolean update(
+      PropertyTransformer transformer,
+      List<String> columns,
+      List<?> vendorValues,
+      ChangeListener listener) {
+    boolean changed = false;
+    for (int i = 0; i < columns.size() && i < vendorValues.size(); i++) {
+      Property property = transformer.propertyFromVendor(columns.get(i));
+      if (property == null) {
+        continue;
+      }
+      int index = property.ordinal();
+      Object oldValue = listener != null ? get(index) : null;
+      if (set(index, vendorValues.get(i))) {
+        changed = true;
+        version++;
+        if (listener != null) {
+          listener.changed(property, oldValue, get(index), version);
+        }
+      }
+    }
+    return changed;
+  }
+
+  /** Number of property changes applied so far */
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /** Forget all values */
+  public synchronized void clear() {
+    present = 0;
+    otherValues = null;
+  }
+
+  /** Immutable copy of the current values */
+  public synchronized Snapshot snapshot() {
+    return new Snapshot(values.clone(), otherValues != null ? otherValues.clone() : null, present);
+  }
+
+  @Override
+  public String toString() {
+    return snapshot().toString();
+  }
+
+  private Object get(int index) {
+    if ((present & (1L << index)) == 0) {
+      return null;
+    }
+    Object other = otherValues != null ? otherValues[index] : null;
+    return other != null ? other : values[index];
+  }
+
+  private boolean set(int index, Object value) {
+    long bit = 1L << index;
+    boolean wasPresent = (present & bit) != 0;
+    Object previous = otherValues != null ? otherValues[index] : null;
+
+    present |= bit;
+    if (value instanceof Integer intValue) {
+      boolean changed = !wasPresent || previous != null || values[index] != intValue;
+      values[index] = intValue;
+      if (previous != null) {
+        otherValues[index] = null;
+      }
+      return changed;
+    }
+
+    if (otherValues == null) {
+      otherValues = new Object[PROPERTIES.length];
+    }
+    otherValues[index] = value;
+    return !wasPresent || !Objects.equals(previous, value);
+  }
+
+  /** Immutable view of the vendor values at one point in time */
+  public static final class Snapshot {
+    private final int[] values;
+    private final Object[] otherValues;
+    private final long present;
+
+    private Snapshot(int[] values, Object[] otherValues, long present) {
+      this.values = values;
+      this.otherValues = otherValues;
+      this.present = present;
+    }
+
+    /** Whether the device has reported this property */
+    public boolean has(Property property) {
+      return (present & (1L << property.ordinal())) != 0;
+    }
+
+    /** Raw vendor value of the property, or null if it was not reported */
+    public Object get(Property property) {
+      if (!has(property)) {
+        return null;
+      }
+      int index = property.ordinal();
+      if (otherValues != null && otherValues[index] != null) {
+        return otherValues[index];
+      }
+      return values[index];
+    }
+
+    /** Number of reported properties */
+    public int size() {
+      return Long.bitCount(present);
+    }
+
+    public boolean isEmpty() {
+      return present == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Snapshot other) || present != other.present) {
+        return false;
+      }
+      for (Property property : PROPERTIES) {
+        if (has(property) && !Objects.equals(get(property), other.get(property))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = Long.hashCode(present);
+      for (Property property : PROPERTIES) {
+        hash = 31 * hash + Objects.hashCode(get(property));
+      }
+      return hash;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder("{");
+      for (Property property : PROPERTIES) {
+        if (has(property)) {
+          if (builder.length() > 1) {
+            builder.append(", ");
+          }
+          builder.append(property.getValue()).append('=').append(get(property));
+        }
+      }
+      return builder.append('}').toString();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.gree.hvac.client;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONObject;
+
+/**
+ * DeviceKeyStore persisted as a JSON file, keyed by device MAC-address
+ *
+ * <p>The file is read once when the store is created and rewritten on every change through a
+ * temporary file, so a crash never leaves it half written. An unreadable file is logged and treated
+ * as empty, since the keys can always be obtained again by binding. The file holds the device keys
+ * in plain text and is created readable by its owner only where the file system supports it.
+ */
+@Slf4j
+public class FileDeviceKeyStore implements DeviceKeyStore {
+
+  private final Path file;
+  private final Map<String, DeviceKey> keys = new LinkedHashMap<>();
+
+  public FileDeviceKeyStore(Path file) {
+    this.file = file;
+    load();
+  }
+
+  @Override
+  public synchronized DeviceKey find(String host) {
+    for (DeviceKey key : keys.values()) {
+      if (key.getHost().equals(host)) {
+        return key;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public synchronized void save(DeviceKey key) {
+    if (key.equals(keys.get(key.getMac()))) {
+      return;
+    }
+    keys.values().removeIf(stored -> stored.getHost().equals(key.getHost()));
+    keys.put(key.getMac(), key);
+    write();
+  }
+
+  @Override
+  public synchronized void remove(String mac) {
+    if (keys.remove(mac) != null) {
+      write();
+    }
+  }
+
+  private void load() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try {
+      JSONObject devices = new JSONObject(Files.readString(file, StandardCharsets.UTF_8));
+      for (String mac : devices.keySet()) {
+        JSONObject device = devices.getJSONObject(mac);
+        keys.put(
+            mac,
+            new DeviceKey(
+                mac,
+                device.getString("host"),
+                device.getString("cipher"),
+                device.getString("key")));
+      }
+      log.debug("Loaded {} device keys from {}", keys.size(), file);
+    } catch (Exception e) {
+      log.warn("Ignoring unreadable device key store {}: {}", file, e.getMessage());
+      keys.clear();
+    }
+  }
+
+  private void write() {
+    JSONObject devices = new JSONObject();
+    for (DeviceKey key : keys.values()) {
+      JSONObject device = new JSONObject();
+      device.put("host", key.getHost());
+      device.put("cipher", key.getCipher());
+      device.put("key", key.getKey());
+      devices.put(key.getMac(), device);
+    }
+
+    try {
+      Path directory = file.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      Path temp = createOwnerOnlyTempFile(directory);
+      try {
+        Files.writeString(temp, devices.toString(2), StandardCharsets.UTF_8);
+        move(temp);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      log.warn("Could not write device key store {}: {}", file, e.getMessage());
+    }
+  }
+
+  private Path createOwnerOnlyTempFile(Path directory) throws IOException {
+    String prefix = file.getFileName() + ".";
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      return Files.createTempFile(
+          directory,
+          prefix,
+          ".tmp",
+          PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    }
+    return Files.createTempFile(directory, prefix, ".tmp");
+  }
+
+  private void move(Path temp) throws IOException {
+    try {
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
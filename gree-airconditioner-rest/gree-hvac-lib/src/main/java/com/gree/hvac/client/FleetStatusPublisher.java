@@ -0,0 +1,129 @@
+package com.gree.hvac.client;
+
+import com.gree.hvac.dto.DeviceStatus;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Merges the status publishers of many clients into one stream
+ *
+ * <p>Updates are conflated per device: a slow subscriber receives the latest status of every device
+ * that changed, never a backlog of intermediate states. New subscribers start with the latest known
+ * status of each device in the fleet.
+ */
+@Slf4j
+public class FleetStatusPublisher implements Flow.Publisher<DeviceStatus> {
+
+  private final ConflatingPublisher<DeviceStatus> merged;
+  private final Map<HvacClient, ClientSubscriber> clients = new ConcurrentHashMap<>();
+
+  public FleetStatusPublisher() {
+    this(null);
+  }
+
+  /**
+   * @param executor runs the subscribers, a virtual thread per delivery run if null
+   */
+  public FleetStatusPublisher(Executor executor) {
+    this.merged = new ConflatingPublisher<>(executor, DeviceStatus::getDeviceId);
+  }
+
+  /** Merge the status updates of a client into the stream */
+  public void add(HvacClient client) {
+    ClientSubscriber subscriber = new ClientSubscriber(client);
+    if (clients.putIfAbsent(client, subscriber) == null) {
+      client.getStatusPublisher().subscribe(subscriber);
+    }
+  }
+
+  /** Stop merging the status updates of a client */
+  public void remove(HvacClient client) {
+    ClientSubscriber subscriber = clients.remove(client);
+    if (subscriber != null) {
+      subscriber.cancel();
+    }
+  }
+
+  public int getClientCount() {
+    return clients.size();
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super DeviceStatus> subscriber) {
+    merged.subscribe(subscriber);
+  }
+
+  /** Stop merging every client and complete the subscribers */
+  public void close() {
+    clients.keySet().forEach(this::remove);
+    merged.close();
+  }
+
+  /** Takes every update of one client; conflation happens in the merged publisher */
+  private final class ClientSubscriber implements Flow.Subscriber<DeviceStatus> {
+    private final HvacClient client;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled = false;
+    private volatile String deviceId;
+
+    ClientSubscriber(HvacClient client) {
+      this.client = client;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (cancelled) {
+        subscription.cancel();
+      } else {
+        subscription.request(Long.MAX_VALUE);
+      }
+    }
+
+    @Override
+    public void onNext(DeviceStatus status) {
+      if (cancelled) {
+        return;
+      }
+      deviceId = status.getDeviceId();
+      if (!merged.submit(status)) {
+        // The fleet publisher was closed
+        cancel();
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      log.warn("Status stream of {} failed", client.getDeviceId(), throwable);
+      detach();
+    }
+
+    @Override
+    public void onComplete() {
+      detach();
+    }
+
+    void cancel() {
+      cancelled = true;
+      Flow.Subscription current = subscription;
+      if (current != null) {
+        current.cancel();
+      }
+      forgetDevice();
+    }
+
+    private void detach() {
+      clients.remove(client, this);
+      forgetDevice();
+    }
+
+    private void forgetDevice() {
+      if (deviceId != null) {
+        merged.forget(deviceId);
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.gree.hvac.client;
+
+/** Outcome of a group command for one device of an {@link HvacFleet} */
+public class GroupCommandResult {
+  private final String deviceId;
+  private final boolean success;
+  private final String error;
+  private final long latency;
+
+  public GroupCommandResult(String deviceId, boolean success, String error, long latency) {
+    this.deviceId = deviceId;
+    this.success = success;
+    this.error = error;
+    this.latency = latency;
+  }
+
+  /** Id the device was registered with in the fleet */
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  /** Whether the device confirmed the command */
+  public boolean isSuccess() {
+    return success;
+  }
+
+  /** Why the command failed, null on success */
+  public String getError() {
+    return error;
+  }
+
+  /** Time from sending the command to its confirmation or failure (ms) */
+  public long getLatency() {
+    return latency;
+  }
+
+  @Override
+  public String toString() {
+    return "GroupCommandResult{deviceId="
+        + deviceId
+        + ", success="
+        + success
+        + (error != null ? ", error=" + error : "")
+        + ", latency="
+        + latency
+        + "ms}";
+  }
+}
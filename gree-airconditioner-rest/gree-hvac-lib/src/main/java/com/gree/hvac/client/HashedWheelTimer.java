@@ -0,0 +1,284 @@
+package com.gree.hvac.client;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * HvacTimer backed by a hashed timing wheel driven by a single daemon thread
+ *
+ * <p>Timeouts are hashed into a ring of buckets by their deadline tick, so scheduling and
+ * cancelling are O(1) regardless of how many timeouts are pending; the price is that a task runs up
+ * to one tick late. New and cancelled timeouts are handed to the wheel thread through lock-free
+ * queues. Expired tasks are passed to an executor, by default a virtual thread per task, so a slow
+ * task cannot hold up the wheel.
+ */
+@Slf4j
+public class HashedWheelTimer implements HvacTimer {
+
+  private static final HashedWheelTimer SHARED =
+      new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 512, virtualThreads());
+
+  // Bounds the work of a single tick when a burst of timeouts is scheduled at once
+  private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final Executor taskExecutor;
+  private final long startTime = System.nanoTime();
+  private final Queue<WheelTimeout> scheduled = new ConcurrentLinkedQueue<>();
+  private final Queue<WheelTimeout> cancelled = new ConcurrentLinkedQueue<>();
+  private final AtomicLong pendingTimeouts = new AtomicLong();
+  private final Thread worker;
+  private volatile boolean stopped = false;
+  private long tick; // only accessed by the worker
+
+  /** Create a timer with 10ms ticks and 512 buckets */
+  public HashedWheelTimer() {
+    this(10, TimeUnit.MILLISECONDS, 512, virtualThreads());
+  }
+
+  /**
+   * @param tickDuration timer resolution
+   * @param ticksPerWheel number of buckets, rounded up to a power of two
+   * @param taskExecutor runs expired tasks, e.g. {@code Runnable::run} to run them on the wheel
+   *     thread
+   */
+  public HashedWheelTimer(
+      long tickDuration, TimeUnit unit, int ticksPerWheel, Executor taskExecutor) {
+    if (tickDuration <= 0) {
+      throw new IllegalArgumentException("Tick duration must be positive");
+    }
+    if (ticksPerWheel < 1 || ticksPerWheel > 1 << 20) {
+      throw new IllegalArgumentException("Ticks per wheel must be between 1 and 2^20");
+    }
+    this.tickNanos = unit.toNanos(tickDuration);
+    int buckets = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+    this.wheel = new Bucket[Math.max(buckets, 1)];
+    for (int i = 0; i < wheel.length; i++) {
+      wheel[i] = new Bucket();
+    }
+    this.mask = wheel.length - 1;
+    this.taskExecutor = taskExecutor;
+    this.worker = Thread.ofPlatform().name("gree-timer").daemon().unstarted(this::run);
+    worker.start();
+  }
+
+  /** Process-wide timer used by clients that are not given one explicitly */
+  public static HashedWheelTimer shared() {
+    return SHARED;
+  }
+
+  @Override
+  public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    if (stopped) {
+      throw new RejectedExecutionException("Timer is stopped");
+    }
+    long deadline = System.nanoTime() - startTime + Math.max(unit.toNanos(delay), 0);
+    WheelTimeout timeout = new WheelTimeout(this, task, deadline);
+    pendingTimeouts.incrementAndGet();
+    scheduled.add(timeout);
+    return timeout;
+  }
+
+  /** Number of timeouts that have neither run nor been cancelled */
+  public long getPendingTimeouts() {
+    return pendingTimeouts.get();
+  }
+
+  /** Stop the wheel thread; pending tasks are dropped */
+  public void shutdown() {
+    if (this == SHARED) {
+      throw new UnsupportedOperationException("The shared timer cannot be shut down");
+    }
+    stopped = true;
+    LockSupport.unpark(worker);
+  }
+
+  private void run() {
+    while (!stopped) {
+      long now = waitForNextTick();
+      if (now < 0) {
+        break;
+      }
+      removeCancelled();
+      transferScheduled();
+      wheel[(int) (tick & mask)].expire(now);
+      tick++;
+    }
+    log.debug("Timer stopped with {} pending timeouts", pendingTimeouts.get());
+  }
+
+  /** Sleep until the current tick ends, returning the time since start or -1 when stopped */
+  private long waitForNextTick() {
+    long tickEnd = tickNanos * (tick + 1);
+    while (true) {
+      long now = System.nanoTime() - startTime;
+      if (now >= tickEnd) {
+        return now;
+      }
+      if (stopped) {
+        return -1;
+      }
+      LockSupport.parkNanos(this, tickEnd - now);
+    }
+  }
+
+  private void transferScheduled() {
+    for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+      WheelTimeout timeout = scheduled.poll();
+      if (timeout == null) {
+        return;
+      }
+      if (timeout.state != WheelTimeout.PENDING) {
+        continue;
+      }
+      long deadlineTick = timeout.deadline / tickNanos;
+      timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+      // Deadlines that already passed go into the current bucket
+      wheel[(int) (Math.max(deadlineTick, tick) & mask)].add(timeout);
+    }
+  }
+
+  private void removeCancelled() {
+    WheelTimeout timeout;
+    while ((timeout = cancelled.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  private void runTask(WheelTimeout timeout) {
+    try {
+      taskExecutor.execute(timeout::run);
+    } catch (RejectedExecutionException e) {
+      log.warn("Timer task rejected by executor", e);
+    }
+  }
+
+  private static Executor virtualThreads() {
+    return Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("gree-timer-task-", 0).factory());
+  }
+
+  /** Doubly linked list of the timeouts hashed to one slot, only touched by the worker */
+  private final class Bucket {
+    private WheelTimeout head;
+    private WheelTimeout tail;
+
+    void add(WheelTimeout timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    void expire(long now) {
+      WheelTimeout timeout = head;
+      while (timeout != null) {
+        WheelTimeout next = timeout.next;
+        if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+          remove(timeout);
+          if (timeout.expire()) {
+            runTask(timeout);
+          }
+        } else if (timeout.state == WheelTimeout.CANCELLED) {
+          remove(timeout);
+        } else if (timeout.remainingRounds > 0) {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+    }
+
+    void remove(WheelTimeout timeout) {
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      } else {
+        tail = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+
+  private static final class WheelTimeout implements Timeout {
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+    private final HashedWheelTimer timer;
+    private final Runnable task;
+    private final long deadline; // nanos since timer start
+    private volatile int state = PENDING;
+
+    // Wheel position, only accessed by the worker
+    private long remainingRounds;
+    private Bucket bucket;
+    private WheelTimeout prev;
+    private WheelTimeout next;
+
+    WheelTimeout(HashedWheelTimer timer, Runnable task, long deadline) {
+      this.timer = timer;
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+        return false;
+      }
+      timer.pendingTimeouts.decrementAndGet();
+      timer.cancelled.add(this);
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return state == CANCELLED;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadline - (System.nanoTime() - timer.startTime), TimeUnit.NANOSECONDS);
+    }
+
+    boolean expire() {
+      if (!STATE.compareAndSet(this, PENDING, EXPIRED)) {
+        return false;
+      }
+      timer.pendingTimeouts.decrementAndGet();
+      return true;
+    }
+
+    void run() {
+      try {
+        task.run();
+      } catch (Exception e) {
+        log.warn("Timer task failed", e);
+      }
+    }
+  }
+}
@@ -3,15 +3,22 @@ package com.gree.hvac.client;
 import com.gree.hvac.dto.DeviceControl;
 import com.gree.hvac.dto.DeviceStatus;
 import com.gree.hvac.exceptions.HvacException;
+import com.gree.hvac.network.CachingAddressResolver;
 import com.gree.hvac.network.NetworkService;
 import com.gree.hvac.network.NetworkServiceImpl;
 import com.gree.hvac.network.NetworkSocket;
 import com.gree.hvac.protocol.EncryptionService;
+import com.gree.hvac.protocol.GreeFrame;
+import com.gree.hvac.protocol.GreeFrameCodec;
+import com.gree.hvac.protocol.Property;
 import com.gree.hvac.protocol.PropertyTransformer;
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONArray;
@@ -34,41 +41,86 @@ public class HvacClient {
   private static final String PROPERTY_HEALTH = "health";
   private static final String PROPERTY_POWER_SAVE = "powerSave";
   private static final String PROPERTY_SLEEP = "sleep";
-  private static final String PROPERTY_CURRENT_TEMPERATURE = "currentTemperature";
 
   // Value constants
   private static final String VALUE_ON = "on";
   private static final String VALUE_OFF = "off";
 
-  // Additional property constants for status request
-  private static final String PROPERTY_TEMPERATURE_UNIT = "temperatureUnit";
-  private static final String PROPERTY_AIR = "air";
-  private static final String PROPERTY_BLOW = "blow";
-  private static final String PROPERTY_SAFETY_HEATING = "safetyHeating";
+  // Properties requested by every status poll, in wire order
+  private static final List<Property> STATUS_PROPERTIES =
+      List.of(
+          Property.POWER,
+          Property.MODE,
+          Property.TEMPERATURE_UNIT,
+          Property.TEMPERATURE,
+          Property.CURRENT_TEMPERATURE,
+          Property.FAN_SPEED,
+          Property.AIR,
+          Property.BLOW,
+          Property.HEALTH,
+          Property.SLEEP,
+          Property.LIGHTS,
+          Property.SWING_HOR,
+          Property.SWING_VERT,
+          Property.QUIET,
+          Property.TURBO,
+          Property.POWER_SAVE,
+          Property.SAFETY_HEATING);
+  private static final List<String> STATUS_COLUMNS =
+      List.copyOf(new PropertyTransformer().toVendorCodes(STATUS_PROPERTIES));
 
   private String deviceId; // Device MAC-address
   private NetworkSocket socket;
   private final HvacClientOptions options;
   private final NetworkService networkService;
-  private final Map<String, Object> properties = new ConcurrentHashMap<>();
+  private final CachingAddressResolver addressResolver;
+  private final DeviceState state = new DeviceState();
   private final PropertyTransformer transformer = new PropertyTransformer();
+  private final GreeFrameCodec frameCodec = new GreeFrameCodec();
   private EncryptionService encryptionService;
-
-  private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
-  private ScheduledFuture<?> reconnectTask;
-  private ScheduledFuture<?> pollingTask;
-  private ScheduledFuture<?> statusTimeoutTask;
+  private final StatusFrameCache statusFrameCache = new StatusFrameCache();
+  private final StatusFrameCache fastStatusFrameCache = new StatusFrameCache();
+  private final List<String> fastStatusColumns;
+  private int pollsSinceFullPoll;
+  private boolean fullPollDue = true;
+
+  private final HvacTimer timer;
+  private volatile boolean shutdown = false;
+  private final OutboundQueue outbound;
+  private final CommandTracker commandTracker;
+  private final CommandCoalescer commandCoalescer;
+  private final AdaptivePollingPolicy adaptivePolling;
+  private final Object pollingLock = new Object();
+  private boolean pollingActive = false;
+  private final PollPhaseAllocator pollPhaseAllocator;
+  private PollPhaseAllocator.Phase pollPhase;
+  private HvacTimer.Timeout reconnectTask;
+  private HvacTimer.Timeout bindRetryTask;
+  private HvacTimer.Timeout pollingTask;
+  // Guarded by pollingLock; a timeout only acts while its request is the latest one
+  private HvacTimer.Timeout statusTimeoutTask;
+  private long statusRequestGeneration;
 
   private int reconnectAttempt = 1;
   private CompletableFuture<Void> connectFuture;
   private volatile boolean connected = false;
-
-  // Event listeners
-  private final List<Runnable> connectListeners = new ArrayList<>();
-  private final List<Consumer<DeviceStatus>> statusUpdateListeners = new ArrayList<>();
-  private final List<Consumer<Exception>> errorListeners = new ArrayList<>();
-  private final List<Runnable> disconnectListeners = new ArrayList<>();
-  private final List<Runnable> noResponseListeners = new ArrayList<>();
+  private volatile boolean resuming = false;
+  private volatile long lastStatusAt = 0;
+  private volatile boolean statusStale = false;
+  private final AtomicBoolean awaitingStatus = new AtomicBoolean();
+  private final List<CompletableFuture<DeviceStatus>> revalidations = new ArrayList<>();
+
+  // Event listeners, called asynchronously through per-listener queues
+  private final ListenerDispatcher dispatcher;
+  private final ListenerDispatcher.Listeners<Void> connectListeners;
+  private final ListenerDispatcher.Listeners<DeviceStatus> statusUpdateListeners;
+  private final ListenerDispatcher.Listeners<PropertyChange> propertyChangeListeners;
+  private final Map<Property, ListenerDispatcher.Listeners<PropertyChange>> propertyListeners =
+      new ConcurrentHashMap<>();
+  private final ListenerDispatcher.Listeners<Exception> errorListeners;
+  private final ListenerDispatcher.Listeners<Void> disconnectListeners;
+  private final ListenerDispatcher.Listeners<Void> noResponseListeners;
+  private final ConflatingPublisher<DeviceStatus> statusPublisher;
 
   /** Create HVAC client with configuration options */
   public HvacClient(HvacClientOptions options) {
@@ -88,10 +140,68 @@ public class HvacClient {
     this.options = options != null ? options : new HvacClientOptions();
     this.networkService = networkService;
     this.encryptionService = encryptionService;
+    this.timer =
+        this.options.getTimer() != null ? this.options.getTimer() : HashedWheelTimer.shared();
+    this.pollPhaseAllocator =
+        this.options.getPollPhaseAllocator() != null
+            ? this.options.getPollPhaseAllocator()
+            : PollPhaseAllocator.shared();
+    this.dispatcher =
+        new ListenerDispatcher(
+            this.options.getListenerExecutor(),
+            this.options.getListenerQueueCapacity(),
+            this.options.getListenerOverflowPolicy(),
+            this.options.getListenerLateThreshold());
+    this.connectListeners = dispatcher.newListeners();
+    this.statusUpdateListeners = dispatcher.newListeners();
+    this.propertyChangeListeners = dispatcher.newListeners();
+    this.errorListeners = dispatcher.newListeners();
+    this.disconnectListeners = dispatcher.newListeners();
+    this.noResponseListeners = dispatcher.newListeners();
+    this.statusPublisher = new ConflatingPublisher<>(this.options.getListenerExecutor());
+    this.addressResolver =
+        new CachingAddressResolver(
+            networkService,
+            this.options.getAddressCacheTtl(),
+            this.options.getAddressNegativeCacheTtl());
+    this.outbound =
+        new OutboundQueue(
+            this::schedule,
+            this::socketSend,
+            this::notifyError,
+            this.options.getMaxSendRate(),
+            this.options.getSendBurst());
+    this.commandTracker =
+        new CommandTracker(
+            this::schedule,
+            frame -> outbound.send(SendPriority.COMMAND, frame),
+            this.options.getMaxInFlightCommands(),
+            this.options.getCommandTimeout(),
+            this.options.getCommandRetries());
+    this.commandCoalescer =
+        this.options.getCommandCoalesceWindow() > 0
+            ? new CommandCoalescer(
+                this::schedule, this.options.getCommandCoalesceWindow(), this::sendCommand)
+            : null;
+    Set<Property> fastProperties = EnumSet.noneOf(Property.class);
+    fastProperties.addAll(this.options.getFastPollProperties());
+    this.fastStatusColumns =
+        List.copyOf(
+            transformer.toVendorCodes(
+                STATUS_PROPERTIES.stream().filter(fastProperties::contains).toList()));
+    this.adaptivePolling =
+        this.options.isAdaptivePolling()
+            ? new AdaptivePollingPolicy(
+                this.options.getPollingInterval(),
+                this.options.getFastPollingInterval(),
+                this.options.getMaxPollingInterval(),
+                this.options.getMaxPollsPerMinute())
+            : null;
 
     log.info("Initialized HVAC client for host: {}", this.options.getHost());
 
     if (this.options.isAutoConnect()) {
+      // Waiting for the handshake blocks, so keep it off the common pool
       CompletableFuture.runAsync(
           () -> {
             try {
@@ -99,7 +209,8 @@ public class HvacClient {
             } catch (Exception e) {
               notifyError(e);
             }
-          });
+          },
+          networkService.getIoExecutor());
     }
   }
 
@@ -119,6 +230,7 @@ public class HvacClient {
     // Reset connection state for new connection attempt
     connected = false;
     connectFuture = new CompletableFuture<>();
+    addressResolver.invalidate(options.getHost());
 
     try {
       socket = networkService.createSocket(0);
@@ -126,8 +238,10 @@ public class HvacClient {
       // Start listening for responses
       startListening();
 
-      // Initialize connection
-      initialize();
+      // Initialize connection, unless a stored key lets us skip scan and bind
+      if (!resumeWithStoredKey()) {
+        initialize();
+      }
 
     } catch (Exception e) {
       connectFuture.completeExceptionally(e);
@@ -153,49 +267,108 @@ public class HvacClient {
         });
   }
 
-  /** Set device properties */
+  /**
+   * Set device properties. The returned future completes once the device confirms the command, or
+   * fails if it is not confirmed after the configured retries. With a command coalesce window,
+   * writes made within the window are sent as one command.
+   */
   public CompletableFuture<Void> setProperties(Map<String, Object> properties) {
-    return CompletableFuture.runAsync(
-        () -> {
-          try {
-            if (!connected) {
-              throw new HvacException("Client is not connected to the HVAC device");
-            }
-
-            Map<String, Object> vendorProperties = transformer.toVendor(properties);
+    try {
+      if (!connected) {
+        throw new HvacException("Client is not connected to the HVAC device");
+      }
 
-            JSONObject request = new JSONObject();
-            request.put("opt", new JSONArray(vendorProperties.keySet()));
-            request.put("p", new JSONArray(vendorProperties.values()));
-            request.put("t", "cmd");
+      Map<String, Object> vendorProperties = transformer.toVendor(properties);
+      if (vendorProperties.isEmpty()) {
+        log.warn("No properties to update");
+        return CompletableFuture.completedFuture(null);
+      }
 
-            log.debug("Setting properties: {}", properties.keySet());
-            sendRequest(request);
+      log.debug("Setting properties: {}", properties.keySet());
+      return commandCoalescer != null
+          ? commandCoalescer.submit(vendorProperties)
+          : sendCommand(vendorProperties);
 
-          } catch (Exception e) {
-            throw new RuntimeException(e);
-          }
-        });
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
   }
 
   /** Control device with DeviceControl object */
   public CompletableFuture<Void> control(DeviceControl control) {
-    return CompletableFuture.runAsync(
-        () -> {
-          try {
-            Map<String, Object> properties = buildControlProperties(control);
+    try {
+      Map<String, Object> properties = buildControlProperties(control);
 
-            if (properties.isEmpty()) {
-              log.warn("No properties to update");
-              return;
-            }
+      if (properties.isEmpty()) {
+        log.warn("No properties to update");
+        return CompletableFuture.completedFuture(null);
+      }
 
-            setProperties(properties).get();
+      return setProperties(properties);
 
-          } catch (Exception e) {
-            throw new RuntimeException(e);
-          }
-        });
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Control the device as part of a group command, taking the encrypted frame from the cache shared
+   * by the group. The command is not coalesced with other writes, it already is one merged write.
+   */
+  CompletableFuture<Void> control(DeviceControl control, CommandFrameCache frames) {
+    try {
+      if (!connected) {
+        throw new HvacException("Client is not connected to the HVAC device");
+      }
+
+      Map<String, Object> vendorProperties = transformer.toVendor(buildControlProperties(control));
+      if (vendorProperties.isEmpty()) {
+        log.warn("No properties to update");
+        return CompletableFuture.completedFuture(null);
+      }
+      return sendCommand(vendorProperties, frames);
+
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private CompletableFuture<Void> sendCommand(Map<String, Object> vendorProperties) {
+    return sendCommand(vendorProperties, null);
+  }
+
+  /**
+   * Send one cmd frame for the given vendor properties and track it until confirmed
+   *
+   * @param frames cache of frames shared by a group command, or null to encrypt the command here
+   */
+  private CompletableFuture<Void> sendCommand(
+      Map<String, Object> vendorProperties, CommandFrameCache frames) {
+    try {
+      if (!connected) {
+        throw new HvacException("Client is not connected to the HVAC device");
+      }
+
+      JSONObject request = new JSONObject();
+      request.put("opt", new JSONArray(vendorProperties.keySet()));
+      request.put("p", new JSONArray(vendorProperties.values()));
+      request.put("t", "cmd");
+
+      CompletableFuture<Void> command =
+          commandTracker.submit(
+              vendorProperties.keySet(),
+              frames != null ? frames.get(request, encryptionService) : encodeRequest(request));
+
+      // Poll soon so the effect of the command is picked up quickly
+      if (adaptivePolling != null) {
+        adaptivePolling.onCommand();
+        expeditePoll();
+      }
+      return command;
+
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
   }
 
   /** Build properties map from DeviceControl object */
@@ -240,49 +413,99 @@ public class HvacClient {
     }
   }
 
-  /** Get current device properties as DeviceStatus */
+  /**
+   * Get the last reported device properties as DeviceStatus. Values stay available when a status
+   * request goes unanswered; the status is then marked stale and a new request is sent in the
+   * background.
+   */
   public DeviceStatus getStatus() {
-    Map<String, Object> currentProperties = getCurrentProperties();
+    DeviceStatus status = buildStatus();
+    if (status.isStale()) {
+      revalidate();
+    }
+    return status;
+  }
 
-    DeviceStatus status = new DeviceStatus();
-    status.setDeviceId(deviceId);
+  /**
+   * Get the device status reported within the given bound. Completes at once if the last report is
+   * younger, otherwise with the answer to a new status request; fails if that request times out or
+   * the client is not connected.
+   */
+  public CompletableFuture<DeviceStatus> getStatus(Duration maxStaleness) {
+    long reportedAt = lastStatusAt;
+    if (reportedAt != 0 && System.currentTimeMillis() - reportedAt < maxStaleness.toMillis()) {
+      return CompletableFuture.completedFuture(buildStatus());
+    }
+    if (!connected) {
+      return CompletableFuture.failedFuture(
+          new HvacException("Client is not connected to the HVAC device"));
+    }
 
-    // Handle boolean properties - only set if the property exists
-    Object powerValue = currentProperties.get(PROPERTY_POWER);
-    status.setPower(powerValue != null ? VALUE_ON.equals(powerValue) : null);
+    CompletableFuture<DeviceStatus> fresh = new CompletableFuture<>();
+    synchronized (revalidations) {
+      revalidations.add(fresh);
+    }
+    revalidate();
+    return fresh;
+  }
 
-    status.setTemperature((Integer) currentProperties.get(PROPERTY_TEMPERATURE));
-    status.setCurrentTemperature((Integer) currentProperties.get(PROPERTY_CURRENT_TEMPERATURE));
-    status.setMode((String) currentProperties.get(PROPERTY_MODE));
-    status.setFanSpeed((String) currentProperties.get(PROPERTY_FAN_SPEED));
-    status.setSwingHorizontal((String) currentProperties.get(PROPERTY_SWING_HOR));
-    status.setSwingVertical((String) currentProperties.get(PROPERTY_SWING_VERT));
+  /** Time since the device last reported its status, null before the first report */
+  public Duration getStatusAge() {
+    long reportedAt = lastStatusAt;
+    return reportedAt != 0 ? Duration.ofMillis(System.currentTimeMillis() - reportedAt) : null;
+  }
 
-    // Handle other boolean properties
-    Object lightsValue = currentProperties.get(PROPERTY_LIGHTS);
-    status.setLights(lightsValue != null ? VALUE_ON.equals(lightsValue) : null);
+  private DeviceStatus buildStatus() {
+    DeviceState.Snapshot snapshot = state.snapshot();
 
-    Object turboValue = currentProperties.get(PROPERTY_TURBO);
-    status.setTurbo(turboValue != null ? VALUE_ON.equals(turboValue) : null);
+    DeviceStatus status = new DeviceStatus();
+    status.setDeviceId(deviceId);
+    long reportedAt = lastStatusAt;
+    status.setLastUpdated(reportedAt != 0 ? reportedAt : null);
+    status.setStale(statusStale);
+
+    // Boolean properties are only set if the device reported them
+    status.setPower(isOn(snapshot, Property.POWER));
+    status.setTemperature((Integer) friendlyValue(snapshot, Property.TEMPERATURE));
+    status.setCurrentTemperature((Integer) friendlyValue(snapshot, Property.CURRENT_TEMPERATURE));
+    status.setMode((String) friendlyValue(snapshot, Property.MODE));
+    status.setFanSpeed((String) friendlyValue(snapshot, Property.FAN_SPEED));
+    status.setSwingHorizontal((String) friendlyValue(snapshot, Property.SWING_HOR));
+    status.setSwingVertical((String) friendlyValue(snapshot, Property.SWING_VERT));
+    status.setLights(isOn(snapshot, Property.LIGHTS));
+    status.setTurbo(isOn(snapshot, Property.TURBO));
+    status.setQuiet(isOn(snapshot, Property.QUIET));
+    status.setHealth(isOn(snapshot, Property.HEALTH));
+    status.setPowerSave(isOn(snapshot, Property.POWER_SAVE));
+    status.setSleep(isOn(snapshot, Property.SLEEP));
 
-    Object quietValue = currentProperties.get(PROPERTY_QUIET);
-    status.setQuiet(quietValue != null ? VALUE_ON.equals(quietValue) : null);
+    return status;
+  }
 
-    Object healthValue = currentProperties.get(PROPERTY_HEALTH);
-    status.setHealth(healthValue != null ? VALUE_ON.equals(healthValue) : null);
+  /** Get current device properties as raw map */
+  public Map<String, Object> getCurrentProperties() {
+    DeviceState.Snapshot snapshot = state.snapshot();
 
-    Object powerSaveValue = currentProperties.get(PROPERTY_POWER_SAVE);
-    status.setPowerSave(powerSaveValue != null ? VALUE_ON.equals(powerSaveValue) : null);
+    Map<String, Object> result = new HashMap<>();
+    for (Property property : Property.values()) {
+      if (snapshot.has(property)) {
+        result.put(property.getValue(), friendlyValue(snapshot, property));
+      }
+    }
+    return result;
+  }
 
-    Object sleepValue = currentProperties.get(PROPERTY_SLEEP);
-    status.setSleep(sleepValue != null ? VALUE_ON.equals(sleepValue) : null);
+  /** Get an immutable snapshot of the last reported vendor values */
+  public DeviceState.Snapshot getState() {
+    return state.snapshot();
+  }
 
-    return status;
+  private Object friendlyValue(DeviceState.Snapshot snapshot, Property property) {
+    return snapshot.has(property) ? transformer.fromVendor(property, snapshot.get(property)) : null;
   }
 
-  /** Get current device properties as raw map */
-  public Map<String, Object> getCurrentProperties() {
-    return new HashMap<>(transformer.fromVendor(properties));
+  private Boolean isOn(DeviceState.Snapshot snapshot, Property property) {
+    return snapshot.has(property) ? VALUE_ON.equals(friendlyValue(snapshot, property)) : null;
   }
 
   /** Check if client is connected */
@@ -295,39 +518,69 @@ public class HvacClient {
     return deviceId;
   }
 
-  // Event listener registration methods
+  /**
+   * Stream of status updates that honors subscriber demand. A subscriber that requests slower than
+   * the device changes receives only the latest status; a new subscriber starts with the last
+   * status published. Completes when the client is shut down.
+   */
+  public Flow.Publisher<DeviceStatus> getStatusPublisher() {
+    return statusPublisher;
+  }
+
+  /** Get metrics of the frames sent to the device and of those waiting for the rate limit */
+  public OutboundMetrics getOutboundMetrics() {
+    return outbound.getMetrics();
+  }
+
+  /** Get delivery metrics of the registered listeners */
+  public ListenerMetrics getListenerMetrics() {
+    return dispatcher.getMetrics();
+  }
+
+  // Event listener registration methods, safe to call while events are dispatched
   public void onConnect(Runnable listener) {
-    connectListeners.add(listener);
+    connectListeners.add(ignored -> listener.run());
   }
 
   public void onStatusUpdate(Consumer<DeviceStatus> listener) {
     statusUpdateListeners.add(listener);
   }
 
+  /** Listen for changes of any device property */
+  public void onPropertyChange(Consumer<PropertyChange> listener) {
+    propertyChangeListeners.add(listener);
+  }
+
+  /** Listen for changes of one device property */
+  public void onPropertyChange(Property property, Consumer<PropertyChange> listener) {
+    propertyListeners.computeIfAbsent(property, p -> dispatcher.newListeners()).add(listener);
+  }
+
   public void onError(Consumer<Exception> listener) {
     errorListeners.add(listener);
   }
 
   public void onDisconnect(Runnable listener) {
-    disconnectListeners.add(listener);
+    disconnectListeners.add(ignored -> listener.run());
   }
 
   public void onNoResponse(Runnable listener) {
-    noResponseListeners.add(listener);
+    noResponseListeners.add(ignored -> listener.run());
   }
 
   /** Shutdown client and cleanup resources */
   public void shutdown() {
     log.info("Shutting down HVAC client");
+    // The timer may be shared with other clients, so only stop scheduling on it
+    shutdown = true;
     dispose();
-    scheduler.shutdown();
-    try {
-      if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-        scheduler.shutdownNow();
+    synchronized (pollingLock) {
+      if (pollPhase != null) {
+        pollPhase.release();
+        pollPhase = null;
       }
-    } catch (InterruptedException e) {
-      scheduler.shutdownNow();
     }
+    statusPublisher.close();
   }
 
   // Private implementation methods
@@ -336,11 +589,16 @@ public class HvacClient {
 
     try {
       encryptionService = new EncryptionService();
+      statusFrameCache.invalidate();
+      fastStatusFrameCache.invalidate();
+      synchronized (this) {
+        fullPollDue = true;
+      }
       log.debug("Starting device scan (attempt {})", reconnectAttempt);
 
       JSONObject scanMessage = new JSONObject();
       scanMessage.put("t", "scan");
-      socketSend(scanMessage);
+      send(SendPriority.BIND, scanMessage);
 
       scheduleReconnect();
 
@@ -350,9 +608,56 @@ public class HvacClient {
     }
   }
 
+  /**
+   * Address the device directly with the key stored for its host. A status response proves the key;
+   * without one the client falls back to a full scan and bind.
+   *
+   * @return false if no key is stored or the request could not be sent
+   */
+  private boolean resumeWithStoredKey() {
+    DeviceKeyStore keyStore = options.getKeyStore();
+    DeviceKey stored = keyStore != null ? keyStore.find(options.getHost()) : null;
+    if (stored == null) {
+      return false;
+    }
+
+    dispose();
+    try {
+      log.debug("Resuming with the stored key of device {}", stored.getMac());
+      deviceId = stored.getMac();
+      encryptionService = new EncryptionService();
+      encryptionService.restore(stored.getCipher(), stored.getKey());
+      resuming = true;
+      outbound.send(
+          SendPriority.BIND, statusFrameCache.get(deviceId, STATUS_COLUMNS, encryptionService));
+
+      reconnectTask =
+          schedule(
+              () -> {
+                if (!resuming) {
+                  return;
+                }
+                log.info("Device did not answer with its stored key, binding again");
+                try {
+                  initialize();
+                } catch (Exception e) {
+                  notifyError(e);
+                }
+              },
+              options.getPollingTimeout(),
+              TimeUnit.MILLISECONDS);
+      return true;
+
+    } catch (Exception e) {
+      log.warn("Could not resume with the stored key: {}", e.getMessage());
+      resuming = false;
+      return false;
+    }
+  }
+
   private void scheduleReconnect() {
     reconnectTask =
-        scheduler.schedule(
+        schedule(
             () -> {
               log.warn("Connect timeout, reconnect (timeout: {}ms)", options.getConnectTimeout());
               reconnectAttempt++;
@@ -367,49 +672,50 @@ public class HvacClient {
   }
 
   private void startListening() {
-    networkService.startListening(socket, this::handleResponse);
+    networkService.startFrameListening(socket, this::handleResponse);
   }
 
-  private void socketSend(JSONObject message) throws Exception {
+  private void send(SendPriority priority, JSONObject message) throws Exception {
+    log.debug("Sending message: {}", message);
+    outbound.send(priority, message.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void socketSend(byte[] data) throws Exception {
     if (socket == null || networkService.isClosed(socket)) {
       throw new HvacException("Client is not connected to the HVAC device");
     }
 
-    log.debug("Sending message: {}", message);
-    byte[] data = message.toString().getBytes(StandardCharsets.UTF_8);
-
-    InetAddress address = networkService.resolveAddress(options.getHost());
+    InetAddress address = addressResolver.resolve(options.getHost());
     networkService.sendData(socket, data, address, options.getPort());
   }
 
-  private void sendRequest(JSONObject message) throws Exception {
-    log.debug("Sending request: {}", message);
+  /** Encrypt a request into the datagram sent to the device */
+  private byte[] encodeRequest(JSONObject message) throws Exception {
+    log.debug("Encoding request: {}", message);
 
     EncryptionService.EncryptedMessage encrypted = encryptionService.encrypt(message);
+    return packedMessage(encrypted, 0).toString().getBytes(StandardCharsets.UTF_8);
+  }
 
+  /** Wrap an encrypted payload into the outer "pack" message sent to the device */
+  static JSONObject packedMessage(EncryptionService.EncryptedMessage encrypted, int i) {
     JSONObject packedMessage = new JSONObject();
     packedMessage.put("cid", "app");
-    packedMessage.put("i", 0);
+    packedMessage.put("i", i);
     packedMessage.put("t", "pack");
     packedMessage.put("uid", 0);
     packedMessage.put("pack", encrypted.getPayload());
     if (encrypted.getTag() != null) {
       packedMessage.put("tag", encrypted.getTag());
     }
-
-    socketSend(packedMessage);
+    return packedMessage;
   }
 
-  private void handleResponse(byte[] buffer) {
+  private void handleResponse(ByteBuffer frame) {
     try {
-      String jsonString = new String(buffer, StandardCharsets.UTF_8);
-      JSONObject message = new JSONObject(jsonString);
-
-      log.debug("Handling response: {}", message);
-
-      JSONObject pack = encryptionService.decrypt(message);
+      GreeFrame pack = options.isStreamingCodec() ? decodeStreaming(frame) : decodeJson(frame);
 
-      String type = pack.optString("t");
+      String type = pack.getType();
 
       switch (type) {
         case "dev":
@@ -419,6 +725,9 @@ public class HvacClient {
           handleBindingConfirmationResponse();
           break;
         case "dat":
+          if (resuming) {
+            handleResumedConnection();
+          }
           handleStatusResponse(pack);
           break;
         case "res":
@@ -435,10 +744,27 @@ public class HvacClient {
     }
   }
 
-  private void handleHandshakeResponse(JSONObject message) {
-    deviceId = message.optString("cid");
+  private GreeFrame decodeJson(ByteBuffer frame) throws Exception {
+    String jsonString = StandardCharsets.UTF_8.decode(frame).toString();
+    JSONObject message = new JSONObject(jsonString);
+
+    log.debug("Handling response: {}", message);
+
+    return GreeFrame.fromJson(encryptionService.decrypt(message));
+  }
+
+  private GreeFrame decodeStreaming(ByteBuffer frame) throws Exception {
+    GreeFrameCodec.Envelope envelope = frameCodec.decodeEnvelope(frame);
+
+    log.debug("Handling response: {}", envelope);
+
+    return encryptionService.decrypt(envelope);
+  }
+
+  private void handleHandshakeResponse(GreeFrame message) {
+    deviceId = message.getCid();
     if (deviceId.isEmpty()) {
-      deviceId = message.optString("mac");
+      deviceId = message.getMac();
     }
 
     log.info("Device handshake successful, device ID: {}", deviceId);
@@ -459,66 +785,78 @@ public class HvacClient {
     bindMessage.put("uid", 0);
 
     EncryptionService.EncryptedMessage encrypted = encryptionService.encrypt(bindMessage);
-
-    JSONObject packedMessage = new JSONObject();
-    packedMessage.put("cid", "app");
-    packedMessage.put("i", 1);
-    packedMessage.put("t", "pack");
-    packedMessage.put("uid", 0);
-    packedMessage.put("pack", encrypted.getPayload());
-    if (encrypted.getTag() != null) {
-      packedMessage.put("tag", encrypted.getTag());
-    }
-
-    socketSend(packedMessage);
+    send(SendPriority.BIND, packedMessage(encrypted, 1));
 
     // Critical: Schedule a second bind attempt if first fails (working version behavior)
     if (attempt == 1) {
-      scheduler.schedule(
-          () -> {
-            try {
-              log.warn("Binding attempt timed out");
-              sendBindRequest(2);
-            } catch (Exception e) {
-              notifyError(e);
-            }
-          },
-          500,
-          TimeUnit.MILLISECONDS);
+      bindRetryTask =
+          schedule(
+              () -> {
+                try {
+                  log.warn("Binding attempt timed out");
+                  sendBindRequest(2);
+                } catch (Exception e) {
+                  notifyError(e);
+                }
+              },
+              500,
+              TimeUnit.MILLISECONDS);
     }
   }
 
   private void handleBindingConfirmationResponse() {
     log.info("Binding successful, connected to device");
+    saveDeviceKey();
+    completeConnection(true);
+  }
+
+  private void handleResumedConnection() {
+    log.info("Device answered with its stored key, connected without binding");
+    resuming = false;
+    completeConnection(false);
+  }
+
+  private void saveDeviceKey() {
+    DeviceKeyStore keyStore = options.getKeyStore();
+    if (keyStore == null) {
+      return;
+    }
+    try {
+      keyStore.save(
+          new DeviceKey(
+              deviceId,
+              options.getHost(),
+              encryptionService.getCipher(),
+              encryptionService.getKey()));
+    } catch (Exception e) {
+      log.warn("Could not store the key of device {}", deviceId, e);
+    }
+  }
 
-    // Cancel any pending reconnection attempts
+  private void completeConnection(boolean requestStatus) {
+    // Cancel any pending reconnection and bind attempts
     if (reconnectTask != null) {
-      reconnectTask.cancel(false);
+      reconnectTask.cancel();
       reconnectTask = null;
     }
+    if (bindRetryTask != null) {
+      bindRetryTask.cancel();
+      bindRetryTask = null;
+    }
 
     // Mark as connected
     connected = true;
 
     try {
-      // Request initial status
-      requestStatus();
+      // Request initial status, unless the response to the resume request is being handled
+      if (requestStatus) {
+        awaitingStatus.set(true);
+        requestStatus();
+      }
 
       // Start polling if enabled
       if (options.isPoll()) {
-        log.debug("Starting status polling every {}ms", options.getPollingInterval());
-        pollingTask =
-            scheduler.scheduleAtFixedRate(
-                () -> {
-                  try {
-                    requestStatus();
-                  } catch (Exception e) {
-                    notifyError(e);
-                  }
-                },
-                options.getPollingInterval(),
-                options.getPollingInterval(),
-                TimeUnit.MILLISECONDS);
+        startPolling();
       }
 
       // Notify listeners and complete the connection future
@@ -537,118 +875,332 @@ public class HvacClient {
     }
   }
 
+  private void startPolling() {
+    if (adaptivePolling == null) {
+      log.debug("Starting status polling every {}ms", options.getPollingInterval());
+    } else {
+      log.debug("Starting adaptive status polling every {}ms", adaptivePolling.getInterval());
+    }
+    synchronized (pollingLock) {
+      if (pollPhase == null) {
+        pollPhase = pollPhaseAllocator.allocate();
+      }
+      pollingActive = true;
+      // The first poll lands on this client's phase, so clients connected together poll apart
+      long interval =
+          adaptivePolling != null ? adaptivePolling.getInterval() : options.getPollingInterval();
+      schedulePoll(pollPhase.delayToNext(System.currentTimeMillis(), interval) + pollJitter());
+    }
+  }
+
+  /** Run one status poll and schedule the next, the timer only runs one-shot tasks */
+  private void poll() {
+    long now = System.currentTimeMillis();
+    if (adaptivePolling != null) {
+      adaptivePolling.onPoll(now);
+    }
+    synchronized (pollingLock) {
+      if (!pollingActive) {
+        return;
+      }
+      pollPhase.recordPoll(now);
+      schedulePoll(nextPollDelay(now));
+    }
+
+    awaitingStatus.set(true);
+    try {
+      requestStatus();
+    } catch (Exception e) {
+      notifyError(e);
+    }
+  }
+
+  /** Fixed polls stay on the phase grid; adaptive polls keep the phase they started with */
+  private long nextPollDelay(long now) {
+    if (adaptivePolling != null) {
+      return adaptivePolling.nextDelay(now) + pollJitter();
+    }
+    return pollPhase.delayToNext(now, options.getPollingInterval()) + pollJitter();
+  }
+
+  private long pollJitter() {
+    int jitter = options.getPollJitter();
+    return jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0;
+  }
+
+  /** Bring the next adaptive poll forward if the policy now wants it sooner */
+  private void expeditePoll() {
+    synchronized (pollingLock) {
+      if (!pollingActive || pollingTask == null) {
+        return;
+      }
+      long delay = adaptivePolling.nextDelay(System.currentTimeMillis());
+      if (pollingTask.getDelay(TimeUnit.MILLISECONDS) > delay && pollingTask.cancel()) {
+        schedulePoll(delay);
+      }
+    }
+  }
+
+  private void schedulePoll(long delay) {
+    try {
+      pollingTask = schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      pollingActive = false;
+    }
+  }
+
+  /** Schedule on the timer unless this client has been shut down */
+  private HvacTimer.Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Client is shut down");
+    }
+    return timer.schedule(task, delay, unit);
+  }
+
+  /** Send a status request and arm its timeout; the caller has set {@code awaitingStatus} */
   private void requestStatus() throws Exception {
     log.debug("Requesting device status");
 
-    List<String> propertyNames =
-        Arrays.asList(
-            PROPERTY_POWER,
-            PROPERTY_MODE,
-            PROPERTY_TEMPERATURE_UNIT,
-            PROPERTY_TEMPERATURE,
-            PROPERTY_CURRENT_TEMPERATURE,
-            PROPERTY_FAN_SPEED,
-            PROPERTY_AIR,
-            PROPERTY_BLOW,
-            PROPERTY_HEALTH,
-            PROPERTY_SLEEP,
-            PROPERTY_LIGHTS,
-            PROPERTY_SWING_HOR,
-            PROPERTY_SWING_VERT,
-            PROPERTY_QUIET,
-            PROPERTY_TURBO,
-            PROPERTY_POWER_SAVE,
-            PROPERTY_SAFETY_HEATING);
-
-    JSONObject statusMessage = new JSONObject();
-    statusMessage.put("cols", new JSONArray(transformer.arrayToVendor(propertyNames)));
-    statusMessage.put("mac", deviceId);
-    statusMessage.put("t", "status");
-
-    sendRequest(statusMessage);
-
-    // Set status timeout
-    statusTimeoutTask =
-        scheduler.schedule(
-            () -> {
-              log.warn("Status request timeout ({}ms)", options.getPollingTimeout());
-              properties.clear();
-              notifyNoResponse();
-            },
-            options.getPollingTimeout(),
-            TimeUnit.MILLISECONDS);
+    try {
+      // Poll frames only depend on MAC, key and columns, so they are encrypted once and resent
+      // A poll still waiting for the rate limit is replaced rather than sent twice
+      if (nextPollIsFull()) {
+        outbound.sendPoll(statusFrameCache.get(deviceId, STATUS_COLUMNS, encryptionService), true);
+      } else {
+        outbound.sendPoll(
+            fastStatusFrameCache.get(deviceId, fastStatusColumns, encryptionService), false);
+      }
+    } catch (Exception e) {
+      awaitingStatus.set(false);
+      throw e;
+    }
+
+    // Set status timeout, replacing the one of an unanswered earlier poll
+    synchronized (pollingLock) {
+      long generation = ++statusRequestGeneration;
+      if (statusTimeoutTask != null) {
+        statusTimeoutTask.cancel();
+      }
+      statusTimeoutTask =
+          schedule(
+              () -> onStatusTimeout(generation),
+              options.getPollingTimeout(),
+              TimeUnit.MILLISECONDS);
+    }
   }
 
-  private void handleStatusResponse(JSONObject pack) {
+  private void onStatusTimeout(long generation) {
+    boolean wasStale;
+    synchronized (pollingLock) {
+      // A later request or an answer superseded this timeout
+      if (generation != statusRequestGeneration) {
+        return;
+      }
+      statusTimeoutTask = null;
+      log.warn("Status request timeout ({}ms)", options.getPollingTimeout());
+      // Keep serving the last reported values, marked stale until the device answers again
+      awaitingStatus.set(false);
+      wasStale = statusStale;
+      statusStale = true;
+    }
+    synchronized (this) {
+      fullPollDue = true;
+    }
+    failRevalidations(new HvacException("Status request timeout"));
+    if (!wasStale && lastStatusAt != 0) {
+      publishStatus();
+    }
+    notifyNoResponse();
+  }
+
+  /**
+   * Whether the next poll requests every property. Partial polls only refresh their own columns, so
+   * a full poll is forced whenever the state has to be rebuilt from scratch.
+   */
+  private synchronized boolean nextPollIsFull() {
+    if (fullPollDue
+        || fastStatusColumns.isEmpty()
+        || ++pollsSinceFullPoll >= options.getFullPollEvery()) {
+      fullPollDue = false;
+      pollsSinceFullPoll = 0;
+      return true;
+    }
+    return false;
+  }
+
+  private void handleStatusResponse(GreeFrame pack) throws HvacException {
     log.debug("Received status response");
 
-    if (statusTimeoutTask != null) {
-      statusTimeoutTask.cancel(false);
+    List<String> cols = pack.getColumns();
+    List<Object> dat = pack.getData();
+    if (cols == null || dat == null) {
+      throw new HvacException("Status response without cols or dat");
+    }
+
+    boolean changed = updateState(cols, dat);
+    boolean wasStale;
+    synchronized (pollingLock) {
+      // Retire the pending timeout, even if it is already about to run
+      statusRequestGeneration++;
+      if (statusTimeoutTask != null) {
+        statusTimeoutTask.cancel();
+        statusTimeoutTask = null;
+      }
+      wasStale = statusStale;
+      lastStatusAt = System.currentTimeMillis();
+      statusStale = false;
+      awaitingStatus.set(false);
+    }
+    if (adaptivePolling != null) {
+      adaptivePolling.onStatus(changed);
+      if (changed) {
+        expeditePoll();
+      }
     }
 
-    Map<String, Object> oldProperties = new HashMap<>(properties);
+    // Notify listeners only if a reported value changed or the state is fresh again
+    if (changed || wasStale) {
+      publishStatus();
+    }
+    completeRevalidations();
+  }
 
-    JSONArray cols = pack.getJSONArray("cols");
-    JSONArray dat = pack.getJSONArray("dat");
+  /** Request the status in the background unless a request is already awaiting its answer */
+  private void revalidate() {
+    if (!connected || !awaitingStatus.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      requestStatus();
+    } catch (Exception e) {
+      notifyError(e);
+    }
+  }
 
-    Map<String, Object> newProperties = new HashMap<>();
-    for (int i = 0; i < cols.length() && i < dat.length(); i++) {
-      String col = cols.getString(i);
-      Object value = dat.get(i);
-      newProperties.put(col, value);
-      properties.put(col, value);
+  private void completeRevalidations() {
+    List<CompletableFuture<DeviceStatus>> waiting;
+    synchronized (revalidations) {
+      if (revalidations.isEmpty()) {
+        return;
+      }
+      waiting = new ArrayList<>(revalidations);
+      revalidations.clear();
     }
+    DeviceStatus status = buildStatus();
+    waiting.forEach(future -> future.complete(status));
+  }
 
-    // Check for changes and notify listeners
-    if (!newProperties.equals(oldProperties)) {
-      DeviceStatus status = getStatus();
-      statusUpdateListeners.forEach(listener -> listener.accept(status));
+  private void failRevalidations(Exception cause) {
+    List<CompletableFuture<DeviceStatus>> waiting;
+    synchronized (revalidations) {
+      waiting = new ArrayList<>(revalidations);
+      revalidations.clear();
     }
+    waiting.forEach(future -> future.completeExceptionally(cause));
   }
 
-  private void handleUpdateConfirmResponse(JSONObject pack) {
+  private void publishStatus() {
+    DeviceStatus status = buildStatus();
+    statusUpdateListeners.dispatch(status);
+    statusPublisher.submit(status);
+  }
+
+  private void handleUpdateConfirmResponse(GreeFrame pack) throws HvacException {
     log.debug("Received update confirmation");
 
-    JSONArray opt = pack.getJSONArray("opt");
-    JSONArray values = pack.has("val") ? pack.getJSONArray("val") : pack.getJSONArray("p");
+    List<String> opt = pack.getOptions();
+    List<Object> values = pack.getValues();
+    if (opt == null || values == null) {
+      throw new HvacException("Update confirmation without opt or values");
+    }
 
-    Map<String, Object> updatedProperties = new HashMap<>();
-    for (int i = 0; i < opt.length() && i < values.length(); i++) {
-      String property = opt.getString(i);
-      Object value = values.get(i);
-      properties.put(property, value);
-      updatedProperties.put(property, value);
+    // A confirmed command changes the state as much as a status report does
+    if (updateState(opt, values)) {
+      publishStatus();
     }
 
-    log.info("Properties updated successfully: {}", updatedProperties.keySet());
+    if (commandTracker.confirm(opt)) {
+      log.info("Properties updated successfully: {}", opt);
+    } else {
+      log.debug("Update confirmation without a pending command: {}", opt);
+    }
+  }
+
+  /** Apply reported values to the state and notify property listeners of each change */
+  private boolean updateState(List<String> columns, List<Object> values) {
+    if (propertyChangeListeners.isEmpty() && propertyListeners.isEmpty()) {
+      return state.update(transformer, columns, values);
+    }
+
+    List<PropertyChange> changes = new ArrayList<>();
+    boolean changed =
+        state.update(
+            transformer,
+            columns,
+            values,
+            (property, oldValue, newValue, version) ->
+                changes.add(
+                    new PropertyChange(
+                        deviceId,
+                        property,
+                        transformer.fromVendor(property, oldValue),
+                        transformer.fromVendor(property, newValue),
+                        version)));
+
+    for (PropertyChange change : changes) {
+      propertyChangeListeners.dispatch(change);
+      ListenerDispatcher.Listeners<PropertyChange> listeners =
+          propertyListeners.get(change.getProperty());
+      if (listeners != null) {
+        listeners.dispatch(change);
+      }
+    }
+    return changed;
   }
 
   private void dispose() {
-    if (pollingTask != null) {
-      pollingTask.cancel(false);
+    resuming = false;
+    synchronized (pollingLock) {
+      pollingActive = false;
+      if (pollingTask != null) {
+        pollingTask.cancel();
+      }
+      statusRequestGeneration++;
+      if (statusTimeoutTask != null) {
+        statusTimeoutTask.cancel();
+        statusTimeoutTask = null;
+      }
+      awaitingStatus.set(false);
     }
     if (reconnectTask != null) {
-      reconnectTask.cancel(false);
+      reconnectTask.cancel();
+    }
+    if (bindRetryTask != null) {
+      bindRetryTask.cancel();
     }
-    if (statusTimeoutTask != null) {
-      statusTimeoutTask.cancel(false);
+    outbound.clear();
+    failRevalidations(new HvacException("Connection reset before the status was reported"));
+    HvacException reset = new HvacException("Connection reset before the command was confirmed");
+    if (commandCoalescer != null) {
+      commandCoalescer.failAll(reset);
     }
+    commandTracker.failAll(reset);
   }
 
   // Event notification methods
   private void notifyConnect() {
-    connectListeners.forEach(Runnable::run);
+    connectListeners.dispatch(null);
   }
 
   private void notifyError(Exception error) {
-    errorListeners.forEach(listener -> listener.accept(error));
+    errorListeners.dispatch(error);
   }
 
   private void notifyDisconnect() {
-    disconnectListeners.forEach(Runnable::run);
+    disconnectListeners.dispatch(null);
   }
 
   private void notifyNoResponse() {
-    noResponseListeners.forEach(Runnable::run);
+    noResponseListeners.dispatch(null);
   }
 }
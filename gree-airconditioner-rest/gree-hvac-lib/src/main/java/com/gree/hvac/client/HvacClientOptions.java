@@ -1,5 +1,9 @@
 package com.gree.hvac.client;
 
+import com.gree.hvac.protocol.Property;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /** HVAC client configuration options */
 public class HvacClientOptions {
   private String host;
@@ -9,6 +13,35 @@ public class HvacClientOptions {
   private boolean poll = true;
   private int pollingInterval = 3000;
   private int pollingTimeout = 1000;
+  private List<Property> fastPollProperties =
+      List.of(
+          Property.POWER,
+          Property.MODE,
+          Property.TEMPERATURE,
+          Property.CURRENT_TEMPERATURE,
+          Property.FAN_SPEED);
+  private int fullPollEvery = 1;
+  private boolean adaptivePolling = false;
+  private int fastPollingInterval = 1000;
+  private int maxPollingInterval = 30000;
+  private int maxPollsPerMinute = 60;
+  private PollPhaseAllocator pollPhaseAllocator;
+  private int pollJitter = 0;
+  private int addressCacheTtl = 60000;
+  private int addressNegativeCacheTtl = 5000;
+  private boolean streamingCodec = false;
+  private int commandTimeout = 1000;
+  private int commandRetries = 2;
+  private int maxInFlightCommands = 1;
+  private int commandCoalesceWindow = 0;
+  private double maxSendRate = 0;
+  private int sendBurst = 5;
+  private HvacTimer timer;
+  private DeviceKeyStore keyStore;
+  private Executor listenerExecutor;
+  private int listenerQueueCapacity = 100;
+  private OverflowPolicy listenerOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+  private int listenerLateThreshold = 1000;
   private String logLevel = "error";
   private boolean debug = false;
 
@@ -82,6 +115,236 @@ public class HvacClientOptions {
     return this;
   }
 
+  public List<Property> getFastPollProperties() {
+    return fastPollProperties;
+  }
+
+  /** Properties requested by the polls in between full polls */
+  public HvacClientOptions setFastPollProperties(List<Property> fastPollProperties) {
+    this.fastPollProperties = List.copyOf(fastPollProperties);
+    return this;
+  }
+
+  public int getFullPollEvery() {
+    return fullPollEvery;
+  }
+
+  /** Request all properties on every n-th poll and only the fast poll properties otherwise */
+  public HvacClientOptions setFullPollEvery(int fullPollEvery) {
+    this.fullPollEvery = fullPollEvery;
+    return this;
+  }
+
+  public boolean isAdaptivePolling() {
+    return adaptivePolling;
+  }
+
+  /** Back off polling while the device reports no changes and speed up after commands */
+  public HvacClientOptions setAdaptivePolling(boolean adaptivePolling) {
+    this.adaptivePolling = adaptivePolling;
+    return this;
+  }
+
+  public int getFastPollingInterval() {
+    return fastPollingInterval;
+  }
+
+  /** Adaptive polling interval used right after a command or a detected change (ms) */
+  public HvacClientOptions setFastPollingInterval(int fastPollingInterval) {
+    this.fastPollingInterval = fastPollingInterval;
+    return this;
+  }
+
+  public int getMaxPollingInterval() {
+    return maxPollingInterval;
+  }
+
+  /** Longest interval adaptive polling backs off to (ms) */
+  public HvacClientOptions setMaxPollingInterval(int maxPollingInterval) {
+    this.maxPollingInterval = maxPollingInterval;
+    return this;
+  }
+
+  public int getMaxPollsPerMinute() {
+    return maxPollsPerMinute;
+  }
+
+  /** Upper bound on adaptive status polls per device in any minute, 0 for no limit */
+  public HvacClientOptions setMaxPollsPerMinute(int maxPollsPerMinute) {
+    this.maxPollsPerMinute = maxPollsPerMinute;
+    return this;
+  }
+
+  public PollPhaseAllocator getPollPhaseAllocator() {
+    return pollPhaseAllocator;
+  }
+
+  /** Allocator spreading the polls of clients across the interval; the shared one if not set */
+  public HvacClientOptions setPollPhaseAllocator(PollPhaseAllocator pollPhaseAllocator) {
+    this.pollPhaseAllocator = pollPhaseAllocator;
+    return this;
+  }
+
+  public int getPollJitter() {
+    return pollJitter;
+  }
+
+  /** Random delay of up to this much added to every poll, 0 polls exactly on the phase (ms) */
+  public HvacClientOptions setPollJitter(int pollJitter) {
+    this.pollJitter = pollJitter;
+    return this;
+  }
+
+  public int getAddressCacheTtl() {
+    return addressCacheTtl;
+  }
+
+  /** How long a resolved device address is reused before it is looked up again (ms) */
+  public HvacClientOptions setAddressCacheTtl(int addressCacheTtl) {
+    this.addressCacheTtl = addressCacheTtl;
+    return this;
+  }
+
+  public int getAddressNegativeCacheTtl() {
+    return addressNegativeCacheTtl;
+  }
+
+  /** How long a failed address lookup is remembered before it is retried (ms) */
+  public HvacClientOptions setAddressNegativeCacheTtl(int addressNegativeCacheTtl) {
+    this.addressNegativeCacheTtl = addressNegativeCacheTtl;
+    return this;
+  }
+
+  public boolean isStreamingCodec() {
+    return streamingCodec;
+  }
+
+  /** Decode inbound frames with the streaming GreeFrameCodec instead of org.json */
+  public HvacClientOptions setStreamingCodec(boolean streamingCodec) {
+    this.streamingCodec = streamingCodec;
+    return this;
+  }
+
+  public int getCommandTimeout() {
+    return commandTimeout;
+  }
+
+  /** How long to wait for the device to confirm a command before resending it (ms) */
+  public HvacClientOptions setCommandTimeout(int commandTimeout) {
+    this.commandTimeout = commandTimeout;
+    return this;
+  }
+
+  public int getCommandRetries() {
+    return commandRetries;
+  }
+
+  /** How many times an unconfirmed command is resent before it fails */
+  public HvacClientOptions setCommandRetries(int commandRetries) {
+    this.commandRetries = commandRetries;
+    return this;
+  }
+
+  public int getMaxInFlightCommands() {
+    return maxInFlightCommands;
+  }
+
+  /** How many commands may await confirmation at once; further commands are queued */
+  public HvacClientOptions setMaxInFlightCommands(int maxInFlightCommands) {
+    this.maxInFlightCommands = maxInFlightCommands;
+    return this;
+  }
+
+  public int getCommandCoalesceWindow() {
+    return commandCoalesceWindow;
+  }
+
+  /** Merge property writes made within this window into one command, 0 sends each write (ms) */
+  public HvacClientOptions setCommandCoalesceWindow(int commandCoalesceWindow) {
+    this.commandCoalesceWindow = commandCoalesceWindow;
+    return this;
+  }
+
+  public double getMaxSendRate() {
+    return maxSendRate;
+  }
+
+  /** Frames per second sent to the device, excess frames wait by priority; 0 for no limit */
+  public HvacClientOptions setMaxSendRate(double maxSendRate) {
+    this.maxSendRate = maxSendRate;
+    return this;
+  }
+
+  public int getSendBurst() {
+    return sendBurst;
+  }
+
+  /** Frames that may be sent back to back within the send rate after an idle period */
+  public HvacClientOptions setSendBurst(int sendBurst) {
+    this.sendBurst = sendBurst;
+    return this;
+  }
+
+  public HvacTimer getTimer() {
+    return timer;
+  }
+
+  /** Timer for polls, timeouts and retries; the shared HashedWheelTimer if not set */
+  public HvacClientOptions setTimer(HvacTimer timer) {
+    this.timer = timer;
+    return this;
+  }
+
+  public DeviceKeyStore getKeyStore() {
+    return keyStore;
+  }
+
+  /** Store device keys after binding and reuse them to reconnect without binding */
+  public HvacClientOptions setKeyStore(DeviceKeyStore keyStore) {
+    this.keyStore = keyStore;
+    return this;
+  }
+
+  public Executor getListenerExecutor() {
+    return listenerExecutor;
+  }
+
+  /** Executor running event listeners, a virtual thread per busy listener if not set */
+  public HvacClientOptions setListenerExecutor(Executor listenerExecutor) {
+    this.listenerExecutor = listenerExecutor;
+    return this;
+  }
+
+  public int getListenerQueueCapacity() {
+    return listenerQueueCapacity;
+  }
+
+  /** Maximum number of undelivered events queued for each listener */
+  public HvacClientOptions setListenerQueueCapacity(int listenerQueueCapacity) {
+    this.listenerQueueCapacity = listenerQueueCapacity;
+    return this;
+  }
+
+  public OverflowPolicy getListenerOverflowPolicy() {
+    return listenerOverflowPolicy;
+  }
+
+  /** Which events a full listener queue drops */
+  public HvacClientOptions setListenerOverflowPolicy(OverflowPolicy listenerOverflowPolicy) {
+    this.listenerOverflowPolicy = listenerOverflowPolicy;
+    return this;
+  }
+
+  public int getListenerLateThreshold() {
+    return listenerLateThreshold;
+  }
+
+  /** Delay after which a delivered event is counted as late in the listener metrics (ms) */
+  public HvacClientOptions setListenerLateThreshold(int listenerLateThreshold) {
+    this.listenerLateThreshold = listenerLateThreshold;
+    return this;
+  }
+
   public String getLogLevel() {
     return logLevel;
   }
@@ -0,0 +1,158 @@
+package com.gree.hvac.client;
+
+import com.gree.hvac.dto.DeviceControl;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends one command to a group of connected clients
+ *
+ * <p>Clients are registered under a device id. A group command fans out to at most {@code
+ * maxConcurrency} devices at a time: each slot sends the command to its next device once the
+ * previous one confirmed or failed, so a slow device holds one slot, not the whole group. The
+ * encrypted frame is shared between all devices using the same cipher and key, so a group is
+ * encrypted once per distinct key rather than once per device. Devices that are not registered or
+ * not connected fail without being sent anything.
+ */
+@Slf4j
+public class HvacFleet {
+
+  /** Devices commanded at the same time unless configured otherwise */
+  public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+  private final Map<String, HvacClient> clients = new ConcurrentHashMap<>();
+  private final int maxConcurrency;
+
+  public HvacFleet() {
+    this(DEFAULT_MAX_CONCURRENCY);
+  }
+
+  /**
+   * @param maxConcurrency devices awaiting the confirmation of a group command at the same time
+   */
+  public HvacFleet(int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("At least one device must be commanded at a time");
+    }
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /** Register a client under a device id, replacing a client registered before */
+  public void add(String deviceId, HvacClient client) {
+    clients.put(deviceId, client);
+  }
+
+  /** Unregister the client of a device */
+  public void remove(String deviceId) {
+    clients.remove(deviceId);
+  }
+
+  /** Unregister a device only if it is still registered with the given client */
+  public void remove(String deviceId, HvacClient client) {
+    clients.remove(deviceId, client);
+  }
+
+  public HvacClient getClient(String deviceId) {
+    return clients.get(deviceId);
+  }
+
+  public Set<String> getDeviceIds() {
+    return Set.copyOf(clients.keySet());
+  }
+
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Send a command to every given device
+   *
+   * @return the result of each device in the order of the given ids; completes once every device
+   *     confirmed or failed, it never completes exceptionally
+   */
+  public CompletableFuture<List<GroupCommandResult>> control(
+      Collection<String> deviceIds, DeviceControl control) {
+    GroupCommand command = new GroupCommand(List.copyOf(deviceIds), control);
+    int lanes = Math.min(maxConcurrency, command.deviceIds.size());
+    for (int i = 0; i < lanes; i++) {
+      command.sendNext();
+    }
+    return CompletableFuture.allOf(command.results)
+        .thenApply(
+            done -> {
+              List<GroupCommandResult> results = new ArrayList<>(command.results.length);
+              for (CompletableFuture<GroupCommandResult> result : command.results) {
+                results.add(result.join());
+              }
+              return results;
+            });
+  }
+
+  /** Fan-out state of one group command */
+  private final class GroupCommand {
+    private final List<String> deviceIds;
+    private final DeviceControl control;
+    private final CommandFrameCache frames = new CommandFrameCache();
+    private final AtomicInteger next = new AtomicInteger();
+    private final CompletableFuture<GroupCommandResult>[] results;
+
+    @SuppressWarnings("unchecked")
+    GroupCommand(List<String> deviceIds, DeviceControl control) {
+      this.deviceIds = deviceIds;
+      this.control = control;
+      this.results = new CompletableFuture[deviceIds.size()];
+      for (int i = 0; i < results.length; i++) {
+        results[i] = new CompletableFuture<>();
+      }
+    }
+
+    /**
+     * Send the command to the next devices of this slot. Devices that fail or confirm at once are
+     * handled in the loop; a pending command continues the slot from its completion.
+     */
+    void sendNext() {
+      int index;
+      while ((index = next.getAndIncrement()) < deviceIds.size()) {
+        CompletableFuture<Void> sent = send(index);
+        if (!sent.isDone()) {
+          sent.whenComplete((result, e) -> sendNext());
+          return;
+        }
+      }
+    }
+
+    private CompletableFuture<Void> send(int index) {
+      String deviceId = deviceIds.get(index);
+      CompletableFuture<GroupCommandResult> result = results[index];
+      HvacClient client = clients.get(deviceId);
+      if (client == null) {
+        result.complete(new GroupCommandResult(deviceId, false, "Device is not registered", 0));
+        return CompletableFuture.completedFuture(null);
+      }
+
+      long start = System.nanoTime();
+      CompletableFuture<Void> sent = client.control(control, frames);
+      sent.whenComplete(
+          (done, e) -> {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (e == null) {
+              result.complete(new GroupCommandResult(deviceId, true, null, latency));
+            } else {
+              Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+              log.warn("Group command failed for device {}: {}", deviceId, cause.getMessage());
+              result.complete(new GroupCommandResult(deviceId, false, cause.getMessage(), latency));
+            }
+          });
+      return sent;
+    }
+  }
+}
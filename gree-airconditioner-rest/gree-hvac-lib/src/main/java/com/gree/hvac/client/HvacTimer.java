@@ -0,0 +1,36 @@
+package com.gree.hvac.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the delayed work of HVAC clients: polls, status and command timeouts, reconnect and
+ * bind retries.
+ *
+ * <p>Clients only need one-shot timeouts and reschedule periodic work themselves, so a single timer
+ * can serve a whole fleet. Tasks should be short; long running work belongs on an executor.
+ */
+public interface HvacTimer {
+
+  /**
+   * Run the task once after the given delay
+   *
+   * @throws java.util.concurrent.RejectedExecutionException if the timer no longer accepts tasks
+   */
+  Timeout schedule(Runnable task, long delay, TimeUnit unit);
+
+  /** Handle of a scheduled task */
+  interface Timeout {
+
+    /**
+     * Prevent the task from running
+     *
+     * @return false if the task already ran or was cancelled before
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    /** Remaining delay until the task is due, negative once it is overdue */
+    long getDelay(TimeUnit unit);
+  }
+}
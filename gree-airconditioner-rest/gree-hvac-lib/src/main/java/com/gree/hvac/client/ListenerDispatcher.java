@@ -0,0 +1,160 @@
+package com.gree.hvac.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers client events to listeners off the thread that raised them
+ *
+ * <p>Every listener has its own bounded queue, drained by one task at a time on the executor, so it
+ * sees events in the order they were raised while a slow or failing listener only delays itself.
+ * When a queue is full the overflow policy decides which events are dropped. Listeners may be
+ * registered while events are being dispatched.
+ */
+@Slf4j
+class ListenerDispatcher {
+
+  private static final Executor VIRTUAL_THREADS =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("gree-listener-", 0).factory());
+
+  private final Executor executor;
+  private final int queueCapacity;
+  private final OverflowPolicy overflowPolicy;
+  private final long lateThresholdNanos;
+
+  private final AtomicLong deliveredEvents = new AtomicLong();
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private final AtomicLong lateEvents = new AtomicLong();
+  private final AtomicLong failedEvents = new AtomicLong();
+  private final AtomicInteger queuedEvents = new AtomicInteger();
+
+  /**
+   * @param executor runs the listeners, a virtual thread per drain if null
+   * @param queueCapacity maximum number of undelivered events per listener
+   * @param lateThreshold delay in ms after which a delivered event counts as late
+   */
+  ListenerDispatcher(
+      Executor executor, int queueCapacity, OverflowPolicy overflowPolicy, long lateThreshold) {
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Listener queue capacity must be at least 1");
+    }
+    this.executor = executor != null ? executor : VIRTUAL_THREADS;
+    this.queueCapacity = queueCapacity;
+    this.overflowPolicy = overflowPolicy;
+    this.lateThresholdNanos = TimeUnit.MILLISECONDS.toNanos(lateThreshold);
+  }
+
+  /** Create an empty group of listeners for one kind of event */
+  <T> Listeners<T> newListeners() {
+    return new Listeners<>();
+  }
+
+  ListenerMetrics getMetrics() {
+    return new ListenerMetrics(
+        deliveredEvents.get(),
+        droppedEvents.get(),
+        lateEvents.get(),
+        failedEvents.get(),
+        queuedEvents.get());
+  }
+
+  /** Listeners of one kind of event */
+  final class Listeners<T> {
+    private final List<QueuedListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    void add(Consumer<T> listener) {
+      listeners.add(new QueuedListener<>(listener));
+    }
+
+    boolean isEmpty() {
+      return listeners.isEmpty();
+    }
+
+    void dispatch(T event) {
+      if (listeners.isEmpty()) {
+        return;
+      }
+      Event<T> queued = new Event<>(event, System.nanoTime());
+      listeners.forEach(listener -> listener.offer(queued));
+    }
+  }
+
+  private record Event<T>(T value, long raisedAt) {}
+
+  private final class QueuedListener<T> implements Runnable {
+    private final Consumer<T> listener;
+    private final Deque<Event<T>> queue = new ArrayDeque<>();
+    private boolean draining = false;
+
+    QueuedListener(Consumer<T> listener) {
+      this.listener = listener;
+    }
+
+    void offer(Event<T> event) {
+      synchronized (this) {
+        if (queue.size() >= queueCapacity) {
+          int dropped = overflowPolicy == OverflowPolicy.CONFLATE_LATEST ? queue.size() : 1;
+          for (int i = 0; i < dropped; i++) {
+            queue.pollFirst();
+          }
+          droppedEvents.addAndGet(dropped);
+          queuedEvents.addAndGet(-dropped);
+        }
+        queue.addLast(event);
+        queuedEvents.incrementAndGet();
+        if (draining) {
+          return;
+        }
+        draining = true;
+      }
+
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        log.warn("Listener executor rejected event delivery", e);
+        synchronized (this) {
+          droppedEvents.addAndGet(queue.size());
+          queuedEvents.addAndGet(-queue.size());
+          queue.clear();
+          draining = false;
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        Event<T> event;
+        synchronized (this) {
+          event = queue.pollFirst();
+          if (event == null) {
+            draining = false;
+            return;
+          }
+          queuedEvents.decrementAndGet();
+        }
+
+        if (System.nanoTime() - event.raisedAt() > lateThresholdNanos) {
+          lateEvents.incrementAndGet();
+        }
+        deliveredEvents.incrementAndGet();
+        try {
+          listener.accept(event.value());
+        } catch (Exception e) {
+          failedEvents.incrementAndGet();
+          log.warn("Event listener failed", e);
+        }
+      }
+    }
+  }
+}
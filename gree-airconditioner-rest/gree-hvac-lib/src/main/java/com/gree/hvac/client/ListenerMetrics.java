@@ -0,0 +1,63 @@
+package com.gree.hvac.client;
+
+/** Point-in-time delivery metrics of the event listeners of an {@link HvacClient} */
+public class ListenerMetrics {
+  private final long deliveredEvents;
+  private final long droppedEvents;
+  private final long lateEvents;
+  private final long failedEvents;
+  private final int queuedEvents;
+
+  public ListenerMetrics(
+      long deliveredEvents,
+      long droppedEvents,
+      long lateEvents,
+      long failedEvents,
+      int queuedEvents) {
+    this.deliveredEvents = deliveredEvents;
+    this.droppedEvents = droppedEvents;
+    this.lateEvents = lateEvents;
+    this.failedEvents = failedEvents;
+    this.queuedEvents = queuedEvents;
+  }
+
+  /** Events passed to a listener, including those it failed on */
+  public long getDeliveredEvents() {
+    return deliveredEvents;
+  }
+
+  /** Events discarded because a listener queue was full */
+  public long getDroppedEvents() {
+    return droppedEvents;
+  }
+
+  /** Events delivered later than the configured lateness threshold after they were raised */
+  public long getLateEvents() {
+    return lateEvents;
+  }
+
+  /** Events on which a listener threw an exception */
+  public long getFailedEvents() {
+    return failedEvents;
+  }
+
+  /** Events waiting in listener queues */
+  public int getQueuedEvents() {
+    return queuedEvents;
+  }
+
+  @Override
+  public String toString() {
+    return "ListenerMetrics{delivered="
+        + deliveredEvents
+        + ", dropped="
+        + droppedEvents
+        + ", late="
+        + lateEvents
+        + ", failed="
+        + failedEvents
+        + ", queued="
+        + queuedEvents
+        + "}";
+  }
+}
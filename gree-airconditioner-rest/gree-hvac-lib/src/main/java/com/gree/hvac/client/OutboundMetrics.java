@@ -0,0 +1,59 @@
+package com.gree.hvac.client;
+
+/** Point-in-time metrics of the frames an {@link HvacClient} sent to its device */
+public class OutboundMetrics {
+  private final long sentFrames;
+  private final long mergedPolls;
+  private final int queuedFrames;
+  private final long averageWait;
+  private final long maxWait;
+
+  public OutboundMetrics(
+      long sentFrames, long mergedPolls, int queuedFrames, long averageWait, long maxWait) {
+    this.sentFrames = sentFrames;
+    this.mergedPolls = mergedPolls;
+    this.queuedFrames = queuedFrames;
+    this.averageWait = averageWait;
+    this.maxWait = maxWait;
+  }
+
+  /** Frames handed to the socket, inline or from the queue */
+  public long getSentFrames() {
+    return sentFrames;
+  }
+
+  /** Waiting polls that were replaced by, or absorbed, a newer poll */
+  public long getMergedPolls() {
+    return mergedPolls;
+  }
+
+  /** Frames waiting for the rate limit */
+  public int getQueuedFrames() {
+    return queuedFrames;
+  }
+
+  /** Average time frames sent from the queue waited for the rate limit (ms) */
+  public long getAverageWait() {
+    return averageWait;
+  }
+
+  /** Longest time a frame waited for the rate limit (ms) */
+  public long getMaxWait() {
+    return maxWait;
+  }
+
+  @Override
+  public String toString() {
+    return "OutboundMetrics{sent="
+        + sentFrames
+        + ", mergedPolls="
+        + mergedPolls
+        + ", queued="
+        + queuedFrames
+        + ", averageWait="
+        + averageWait
+        + "ms, maxWait="
+        + maxWait
+        + "ms}";
+  }
+}
@@ -0,0 +1,233 @@
+package com.gree.hvac.client;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Paces the frames sent to one device with a token bucket and orders waiting frames by priority
+ *
+ * <p>The bucket holds up to {@code burst} tokens and refills at {@code rate} tokens per second;
+ * each frame takes one. It is kept as the time the next token is due, so the pacing is exact in
+ * whole nanoseconds. While tokens are available and nothing is waiting, a frame is sent inline on
+ * the caller's thread. Otherwise it waits in the queue of its {@link SendPriority} and is sent from
+ * the timer when the next token is due, commands before binds before polls. Only the newest waiting
+ * poll is kept, except that a full poll is never replaced by a partial one. A rate of 0 disables
+ * the limit and sends every frame inline.
+ */
+@Slf4j
+class OutboundQueue {
+
+  /** Transmits a frame to the device */
+  interface Sender {
+    void send(byte[] frame) throws Exception;
+  }
+
+  private final HvacTimer timer;
+  private final Sender sender;
+  private final Consumer<Exception> errorHandler;
+  private final LongSupplier nanoClock;
+  private final long nanosPerFrame;
+  private final long burstTolerance;
+
+  private final Map<SendPriority, ArrayDeque<Frame>> waiting = new EnumMap<>(SendPriority.class);
+  private long nextTokenAt;
+  private HvacTimer.Timeout drainTask;
+
+  private long sentFrames;
+  private long mergedPolls;
+  private long delayedFrames;
+  private long totalWaitNanos;
+  private long maxWaitNanos;
+
+  /**
+   * @param rate frames per second, 0 for no limit
+   * @param burst frames that may be sent back to back after an idle period
+   * @param errorHandler receives the failures of frames sent from the queue
+   */
+  OutboundQueue(
+      HvacTimer timer, Sender sender, Consumer<Exception> errorHandler, double rate, int burst) {
+    this(timer, sender, errorHandler, rate, burst, System::nanoTime);
+  }
+
+  OutboundQueue(
+      HvacTimer timer,
+      Sender sender,
+      Consumer<Exception> errorHandler,
+      double rate,
+      int burst,
+      LongSupplier nanoClock) {
+    if (rate < 0) {
+      throw new IllegalArgumentException("Send rate must not be negative");
+    }
+    if (rate > 0 && burst < 1) {
+      throw new IllegalArgumentException("A rate limited queue must allow a burst of one frame");
+    }
+    this.timer = timer;
+    this.sender = sender;
+    this.errorHandler = errorHandler;
+    this.nanoClock = nanoClock;
+    this.nanosPerFrame = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+    this.burstTolerance = rate > 0 ? (burst - 1) * nanosPerFrame : 0;
+    this.nextTokenAt = nanoClock.getAsLong();
+    for (SendPriority priority : SendPriority.values()) {
+      waiting.put(priority, new ArrayDeque<>());
+    }
+  }
+
+  /**
+   * Send a frame now if the rate limit allows and nothing is waiting, or queue it
+   *
+   * @throws Exception if an inline send fails
+   */
+  void send(SendPriority priority, byte[] frame) throws Exception {
+    enqueueOrSend(new Frame(priority, frame, false));
+  }
+
+  /**
+   * Send a status poll, replacing a poll that is still waiting
+   *
+   * @param full whether the poll requests every property
+   * @throws Exception if an inline send fails
+   */
+  void sendPoll(byte[] frame, boolean full) throws Exception {
+    enqueueOrSend(new Frame(SendPriority.POLL, frame, full));
+  }
+
+  private void enqueueOrSend(Frame frame) throws Exception {
+    synchronized (this) {
+      if (nanosPerFrame == 0 || (isEmpty() && takeToken())) {
+        sentFrames++;
+      } else {
+        enqueue(frame);
+        scheduleDrain();
+        return;
+      }
+    }
+    sender.send(frame.data);
+  }
+
+  private void enqueue(Frame frame) {
+    ArrayDeque<Frame> queue = waiting.get(frame.priority);
+    if (frame.priority == SendPriority.POLL && !queue.isEmpty()) {
+      mergedPolls++;
+      Frame stale = queue.peekFirst();
+      if (stale.full && !frame.full) {
+        return;
+      }
+      queue.clear();
+    }
+    queue.addLast(frame);
+  }
+
+  /** Send the waiting frames the bucket has tokens for, then wait for the next token */
+  private void drain() {
+    while (true) {
+      Frame frame;
+      synchronized (this) {
+        drainTask = null;
+        frame = peekNext();
+        if (frame == null) {
+          return;
+        }
+        if (!takeToken()) {
+          scheduleDrain();
+          return;
+        }
+        waiting.get(frame.priority).removeFirst();
+        long waited = nanoClock.getAsLong() - frame.queuedAt;
+        sentFrames++;
+        delayedFrames++;
+        totalWaitNanos += waited;
+        maxWaitNanos = Math.max(maxWaitNanos, waited);
+      }
+      try {
+        sender.send(frame.data);
+      } catch (Exception e) {
+        log.warn("Could not send queued {} frame: {}", frame.priority, e.getMessage());
+        errorHandler.accept(e);
+      }
+    }
+  }
+
+  private void scheduleDrain() {
+    if (drainTask != null) {
+      return;
+    }
+    long delayNanos = nextTokenAt - burstTolerance - nanoClock.getAsLong();
+    long delay = Math.max(1, TimeUnit.NANOSECONDS.toMillis(delayNanos + 999_999));
+    try {
+      drainTask = timer.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      log.debug("Timer rejected the outbound queue, dropping {} frames", getQueuedCount());
+      clear();
+    }
+  }
+
+  /** Take a token if one is available, the burst allows running up to its tolerance ahead */
+  private boolean takeToken() {
+    long now = nanoClock.getAsLong();
+    if (now < nextTokenAt - burstTolerance) {
+      return false;
+    }
+    nextTokenAt = Math.max(nextTokenAt, now) + nanosPerFrame;
+    return true;
+  }
+
+  private Frame peekNext() {
+    for (ArrayDeque<Frame> queue : waiting.values()) {
+      if (!queue.isEmpty()) {
+        return queue.peekFirst();
+      }
+    }
+    return null;
+  }
+
+  private boolean isEmpty() {
+    return peekNext() == null;
+  }
+
+  /** Drop every waiting frame, they are stale once the connection is reset */
+  synchronized void clear() {
+    waiting.values().forEach(ArrayDeque::clear);
+    if (drainTask != null) {
+      drainTask.cancel();
+      drainTask = null;
+    }
+  }
+
+  synchronized int getQueuedCount() {
+    int count = 0;
+    for (ArrayDeque<Frame> queue : waiting.values()) {
+      count += queue.size();
+    }
+    return count;
+  }
+
+  synchronized OutboundMetrics getMetrics() {
+    return new OutboundMetrics(
+        sentFrames,
+        mergedPolls,
+        getQueuedCount(),
+        delayedFrames == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / delayedFrames),
+        TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+  }
+
+  private final class Frame {
+    final SendPriority priority;
+    final byte[] data;
+    final boolean full;
+    final long queuedAt = nanoClock.getAsLong();
+
+    Frame(SendPriority priority, byte[] data, boolean full) {
+      this.priority = priority;
+      this.data = data;
+      this.full = full;
+    }
+  }
+}
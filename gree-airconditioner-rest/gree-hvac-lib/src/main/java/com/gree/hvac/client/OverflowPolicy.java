@@ -0,0 +1,9 @@
+package com.gree.hvac.client;
+
+/** What a listener queue does with a new event when it is full */
+public enum OverflowPolicy {
+  /** Discard the oldest queued event to make room for the new one */
+  DROP_OLDEST,
+  /** Discard every queued event and keep only the new one */
+  CONFLATE_LATEST
+}
@@ -0,0 +1,152 @@
+package com.gree.hvac.client;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Spreads the status polls of a fleet of clients across the polling interval
+ *
+ * <p>Clients started at the same time would otherwise poll in the same instant every interval. Each
+ * client gets a phase, a fraction of the interval, and polls on a grid shifted by that fraction of
+ * its own interval. Phases follow the base-2 van der Corput sequence (0, 1/2, 1/4, 3/4, 1/8, ...),
+ * so no two clients share a phase and the largest gap stays within twice the even spacing however
+ * many clients join; phases of released clients are reused first.
+ *
+ * <p>The burst width is the largest number of polls the fleet sent within one burst window over the
+ * recent history, the number to watch as the fleet grows. Poll times go into a fixed ring of the
+ * most recent polls without locking, so recording stays cheap on the polling path.
+ */
+public class PollPhaseAllocator {
+
+  /** Polls closer together than this count as one burst (ms) */
+  public static final long DEFAULT_BURST_WINDOW = 50;
+
+  private static final long HISTORY = 60_000;
+  private static final int MAX_HISTORY_POLLS = 10_000;
+  private static final long NO_POLL = Long.MIN_VALUE;
+  private static final PollPhaseAllocator SHARED = new PollPhaseAllocator();
+
+  private final long burstWindow;
+  private final BitSet slots = new BitSet();
+  private final AtomicLongArray pollTimes = new AtomicLongArray(MAX_HISTORY_POLLS);
+  private final AtomicLong pollCount = new AtomicLong();
+
+  public PollPhaseAllocator() {
+    this(DEFAULT_BURST_WINDOW);
+  }
+
+  /**
+   * @param burstWindow polls closer together than this count as one burst (ms)
+   */
+  public PollPhaseAllocator(long burstWindow) {
+    if (burstWindow <= 0) {
+      throw new IllegalArgumentException("burstWindow must be positive");
+    }
+    this.burstWindow = burstWindow;
+    for (int i = 0; i < MAX_HISTORY_POLLS; i++) {
+      pollTimes.set(i, NO_POLL);
+    }
+  }
+
+  /** Allocator used by every client that is not given its own */
+  public static PollPhaseAllocator shared() {
+    return SHARED;
+  }
+
+  /** Take the free phase closest to the start of the sequence */
+  synchronized Phase allocate() {
+    int slot = slots.nextClearBit(0);
+    slots.set(slot);
+    return new Phase(slot);
+  }
+
+  private synchronized void release(int slot) {
+    slots.clear(slot);
+  }
+
+  private void recordPoll(long now) {
+    int index = (int) (pollCount.getAndIncrement() % MAX_HISTORY_POLLS);
+    pollTimes.set(index, now);
+  }
+
+  /** Number of clients currently holding a phase */
+  public synchronized int getClientCount() {
+    return slots.cardinality();
+  }
+
+  public long getBurstWindow() {
+    return burstWindow;
+  }
+
+  /** Largest number of polls sent within one burst window during the last minute */
+  public int getBurstWidth() {
+    long[] times = new long[MAX_HISTORY_POLLS];
+    long newest = NO_POLL;
+    for (int i = 0; i < times.length; i++) {
+      times[i] = pollTimes.get(i);
+      newest = Math.max(newest, times[i]);
+    }
+    int count = 0;
+    for (long time : times) {
+      if (time != NO_POLL && time >= newest - HISTORY) {
+        times[count++] = time;
+      }
+    }
+    // Clients record from different threads, so the ring is only roughly in order
+    Arrays.sort(times, 0, count);
+    int width = 0;
+    int start = 0;
+    for (int end = 0; end < count; end++) {
+      while (times[end] - times[start] >= burstWindow) {
+        start++;
+      }
+      width = Math.max(width, end - start + 1);
+    }
+    return width;
+  }
+
+  /** Base-2 van der Corput value of a slot, the bits of the slot mirrored behind the point */
+  static double fraction(int slot) {
+    return (Integer.reverse(slot) & 0xFFFFFFFFL) / 4294967296.0;
+  }
+
+  /** Poll phase held by one client until it is released */
+  final class Phase {
+    private final int slot;
+    private final double fraction;
+    private boolean released = false;
+
+    private Phase(int slot) {
+      this.slot = slot;
+      this.fraction = fraction(slot);
+    }
+
+    double getFraction() {
+      return fraction;
+    }
+
+    /**
+     * Delay until this phase's next poll on the grid of the interval
+     *
+     * @return between 1 and interval ms
+     */
+    long delayToNext(long now, long interval) {
+      long offset = (long) (fraction * interval);
+      return interval - Math.floorMod(now - offset, interval);
+    }
+
+    void recordPoll(long now) {
+      PollPhaseAllocator.this.recordPoll(now);
+    }
+
+    /** Give the phase back to the allocator, only the first call has an effect */
+    synchronized void release() {
+      if (!released) {
+        released = true;
+        PollPhaseAllocator.this.release(slot);
+      }
+    }
+  }
+}
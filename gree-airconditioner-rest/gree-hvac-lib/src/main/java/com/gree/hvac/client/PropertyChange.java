@@ -0,0 +1,83 @@
+package com.gree.hvac.client;
+
+import com.gree.hvac.protocol.Property;
+import java.util.Objects;
+
+/**
+ * Change of a single device property reported by {@link HvacClient}
+ *
+ * <p>Values are human friendly, as returned by {@link HvacClient#getCurrentProperties()}. The
+ * version increases with every change of the device state, so events can be ordered and stale ones
+ * discarded.
+ */
+public final class PropertyChange {
+
+  private final String deviceId;
+  private final Property property;
+  private final Object oldValue;
+  private final Object newValue;
+  private final long version;
+
+  public PropertyChange(
+      String deviceId, Property property, Object oldValue, Object newValue, long version) {
+    this.deviceId = deviceId;
+    this.property = property;
+    this.oldValue = oldValue;
+    this.newValue = newValue;
+    this.version = version;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public Property getProperty() {
+    return property;
+  }
+
+  /** Previous value, null if the device had not reported the property before */
+  public Object getOldValue() {
+    return oldValue;
+  }
+
+  public Object getNewValue() {
+    return newValue;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof PropertyChange other)) {
+      return false;
+    }
+    return version == other.version
+        && property == other.property
+        && Objects.equals(deviceId, other.deviceId)
+        && Objects.equals(oldValue, other.oldValue)
+        && Objects.equals(newValue, other.newValue);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(deviceId, property, oldValue, newValue, version);
+  }
+
+  @Override
+  public String toString() {
+    return "PropertyChange{"
+        + property.getValue()
+        + ": "
+        + oldValue
+        + " -> "
+        + newValue
+        + ", version="
+        + version
+        + "}";
+  }
+}
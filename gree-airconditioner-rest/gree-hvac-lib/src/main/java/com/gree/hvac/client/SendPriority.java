@@ -0,0 +1,11 @@
+package com.gree.hvac.client;
+
+/** Order in which frames waiting for the outbound rate limit are sent, highest first */
+enum SendPriority {
+  /** Property changes requested by the user */
+  COMMAND,
+  /** Scan, bind and the status request proving a stored key */
+  BIND,
+  /** Periodic status polls; a newer poll replaces one still waiting */
+  POLL
+}
@@ -0,0 +1,75 @@
+package com.gree.hvac.client;
+
+import com.gree.hvac.protocol.EncryptionService;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Caches the packed, encrypted status poll frame of a client
+ *
+ * <p>ECB is deterministic and GCM uses a fixed nonce, so the frame only depends on the device MAC,
+ * the active cipher and key, and the requested columns. It is rebuilt whenever one of them differs
+ * from the cached frame, e.g. after {@code bindok} delivers the device key or a reconnect starts
+ * over with the generic key.
+ */
+class StatusFrameCache {
+
+  private volatile Entry entry;
+
+  /**
+   * Get the packed status request for the given device and columns, building it on first use. The
+   * returned array is shared between calls and must not be modified.
+   */
+  byte[] get(String mac, List<String> columns, EncryptionService encryptionService)
+      throws Exception {
+    Entry current = entry;
+    if (current != null
+        && current.matches(
+            mac, encryptionService.getCipher(), encryptionService.getKey(), columns)) {
+      return current.frame;
+    }
+
+    JSONObject statusMessage = new JSONObject();
+    statusMessage.put("cols", new JSONArray(columns));
+    statusMessage.put("mac", mac);
+    statusMessage.put("t", "status");
+
+    // Key the entry by what was actually used, in case the key changed concurrently
+    EncryptionService.EncryptedMessage encrypted = encryptionService.encrypt(statusMessage);
+    byte[] frame =
+        HvacClient.packedMessage(encrypted, 0).toString().getBytes(StandardCharsets.UTF_8);
+    entry = new Entry(mac, encrypted.getCipher(), encrypted.getKey(), List.copyOf(columns), frame);
+    return frame;
+  }
+
+  /** Drop the cached frame */
+  void invalidate() {
+    entry = null;
+  }
+
+  private static final class Entry {
+    private final String mac;
+    private final String cipher;
+    private final String key;
+    private final List<String> columns;
+    private final byte[] frame;
+
+    Entry(String mac, String cipher, String key, List<String> columns, byte[] frame) {
+      this.mac = mac;
+      this.cipher = cipher;
+      this.key = key;
+      this.columns = columns;
+      this.frame = frame;
+    }
+
+    boolean matches(String mac, String cipher, String key, List<String> columns) {
+      return Objects.equals(this.mac, mac)
+          && this.cipher.equals(cipher)
+          && this.key.equals(key)
+          && (this.columns == columns || this.columns.equals(columns));
+    }
+  }
+}
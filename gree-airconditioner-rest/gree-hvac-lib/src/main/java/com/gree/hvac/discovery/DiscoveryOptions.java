@@ -0,0 +1,56 @@
+package com.gree.hvac.discovery;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Device discovery configuration options
+ *
+ * <p>Discovery listens for replies until the timeout, unless it can stop earlier: as soon as every
+ * expected device answered, or once no new device answered for the quiet period. Both early exits
+ * are off by default, so discovery waits the full timeout.
+ */
+public class DiscoveryOptions {
+  private int timeout = 3000;
+  private int quietPeriod = 0;
+  private Set<String> expectedDevices = Set.of();
+
+  public int getTimeout() {
+    return timeout;
+  }
+
+  /** Hard deadline for collecting replies after the scan is sent (ms) */
+  public DiscoveryOptions setTimeout(int timeout) {
+    this.timeout = timeout;
+    return this;
+  }
+
+  public int getQuietPeriod() {
+    return quietPeriod;
+  }
+
+  /**
+   * Stop once no new device answered for this long (ms), counted from the scan until the first
+   * device answers; 0 to wait for the timeout
+   */
+  public DiscoveryOptions setQuietPeriod(int quietPeriod) {
+    this.quietPeriod = quietPeriod;
+    return this;
+  }
+
+  public Set<String> getExpectedDevices() {
+    return expectedDevices;
+  }
+
+  /** MAC addresses of the devices to wait for, discovery stops as soon as all of them answered */
+  public DiscoveryOptions setExpectedDevices(Collection<String> macAddresses) {
+    this.expectedDevices =
+        macAddresses.stream()
+            .filter(mac -> mac != null && !mac.isEmpty())
+            .map(mac -> mac.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+    return this;
+  }
+}
@@ -13,7 +13,6 @@ import org.json.JSONObject;
 public class HvacDiscovery {
 
   private static final int DISCOVERY_PORT = 7000;
-  private static final int DISCOVERY_TIMEOUT = 3000;
   private static final String DISCOVERY_COMMAND = "{\"t\":\"scan\"}";
 
   private final NetworkService networkService;
@@ -42,13 +41,18 @@ public class HvacDiscovery {
 
   /** Discover GREE HVAC devices on all network interfaces */
   public CompletableFuture<List<DeviceInfo>> discoverDevices() {
+    return discoverDevices(new DiscoveryOptions());
+  }
+
+  /** Discover GREE HVAC devices on all network interfaces, stopping early as the options allow */
+  public CompletableFuture<List<DeviceInfo>> discoverDevices(DiscoveryOptions options) {
     return CompletableFuture.supplyAsync(
         () -> {
           log.info("Starting HVAC device discovery");
           List<DeviceInfo> devices = new ArrayList<>();
 
           try {
-            devices.addAll(findDevicesOnAllNetworkInterfaces());
+            devices.addAll(findDevicesOnAllNetworkInterfaces(options));
           } catch (Exception e) {
             log.error("Error during device discovery", e);
           }
@@ -60,6 +64,14 @@ public class HvacDiscovery {
 
   /** Discover GREE HVAC devices on a specific broadcast address */
   public CompletableFuture<List<DeviceInfo>> discoverDevices(String broadcastAddress) {
+    return discoverDevices(broadcastAddress, new DiscoveryOptions());
+  }
+
+  /**
+   * Discover GREE HVAC devices on a specific broadcast address, stopping early as the options allow
+   */
+  public CompletableFuture<List<DeviceInfo>> discoverDevices(
+      String broadcastAddress, DiscoveryOptions options) {
     return CompletableFuture.supplyAsync(
         () -> {
           log.info("Starting HVAC device discovery on {}", broadcastAddress);
@@ -67,7 +79,7 @@ public class HvacDiscovery {
 
           try {
             InetAddress broadcast = networkService.getByName(broadcastAddress);
-            devices.addAll(findDevicesOnBroadcastAddress(broadcast));
+            devices.addAll(findDevicesOnBroadcastAddresses(List.of(broadcast), options));
           } catch (Exception e) {
             log.error("Error during device discovery on {}", broadcastAddress, e);
           }
@@ -80,8 +92,8 @@ public class HvacDiscovery {
         });
   }
 
-  private List<DeviceInfo> findDevicesOnAllNetworkInterfaces() {
-    List<DeviceInfo> allDevices = new ArrayList<>();
+  private List<DeviceInfo> findDevicesOnAllNetworkInterfaces(DiscoveryOptions options) {
+    List<InetAddress> broadcastAddresses = new ArrayList<>();
 
     try {
       Enumeration<NetworkInterface> interfaces = networkService.getNetworkInterfaces();
@@ -91,12 +103,12 @@ public class HvacDiscovery {
         if (!networkInterface.isLoopback() && networkInterface.isUp()) {
           for (InterfaceAddress interfaceAddress : networkInterface.getInterfaceAddresses()) {
             InetAddress broadcast = interfaceAddress.getBroadcast();
-            if (broadcast != null) {
+            if (broadcast != null && !broadcastAddresses.contains(broadcast)) {
               log.debug(
                   "Scanning network interface: {} with broadcast: {}",
                   networkInterface.getName(),
                   broadcast.getHostAddress());
-              allDevices.addAll(findDevicesOnBroadcastAddress(broadcast));
+              broadcastAddresses.add(broadcast);
             }
           }
         }
@@ -105,27 +117,66 @@ public class HvacDiscovery {
       log.error("Error enumerating network interfaces", e);
     }
 
-    return allDevices;
+    return broadcastAddresses.isEmpty()
+        ? new ArrayList<>()
+        : findDevicesOnBroadcastAddresses(broadcastAddresses, options);
   }
 
-  private List<DeviceInfo> findDevicesOnBroadcastAddress(InetAddress broadcastAddress) {
-    List<DeviceInfo> devices = new ArrayList<>();
+  /**
+   * Scan all broadcast addresses at once: the scan command is sent to each of them from one socket
+   * and the replies of every network are collected in a single receive window, so discovery takes
+   * one timeout however many interfaces the host has. A device answering on several networks, or
+   * more than once, is reported once per MAC address. Each receive waits only until the earliest of
+   * the timeout and the end of the quiet period, so early exits take effect without polling.
+   */
+  private List<DeviceInfo> findDevicesOnBroadcastAddresses(
+      List<InetAddress> broadcastAddresses, DiscoveryOptions options) {
+    Map<String, DeviceInfo> devices = new LinkedHashMap<>();
 
     try (DatagramSocket socket = socketService.createSocket()) {
       socket.setBroadcast(true);
-      socket.setSoTimeout(DISCOVERY_TIMEOUT);
 
       // Send scan command
       byte[] scanData = DISCOVERY_COMMAND.getBytes(StandardCharsets.UTF_8);
 
-      log.debug("Sending scan command to: {}", broadcastAddress.getHostAddress());
-      socketService.sendPacket(socket, scanData, broadcastAddress, DISCOVERY_PORT);
+      int sent = 0;
+      for (InetAddress broadcastAddress : broadcastAddresses) {
+        try {
+          log.debug("Sending scan command to: {}", broadcastAddress.getHostAddress());
+          socketService.sendPacket(socket, scanData, broadcastAddress, DISCOVERY_PORT);
+          sent++;
+        } catch (Exception e) {
+          log.error(
+              "Error during device discovery on broadcast {}: {}",
+              broadcastAddress.getHostAddress(),
+              e.getMessage());
+        }
+      }
+      if (sent == 0) {
+        return new ArrayList<>();
+      }
 
-      long endTime = timeService.getCurrentTimeMillis() + DISCOVERY_TIMEOUT;
+      long lastNewDevice = timeService.getCurrentTimeMillis();
+      long endTime = lastNewDevice + options.getTimeout();
+      boolean foundNewDevice = false;
       byte[] receiveData = new byte[1024];
 
-      while (timeService.getCurrentTimeMillis() < endTime) {
+      while (true) {
+        long now = timeService.getCurrentTimeMillis();
+        if (foundNewDevice) {
+          lastNewDevice = now;
+          foundNewDevice = false;
+        }
+        long wait = endTime - now;
+        if (options.getQuietPeriod() > 0) {
+          wait = Math.min(wait, lastNewDevice + options.getQuietPeriod() - now);
+        }
+        if (wait <= 0) {
+          break;
+        }
+
         try {
+          socket.setSoTimeout((int) Math.min(wait, Integer.MAX_VALUE));
           DatagramPacket receivePacket = socketService.receivePacket(socket, receiveData);
 
           String response =
@@ -137,9 +188,14 @@ public class HvacDiscovery {
               response);
 
           DeviceInfo device = parseDeviceResponse(response, receivePacket.getAddress());
-          if (device != null) {
-            devices.add(device);
+          if (device != null && devices.putIfAbsent(deviceKey(device), device) == null) {
             log.info("Discovered device: {} at {}", device.getName(), device.getIpAddress());
+            foundNewDevice = true;
+            if (!options.getExpectedDevices().isEmpty()
+                && devices.keySet().containsAll(options.getExpectedDevices())) {
+              log.debug("All {} expected devices answered", options.getExpectedDevices().size());
+              break;
+            }
           }
 
         } catch (SocketTimeoutException e) {
@@ -150,16 +206,20 @@ public class HvacDiscovery {
       }
 
     } catch (Exception e) {
-      log.error(
-          "Error during device discovery on broadcast {}: {}",
-          broadcastAddress.getHostAddress(),
-          e.getMessage());
+      log.error("Error during device discovery: {}", e.getMessage());
     }
 
-    return devices;
+    return new ArrayList<>(devices.values());
+  }
+
+  /** Identify a device by its MAC address, or by its address if the reply carried no MAC */
+  private static String deviceKey(DeviceInfo device) {
+    String mac = device.getMacAddress();
+    return mac == null || mac.isEmpty() ? device.getIpAddress() : mac.toLowerCase(Locale.ROOT);
   }
 
-  private DeviceInfo parseDeviceResponse(String response, InetAddress sourceAddress) {
+  /** Parse a scan reply into device information, or null if it is not a device announcement */
+  DeviceInfo parseDeviceResponse(String response, InetAddress sourceAddress) {
     try {
       // Parse JSON response
       JSONObject json = new JSONObject(response);
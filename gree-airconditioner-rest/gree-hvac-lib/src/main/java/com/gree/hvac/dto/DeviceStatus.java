@@ -47,4 +47,10 @@ public class DeviceStatus {
 
   /** Sleep mode state */
   private Boolean sleep;
+
+  /** Time of the last status report from the device in epoch milliseconds, null before the first */
+  private Long lastUpdated;
+
+  /** Whether the last status request went unanswered; the values are the last ones reported */
+  private boolean stale;
 }
@@ -0,0 +1,83 @@
+package com.gree.hvac.network;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IoExecutor backed by a fixed number of daemon platform threads and a bounded task queue.
+ *
+ * <p>Every listening socket of a {@link NetworkServiceImpl} occupies one thread for as long as it
+ * is open, so the pool size caps the number of concurrently listening sockets. It is best suited to
+ * the {@link MultiplexedNetworkService}, which needs a single thread for the whole fleet.
+ */
+public class BoundedIoExecutor implements IoExecutor {
+
+  private final ThreadPoolExecutor delegate;
+  private final AtomicInteger peakThreads = new AtomicInteger();
+  private final AtomicLong submittedTasks = new AtomicLong();
+  private final AtomicLong rejectedTasks = new AtomicLong();
+
+  /**
+   * @param threads maximum number of platform threads
+   * @param queueCapacity maximum number of tasks waiting for a thread
+   */
+  public BoundedIoExecutor(int threads, int queueCapacity) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Thread count must be at least 1");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be at least 1");
+    }
+    this.delegate =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            daemonThreadFactory());
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    submittedTasks.incrementAndGet();
+    try {
+      delegate.execute(task);
+    } catch (RejectedExecutionException e) {
+      rejectedTasks.incrementAndGet();
+      throw e;
+    }
+    peakThreads.accumulateAndGet(delegate.getActiveCount(), Math::max);
+  }
+
+  @Override
+  public IoExecutorMetrics getMetrics() {
+    int active = delegate.getActiveCount();
+    return new IoExecutorMetrics(
+        active,
+        Math.max(peakThreads.get(), active),
+        delegate.getQueue().size(),
+        submittedTasks.get(),
+        delegate.getCompletedTaskCount(),
+        rejectedTasks.get());
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdownNow();
+  }
+
+  private static ThreadFactory daemonThreadFactory() {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, "gree-io-" + counter.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
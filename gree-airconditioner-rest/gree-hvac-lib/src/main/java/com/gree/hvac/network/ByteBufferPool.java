@@ -0,0 +1,63 @@
+package com.gree.hvac.network;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Bounded pool of equally sized receive buffers */
+public class ByteBufferPool {
+
+  private final int bufferSize;
+  private final boolean direct;
+  private final BlockingQueue<ByteBuffer> pooled;
+  private final AtomicLong allocated = new AtomicLong();
+
+  /**
+   * @param bufferSize capacity of every buffer handed out
+   * @param maxPooled maximum number of idle buffers kept for reuse
+   * @param direct whether to allocate direct buffers
+   */
+  public ByteBufferPool(int bufferSize, int maxPooled, boolean direct) {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("Buffer size must be at least 1");
+    }
+    if (maxPooled < 1) {
+      throw new IllegalArgumentException("Pool size must be at least 1");
+    }
+    this.bufferSize = bufferSize;
+    this.direct = direct;
+    this.pooled = new ArrayBlockingQueue<>(maxPooled);
+  }
+
+  /** Take an idle buffer from the pool, or allocate one if the pool is empty */
+  public ByteBuffer acquire() {
+    ByteBuffer buffer = pooled.poll();
+    if (buffer != null) {
+      return buffer.clear();
+    }
+    allocated.incrementAndGet();
+    return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+  }
+
+  /** Return a buffer obtained from {@link #acquire()}; it is dropped if the pool is full */
+  public void release(ByteBuffer buffer) {
+    if (buffer != null && buffer.capacity() == bufferSize && buffer.isDirect() == direct) {
+      pooled.offer(buffer.clear());
+    }
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /** Number of idle buffers available for reuse */
+  public int getPooledCount() {
+    return pooled.size();
+  }
+
+  /** Total number of buffers allocated since creation */
+  public long getAllocatedCount() {
+    return allocated.get();
+  }
+}
@@ -0,0 +1,98 @@
+package com.gree.hvac.network;
+
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches {@link NetworkService#resolveAddress(String)} results so the send path does not touch name
+ * resolution on every packet.
+ *
+ * <p>Successful lookups are kept for {@code ttlMillis}, failures for {@code negativeTtlMillis} so
+ * an unreachable resolver is not retried on every poll. {@link #invalidate(String)} drops an entry
+ * explicitly, e.g. when a client reconnects. Instances are thread-safe and may be shared.
+ */
+@Slf4j
+public class CachingAddressResolver {
+
+  private final NetworkService networkService;
+  private final long ttlNanos;
+  private final long negativeTtlNanos;
+  private final LongSupplier clock;
+  private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+  public CachingAddressResolver(
+      NetworkService networkService, long ttlMillis, long negativeTtlMillis) {
+    this(networkService, ttlMillis, negativeTtlMillis, System::nanoTime);
+  }
+
+  CachingAddressResolver(
+      NetworkService networkService, long ttlMillis, long negativeTtlMillis, LongSupplier clock) {
+    this.networkService = networkService;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+    this.clock = clock;
+  }
+
+  /**
+   * Resolve hostname, serving a cached result while it is fresh
+   *
+   * @param hostname The hostname to resolve
+   * @return The resolved address
+   * @throws Exception the resolution failure, possibly a cached one
+   */
+  public InetAddress resolve(String hostname) throws Exception {
+    long now = clock.getAsLong();
+    Entry entry = cache.get(hostname);
+    if (entry == null || now - entry.expiresAt >= 0) {
+      entry = lookup(hostname, now);
+    }
+
+    if (entry.failure != null) {
+      throw entry.failure;
+    }
+    return entry.address;
+  }
+
+  /** Drop the cached entry for hostname so the next resolve performs a fresh lookup */
+  public void invalidate(String hostname) {
+    if (hostname != null) {
+      cache.remove(hostname);
+    }
+  }
+
+  /** Drop all cached entries */
+  public void invalidateAll() {
+    cache.clear();
+  }
+
+  private Entry lookup(String hostname, long now) {
+    Entry entry;
+    try {
+      InetAddress address = networkService.resolveAddress(hostname);
+      entry = new Entry(address, null, now + ttlNanos);
+    } catch (Exception e) {
+      log.debug("Failed to resolve {}: {}", hostname, e.getMessage());
+      entry = new Entry(null, e, now + negativeTtlNanos);
+    }
+    if (hostname != null) {
+      cache.put(hostname, entry);
+    }
+    return entry;
+  }
+
+  private static final class Entry {
+    private final InetAddress address;
+    private final Exception failure;
+    private final long expiresAt;
+
+    private Entry(InetAddress address, Exception failure, long expiresAt) {
+      this.address = address;
+      this.failure = failure;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.gree.hvac.network;
+
+import java.nio.ByteBuffer;
+
+/** Zero-copy handler for inbound datagrams */
+@FunctionalInterface
+public interface FrameHandler {
+
+  /**
+   * Handle one received datagram.
+   *
+   * <p>The frame is a read-only view of a pooled buffer positioned at the first payload byte. It is
+   * recycled as soon as this method returns, so implementations must copy anything they need to
+   * keep.
+   *
+   * @param frame the received payload
+   */
+  void onFrame(ByteBuffer frame);
+}
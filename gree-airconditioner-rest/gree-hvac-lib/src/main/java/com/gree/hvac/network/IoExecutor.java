@@ -0,0 +1,22 @@
+package com.gree.hvac.network;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor for blocking network I/O such as receive loops.
+ *
+ * <p>Receive loops park a thread for the lifetime of a socket, so they must not run on the ForkJoin
+ * common pool where they would starve unrelated asynchronous work.
+ */
+public interface IoExecutor extends Executor {
+
+  /**
+   * Snapshot of thread and queue metrics for this executor
+   *
+   * @return current metrics
+   */
+  IoExecutorMetrics getMetrics();
+
+  /** Stop accepting new tasks and interrupt running ones */
+  void shutdown();
+}
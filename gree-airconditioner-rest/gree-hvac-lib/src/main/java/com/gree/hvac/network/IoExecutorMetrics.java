@@ -0,0 +1,71 @@
+package com.gree.hvac.network;
+
+/** Point-in-time thread and queue metrics of an {@link IoExecutor} */
+public class IoExecutorMetrics {
+  private final int activeThreads;
+  private final int peakThreads;
+  private final int queuedTasks;
+  private final long submittedTasks;
+  private final long completedTasks;
+  private final long rejectedTasks;
+
+  public IoExecutorMetrics(
+      int activeThreads,
+      int peakThreads,
+      int queuedTasks,
+      long submittedTasks,
+      long completedTasks,
+      long rejectedTasks) {
+    this.activeThreads = activeThreads;
+    this.peakThreads = peakThreads;
+    this.queuedTasks = queuedTasks;
+    this.submittedTasks = submittedTasks;
+    this.completedTasks = completedTasks;
+    this.rejectedTasks = rejectedTasks;
+  }
+
+  /** Threads currently running a task */
+  public int getActiveThreads() {
+    return activeThreads;
+  }
+
+  /** Highest number of concurrently running tasks observed */
+  public int getPeakThreads() {
+    return peakThreads;
+  }
+
+  /** Tasks waiting for a free thread */
+  public int getQueuedTasks() {
+    return queuedTasks;
+  }
+
+  public long getSubmittedTasks() {
+    return submittedTasks;
+  }
+
+  public long getCompletedTasks() {
+    return completedTasks;
+  }
+
+  /** Tasks refused because the executor was saturated or shut down */
+  public long getRejectedTasks() {
+    return rejectedTasks;
+  }
+
+  @Override
+  public String toString() {
+    return "IoExecutorMetrics{active="
+        + activeThreads
+        + ", peak="
+        + peakThreads
+        + ", queued="
+        + queuedTasks
+        + ", submitted="
+        + submittedTasks
+        + ", completed="
+        + completedTasks
+        + ", rejected="
+        + rejectedTasks
+        + "}";
+  }
+}
@@ -0,0 +1,299 @@
+package com.gree.hvac.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fleet-level NetworkService that shares a small number of NIO DatagramChannels between all
+ * clients.
+ *
+ * <p>Sockets returned by {@link #createSocket(int)} are lightweight endpoints rather than real
+ * sockets. An endpoint is routed by the remote address it last sent to, and a single selector loop
+ * demultiplexes inbound datagrams to the matching endpoint handler by source address. The
+ * per-device cost is therefore one map entry instead of one socket and one parked thread.
+ */
+@Slf4j
+public class MultiplexedNetworkService implements NetworkService, AutoCloseable {
+
+  private final int channelCount;
+  private final IoExecutor ioExecutor;
+  private final ByteBufferPool bufferPool = new ByteBufferPool(MAX_DATAGRAM_SIZE, 1, true);
+  private final List<DatagramChannel> channels = new ArrayList<>();
+  private final Map<InetAddress, MultiplexedSocket> routes = new ConcurrentHashMap<>();
+  private final AtomicInteger nextChannel = new AtomicInteger();
+  private final Object lifecycleLock = new Object();
+
+  private Selector selector;
+  private volatile boolean closed = false;
+
+  /** Create a multiplexed service backed by a single shared channel */
+  public MultiplexedNetworkService() {
+    this(1);
+  }
+
+  /** Create a multiplexed service backed by the given number of shared channels */
+  public MultiplexedNetworkService(int channelCount) {
+    this(channelCount, VirtualThreadIoExecutor.shared());
+  }
+
+  /**
+   * Create a multiplexed service backed by the given number of shared channels, running its
+   * selector loop on the given executor
+   */
+  public MultiplexedNetworkService(int channelCount, IoExecutor ioExecutor) {
+    if (channelCount < 1) {
+      throw new IllegalArgumentException("Channel count must be at least 1");
+    }
+    this.channelCount = channelCount;
+    this.ioExecutor = ioExecutor;
+  }
+
+  /**
+   * Create a virtual socket on one of the shared channels. The local port is owned by the shared
+   * channels, so only port 0 is supported.
+   */
+  @Override
+  public NetworkSocket createSocket(int port) throws Exception {
+    if (port != 0) {
+      throw new IllegalArgumentException(
+          "Multiplexed sockets share their local port, requested port must be 0");
+    }
+    ensureStarted();
+    int index = Math.floorMod(nextChannel.getAndIncrement(), channelCount);
+    return new MultiplexedSocket(this, channels.get(index));
+  }
+
+  @Override
+  public InetAddress resolveAddress(String hostname) throws Exception {
+    return InetAddress.getByName(hostname);
+  }
+
+  @Override
+  public CompletableFuture<Void> startListening(
+      NetworkSocket socket, Consumer<byte[]> messageHandler) {
+    return startFrameListening(
+        socket,
+        frame -> {
+          byte[] data = new byte[frame.remaining()];
+          frame.get(data);
+          messageHandler.accept(data);
+        });
+  }
+
+  @Override
+  public CompletableFuture<Void> startFrameListening(
+      NetworkSocket socket, FrameHandler frameHandler) {
+    ((MultiplexedSocket) socket).handler = frameHandler;
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public void sendData(NetworkSocket socket, byte[] data, InetAddress address, int port)
+      throws Exception {
+    MultiplexedSocket endpoint = (MultiplexedSocket) socket;
+    if (endpoint.isClosed()) {
+      throw new IOException("Socket is closed");
+    }
+    route(endpoint, address);
+
+    int sent = endpoint.channel.send(ByteBuffer.wrap(data), new InetSocketAddress(address, port));
+    if (sent == 0) {
+      log.warn("Send buffer full, datagram to {}:{} dropped", address.getHostAddress(), port);
+    }
+  }
+
+  @Override
+  public boolean isClosed(NetworkSocket socket) {
+    return socket.isClosed();
+  }
+
+  @Override
+  public void closeSocket(NetworkSocket socket) {
+    socket.close();
+  }
+
+  @Override
+  public IoExecutor getIoExecutor() {
+    return ioExecutor;
+  }
+
+  /** Number of endpoints currently routed by remote address */
+  public int getRouteCount() {
+    return routes.size();
+  }
+
+  /** Close all shared channels and stop the selector loop */
+  @Override
+  public void close() {
+    synchronized (lifecycleLock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      routes.clear();
+      if (selector != null) {
+        try {
+          selector.close();
+        } catch (IOException e) {
+          log.debug("Error closing selector: {}", e.getMessage());
+        }
+      }
+      for (DatagramChannel channel : channels) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          log.debug("Error closing channel: {}", e.getMessage());
+        }
+      }
+      channels.clear();
+    }
+  }
+
+  private void ensureStarted() throws IOException {
+    synchronized (lifecycleLock) {
+      if (closed) {
+        throw new IOException("Multiplexed network service is closed");
+      }
+      if (selector != null) {
+        return;
+      }
+
+      selector = Selector.open();
+      for (int i = 0; i < channelCount; i++) {
+        DatagramChannel channel = DatagramChannel.open();
+        channel.setOption(StandardSocketOptions.SO_BROADCAST, true);
+        channel.bind(null);
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ);
+        channels.add(channel);
+      }
+
+      ioExecutor.execute(this::selectLoop);
+      log.info("Started multiplexed UDP transport with {} channel(s)", channelCount);
+    }
+  }
+
+  private void route(MultiplexedSocket endpoint, InetAddress address) {
+    if (address.equals(endpoint.remote)) {
+      return;
+    }
+    if (endpoint.remote != null) {
+      routes.remove(endpoint.remote, endpoint);
+    }
+    endpoint.remote = address;
+    MultiplexedSocket previous = routes.put(address, endpoint);
+    if (previous != null && previous != endpoint) {
+      log.warn("Endpoint for {} replaced by a newer socket", address.getHostAddress());
+    }
+  }
+
+  private void unroute(MultiplexedSocket endpoint) {
+    if (endpoint.remote != null) {
+      routes.remove(endpoint.remote, endpoint);
+    }
+  }
+
+  private void selectLoop() {
+    ByteBuffer buffer = bufferPool.acquire();
+    ByteBuffer frame = buffer.asReadOnlyBuffer();
+
+    while (!closed) {
+      try {
+        selector.select();
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (key.isValid() && key.isReadable()) {
+            drain((DatagramChannel) key.channel(), buffer, frame);
+          }
+        }
+      } catch (ClosedSelectorException e) {
+        break;
+      } catch (Exception e) {
+        if (!closed) {
+          log.error("Error in multiplexed receive loop", e);
+        }
+      }
+    }
+    bufferPool.release(buffer);
+    log.debug("Multiplexed receive loop stopped");
+  }
+
+  private void drain(DatagramChannel channel, ByteBuffer buffer, ByteBuffer frame)
+      throws IOException {
+    SocketAddress source;
+    while ((source = channel.receive(buffer.clear())) != null) {
+      frame.clear().limit(buffer.position());
+      dispatch(((InetSocketAddress) source).getAddress(), frame);
+    }
+  }
+
+  private void dispatch(InetAddress source, ByteBuffer frame) {
+    MultiplexedSocket endpoint = routes.get(source);
+    FrameHandler handler = endpoint != null ? endpoint.handler : null;
+    if (handler == null) {
+      log.debug("Dropping datagram from unrouted source {}", source.getHostAddress());
+      return;
+    }
+
+    try {
+      handler.onFrame(frame);
+    } catch (Exception e) {
+      log.error("Error in handler for {}", source.getHostAddress(), e);
+    }
+  }
+
+  /** Virtual socket bound to one shared channel and routed by its remote address */
+  static class MultiplexedSocket implements NetworkSocket {
+
+    private final MultiplexedNetworkService owner;
+    private final DatagramChannel channel;
+    private volatile InetAddress remote;
+    private volatile FrameHandler handler;
+    private volatile boolean closed = false;
+
+    MultiplexedSocket(MultiplexedNetworkService owner, DatagramChannel channel) {
+      this.owner = owner;
+      this.channel = channel;
+    }
+
+    @Override
+    public boolean isClosed() {
+      return closed || owner.closed;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      handler = null;
+      owner.unroute(this);
+    }
+
+    @Override
+    public Object getUnderlyingSocket() {
+      return channel;
+    }
+
+    InetAddress getRemote() {
+      return remote;
+    }
+  }
+}
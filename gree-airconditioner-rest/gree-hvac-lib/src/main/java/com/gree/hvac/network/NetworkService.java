@@ -1,12 +1,16 @@
 package com.gree.hvac.network;
 
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /** Interface for abstracting network operations to enable testing and dependency injection */
 public interface NetworkService {
 
+  /** Largest payload a single UDP datagram can carry */
+  int MAX_DATAGRAM_SIZE = 65507;
+
   /**
    * Create and configure a UDP socket for communication
    *
@@ -34,6 +38,20 @@ public interface NetworkService {
    */
   CompletableFuture<Void> startListening(NetworkSocket socket, Consumer<byte[]> messageHandler);
 
+  /**
+   * Start listening for incoming packets, handing each one to the handler as a read-only view of a
+   * pooled buffer instead of a freshly allocated array
+   *
+   * @param socket The socket to listen on
+   * @param frameHandler Handler for received frames, see {@link FrameHandler} for buffer lifetime
+   * @return A CompletableFuture that completes when listening starts
+   */
+  default CompletableFuture<Void> startFrameListening(
+      NetworkSocket socket, FrameHandler frameHandler) {
+    return startListening(
+        socket, data -> frameHandler.onFrame(ByteBuffer.wrap(data).asReadOnlyBuffer()));
+  }
+
   /**
    * Send data to a specific address and port
    *
@@ -59,4 +77,13 @@ public interface NetworkService {
    * @param socket The socket to close
    */
   void closeSocket(NetworkSocket socket);
+
+  /**
+   * Executor that runs blocking receive loops and other network I/O for this service
+   *
+   * @return the I/O executor, a shared virtual-thread executor unless overridden
+   */
+  default IoExecutor getIoExecutor() {
+    return VirtualThreadIoExecutor.shared();
+  }
 }
@@ -3,7 +3,7 @@ package com.gree.hvac.network;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +12,37 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class NetworkServiceImpl implements NetworkService {
 
+  /**
+   * Receive buffer size of each socket. GREE frames are small JSON messages well below this bound,
+   * so a per-socket buffer does not need to hold the largest possible datagram.
+   */
+  public static final int DEFAULT_FRAME_BUFFER_SIZE = 8192;
+
+  private static final int MAX_POOLED_BUFFERS = 16;
+
+  private final IoExecutor ioExecutor;
+  private final ByteBufferPool bufferPool;
+
+  /** Create a network service whose receive loops run on the shared virtual-thread executor */
+  public NetworkServiceImpl() {
+    this(VirtualThreadIoExecutor.shared());
+  }
+
+  /** Create a network service whose receive loops run on the given executor */
+  public NetworkServiceImpl(IoExecutor ioExecutor) {
+    this(ioExecutor, DEFAULT_FRAME_BUFFER_SIZE);
+  }
+
+  /**
+   * Create a network service whose receive loops run on the given executor
+   *
+   * @param frameBufferSize receive buffer size of each socket; longer datagrams are dropped
+   */
+  public NetworkServiceImpl(IoExecutor ioExecutor, int frameBufferSize) {
+    this.ioExecutor = ioExecutor;
+    this.bufferPool = new ByteBufferPool(frameBufferSize, MAX_POOLED_BUFFERS, false);
+  }
+
   @Override
   public NetworkSocket createSocket(int port) throws Exception {
     DatagramSocket socket = new DatagramSocket(port);
@@ -27,27 +58,21 @@ public class NetworkServiceImpl implements NetworkService {
   @Override
   public CompletableFuture<Void> startListening(
       NetworkSocket socket, Consumer<byte[]> messageHandler) {
-    return CompletableFuture.runAsync(
-        () -> {
-          DatagramSocket datagramSocket = ((DatagramSocketWrapper) socket).getDatagramSocket();
-          byte[] buffer = new byte[1024];
-          DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-
-          while (!socket.isClosed()) {
-            try {
-              datagramSocket.receive(packet);
-              byte[] data = Arrays.copyOf(packet.getData(), packet.getLength());
-              messageHandler.accept(data);
-            } catch (Exception e) {
-              if (!socket.isClosed()) {
-                log.error("Error receiving data", e);
-                throw new RuntimeException(e);
-              }
-            }
-          }
+    return startFrameListening(
+        socket,
+        frame -> {
+          byte[] data = new byte[frame.remaining()];
+          frame.get(data);
+          messageHandler.accept(data);
         });
   }
 
+  @Override
+  public CompletableFuture<Void> startFrameListening(
+      NetworkSocket socket, FrameHandler frameHandler) {
+    return CompletableFuture.runAsync(() -> receiveLoop(socket, frameHandler), ioExecutor);
+  }
+
   @Override
   public void sendData(NetworkSocket socket, byte[] data, InetAddress address, int port)
       throws Exception {
@@ -65,4 +90,47 @@ public class NetworkServiceImpl implements NetworkService {
   public void closeSocket(NetworkSocket socket) {
     socket.close();
   }
+
+  @Override
+  public IoExecutor getIoExecutor() {
+    return ioExecutor;
+  }
+
+  /** Buffer pool backing the receive loops */
+  public ByteBufferPool getBufferPool() {
+    return bufferPool;
+  }
+
+  private void receiveLoop(NetworkSocket socket, FrameHandler frameHandler) {
+    DatagramSocket datagramSocket = ((DatagramSocketWrapper) socket).getDatagramSocket();
+    ByteBuffer buffer = bufferPool.acquire();
+    ByteBuffer frame = buffer.asReadOnlyBuffer();
+    DatagramPacket packet = new DatagramPacket(buffer.array(), buffer.capacity());
+
+    try {
+      while (!socket.isClosed()) {
+        try {
+          packet.setLength(buffer.capacity());
+          datagramSocket.receive(packet);
+          if (packet.getLength() == buffer.capacity()) {
+            // The datagram filled the buffer, so it was most likely cut off
+            log.warn(
+                "Dropping datagram from {} that fills the {} byte receive buffer",
+                packet.getAddress(),
+                buffer.capacity());
+            continue;
+          }
+          frame.clear().limit(packet.getLength());
+          frameHandler.onFrame(frame);
+        } catch (Exception e) {
+          if (!socket.isClosed()) {
+            log.error("Error receiving data", e);
+            throw new RuntimeException(e);
+          }
+        }
+      }
+    } finally {
+      bufferPool.release(buffer);
+    }
+  }
 }
@@ -0,0 +1,77 @@
+package com.gree.hvac.network;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IoExecutor that runs every task on its own virtual thread. A parked receive loop then costs a few
+ * hundred bytes of heap instead of a platform thread, so this is the default executor.
+ */
+public class VirtualThreadIoExecutor implements IoExecutor {
+
+  private static final VirtualThreadIoExecutor SHARED = new VirtualThreadIoExecutor("gree-io-");
+
+  private final ExecutorService delegate;
+  private final AtomicInteger activeThreads = new AtomicInteger();
+  private final AtomicInteger peakThreads = new AtomicInteger();
+  private final AtomicLong submittedTasks = new AtomicLong();
+  private final AtomicLong completedTasks = new AtomicLong();
+  private final AtomicLong rejectedTasks = new AtomicLong();
+
+  public VirtualThreadIoExecutor() {
+    this("gree-io-");
+  }
+
+  /** Create an executor whose virtual threads are named with the given prefix */
+  public VirtualThreadIoExecutor(String threadNamePrefix) {
+    this.delegate =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+  }
+
+  /** Process-wide executor used by network services that are not given one explicitly */
+  public static VirtualThreadIoExecutor shared() {
+    return SHARED;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    submittedTasks.incrementAndGet();
+    try {
+      delegate.execute(
+          () -> {
+            peakThreads.accumulateAndGet(activeThreads.incrementAndGet(), Math::max);
+            try {
+              task.run();
+            } finally {
+              activeThreads.decrementAndGet();
+              completedTasks.incrementAndGet();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      rejectedTasks.incrementAndGet();
+      throw e;
+    }
+  }
+
+  @Override
+  public IoExecutorMetrics getMetrics() {
+    return new IoExecutorMetrics(
+        activeThreads.get(),
+        peakThreads.get(),
+        0,
+        submittedTasks.get(),
+        completedTasks.get(),
+        rejectedTasks.get());
+  }
+
+  @Override
+  public void shutdown() {
+    if (this == SHARED) {
+      throw new UnsupportedOperationException("The shared I/O executor cannot be shut down");
+    }
+    delegate.shutdownNow();
+  }
+}
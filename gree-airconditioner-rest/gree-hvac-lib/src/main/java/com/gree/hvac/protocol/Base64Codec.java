@@ -0,0 +1,139 @@
+package com.gree.hvac.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Standard (RFC 4648) Base64 that reads from and writes into caller-provided buffers, so the cipher
+ * hot path does not allocate intermediate arrays the way {@link java.util.Base64} does.
+ */
+final class Base64Codec {
+
+  private static final byte[] ALPHABET =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+          .getBytes(StandardCharsets.US_ASCII);
+  private static final int[] REVERSE = new int[128];
+
+  static {
+    Arrays.fill(REVERSE, -1);
+    for (int i = 0; i < ALPHABET.length; i++) {
+      REVERSE[ALPHABET[i]] = i;
+    }
+  }
+
+  private Base64Codec() {}
+
+  /** Number of bytes {@link #encode} writes for len input bytes */
+  static int encodedLength(int len) {
+    return (len + 2) / 3 * 4;
+  }
+
+  /** Upper bound of the number of bytes {@link #decode} writes for len input characters */
+  static int maxDecodedLength(int len) {
+    return len / 4 * 3 + 2;
+  }
+
+  /** Encode src[off, off+len) into dst starting at 0 and return the number of bytes written */
+  static int encode(byte[] src, int off, int len, byte[] dst) {
+    int end = off + len;
+    int d = 0;
+    int s = off;
+    while (end - s >= 3) {
+      int bits = (src[s++] & 0xff) << 16 | (src[s++] & 0xff) << 8 | (src[s++] & 0xff);
+      dst[d++] = ALPHABET[bits >>> 18 & 0x3f];
+      dst[d++] = ALPHABET[bits >>> 12 & 0x3f];
+      dst[d++] = ALPHABET[bits >>> 6 & 0x3f];
+      dst[d++] = ALPHABET[bits & 0x3f];
+    }
+    int remaining = end - s;
+    if (remaining > 0) {
+      int bits = (src[s++] & 0xff) << 16;
+      if (remaining == 2) {
+        bits |= (src[s] & 0xff) << 8;
+      }
+      dst[d++] = ALPHABET[bits >>> 18 & 0x3f];
+      dst[d++] = ALPHABET[bits >>> 12 & 0x3f];
+      dst[d++] = remaining == 2 ? ALPHABET[bits >>> 6 & 0x3f] : (byte) '=';
+      dst[d++] = '=';
+    }
+    return d;
+  }
+
+  /**
+   * Decode the characters of src into dst starting at dstOff
+   *
+   * @return the number of bytes written
+   * @throws IllegalArgumentException if src is not valid Base64
+   */
+  static int decode(CharSequence src, byte[] dst, int dstOff) {
+    int len = src.length();
+    while (len > 0 && src.charAt(len - 1) == '=') {
+      len--;
+    }
+    int d = dstOff;
+    int bits = 0;
+    int count = 0;
+    for (int i = 0; i < len; i++) {
+      bits = bits << 6 | valueOf(src.charAt(i));
+      if (++count == 4) {
+        dst[d++] = (byte) (bits >>> 16);
+        dst[d++] = (byte) (bits >>> 8);
+        dst[d++] = (byte) bits;
+        bits = 0;
+        count = 0;
+      }
+    }
+    return finish(bits, count, dst, d) - dstOff;
+  }
+
+  /**
+   * Decode the ASCII bytes src[off, off+len) into dst starting at dstOff
+   *
+   * @return the number of bytes written
+   * @throws IllegalArgumentException if src is not valid Base64
+   */
+  static int decode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+    int end = off + len;
+    while (end > off && src[end - 1] == '=') {
+      end--;
+    }
+    int d = dstOff;
+    int bits = 0;
+    int count = 0;
+    for (int i = off; i < end; i++) {
+      bits = bits << 6 | valueOf((char) (src[i] & 0xff));
+      if (++count == 4) {
+        dst[d++] = (byte) (bits >>> 16);
+        dst[d++] = (byte) (bits >>> 8);
+        dst[d++] = (byte) bits;
+        bits = 0;
+        count = 0;
+      }
+    }
+    return finish(bits, count, dst, d) - dstOff;
+  }
+
+  private static int finish(int bits, int count, byte[] dst, int d) {
+    switch (count) {
+      case 0:
+        return d;
+      case 2:
+        dst[d++] = (byte) (bits >>> 4);
+        return d;
+      case 3:
+        dst[d++] = (byte) (bits >>> 10);
+        dst[d++] = (byte) (bits >>> 2);
+        return d;
+      default:
+        throw new IllegalArgumentException("Invalid Base64 length");
+    }
+  }
+
+  private static int valueOf(char c) {
+    int value = c < 128 ? REVERSE[c] : -1;
+    if (value < 0) {
+      throw new IllegalArgumentException("Illegal Base64 character: " + c);
+    }
+    return value;
+  }
+}
@@ -1,7 +1,9 @@
 package com.gree.hvac.protocol;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.security.Provider;
+import java.util.Arrays;
 import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
@@ -9,12 +11,20 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Handles encryption and decryption of GREE HVAC messages */
+/**
+ * Handles encryption and decryption of GREE HVAC messages
+ *
+ * <p>Each cipher keeps its initialized {@link Cipher}, key spec and output buffers between calls
+ * and rebuilds them lazily after its key changes (i.e. after {@code bindok}). Because that state is
+ * mutable, all public methods synchronize on the instance: sharing one instance across a fleet is
+ * safe but serializes the devices on it, so one instance per device is the intended use.
+ */
 public class EncryptionService {
   private static final Logger logger = LoggerFactory.getLogger(EncryptionService.class);
 
   private final EcbCipher ecbCipher;
   private final GcmCipher gcmCipher;
+  private final GreeFrameCodec frameCodec = new GreeFrameCodec();
   private AbstractCipher activeCipher;
   private int bindAttempt = 1;
 
@@ -24,12 +34,34 @@ public class EncryptionService {
     this.activeCipher = ecbCipher;
   }
 
-  public String getKey() {
+  public synchronized String getKey() {
     return activeCipher.getKey();
   }
 
+  /** Name of the cipher used for the next message, either "ecb" or "gcm" */
+  public synchronized String getCipher() {
+    return activeCipher.getName();
+  }
+
+  /**
+   * Use a device key obtained by an earlier binding, so the device can be addressed without binding
+   * again
+   *
+   * @param cipher "ecb" or "gcm", as returned by {@link #getCipher()} after {@code bindok}
+   */
+  public synchronized void restore(String cipher, String key) {
+    if (gcmCipher.getName().equals(cipher)) {
+      activeCipher = gcmCipher;
+    } else if (ecbCipher.getName().equals(cipher)) {
+      activeCipher = ecbCipher;
+    } else {
+      throw new IllegalArgumentException("Unknown cipher: " + cipher);
+    }
+    activeCipher.setKey(key);
+  }
+
   /** Decrypt UDP message */
-  public JSONObject decrypt(JSONObject input) throws Exception {
+  public synchronized JSONObject decrypt(JSONObject input) throws Exception {
     DecryptedMessage decrypted = activeCipher.decrypt(input);
     JSONObject payload = decrypted.getPayload();
 
@@ -41,8 +73,26 @@ public class EncryptionService {
     return payload;
   }
 
+  /**
+   * Decrypt the pack (and GCM tag) of an envelope decoded by {@link GreeFrameCodec}, parsing the
+   * payload straight from the decrypted bytes
+   */
+  public synchronized GreeFrame decrypt(GreeFrameCodec.Envelope envelope) throws Exception {
+    GreeFrame frame = activeCipher.decryptFrame(envelope.getPack(), envelope.getTag(), frameCodec);
+
+    if ("bindok".equals(frame.getType())) {
+      if (frame.getKey() == null) {
+        throw new IllegalArgumentException("bindok frame has no key");
+      }
+      activeCipher.setKey(frame.getKey());
+    }
+
+    logger.debug("Decrypt - input: {}, output: {}", envelope, frame);
+    return frame;
+  }
+
   /** Encrypt UDP message */
-  public EncryptedMessage encrypt(JSONObject output) throws Exception {
+  public synchronized EncryptedMessage encrypt(JSONObject output) throws Exception {
     if (output.has("t") && "bind".equals(output.getString("t"))) {
       if (bindAttempt == 2) {
         activeCipher = gcmCipher;
@@ -110,23 +160,98 @@ public class EncryptionService {
   }
 
   private abstract static class AbstractCipher {
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    private final String name;
     protected String key;
+    private SecretKeySpec keySpec;
+    private byte[] input = new byte[INITIAL_BUFFER_SIZE];
+    private byte[] output = new byte[INITIAL_BUFFER_SIZE];
+    private byte[] encoded = new byte[INITIAL_BUFFER_SIZE];
 
-    public AbstractCipher(String defaultKey) {
+    public AbstractCipher(String name, String defaultKey) {
+      this.name = name;
       this.key = defaultKey;
     }
 
+    public String getName() {
+      return name;
+    }
+
     public void setKey(String key) {
       this.key = key;
+      this.keySpec = null;
+      resetCipherState();
     }
 
     public String getKey() {
       return key;
     }
 
-    public abstract DecryptedMessage decrypt(JSONObject input) throws Exception;
+    public DecryptedMessage decrypt(JSONObject input) throws Exception {
+      String tag = input.has("tag") ? input.getString("tag") : null;
+      int decryptedLength = decryptPack(input.getString("pack"), tag);
+
+      JSONObject payload = new JSONObject(outputAsString(decryptedLength));
+      return new DecryptedMessage(payload, name, key);
+    }
+
+    public GreeFrame decryptFrame(String pack, String tag, GreeFrameCodec codec) throws Exception {
+      int decryptedLength = decryptPack(pack, tag);
+      return codec.decode(ByteBuffer.wrap(output, 0, decryptedLength));
+    }
+
+    /** Decrypt a base64 pack into the reusable output buffer and return its length */
+    protected abstract int decryptPack(String pack, String tag) throws Exception;
 
     public abstract EncryptedMessage encrypt(JSONObject output) throws Exception;
+
+    /** Drop initialized ciphers so they are rebuilt for the current key on next use */
+    protected abstract void resetCipherState();
+
+    protected SecretKeySpec keySpec() {
+      if (keySpec == null) {
+        keySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES");
+      }
+      return keySpec;
+    }
+
+    /**
+     * Base64-decode value into the reusable input buffer at offset and return its length; bytes
+     * before offset are kept if the buffer grows
+     */
+    protected int decodeInput(String value, int offset) {
+      input = ensureCapacity(input, offset + Base64Codec.maxDecodedLength(value.length()));
+      return Base64Codec.decode(value, input, offset);
+    }
+
+    /** Run cipher over input[0, len) into the reusable output buffer and return its length */
+    protected int finishInput(Cipher cipher, int len) throws Exception {
+      return finish(cipher, input, len);
+    }
+
+    /** Run cipher over data[0, len) into the reusable output buffer and return its length */
+    protected int finish(Cipher cipher, byte[] data, int len) throws Exception {
+      output = ensureCapacity(output, cipher.getOutputSize(len));
+      return cipher.doFinal(data, 0, len, output, 0);
+    }
+
+    protected String outputAsString(int len) {
+      return new String(output, 0, len, StandardCharsets.UTF_8);
+    }
+
+    protected String outputAsBase64(int offset, int len) {
+      encoded = ensureCapacity(encoded, Base64Codec.encodedLength(len));
+      int encodedLength = Base64Codec.encode(output, offset, len, encoded);
+      return new String(encoded, 0, encodedLength, StandardCharsets.US_ASCII);
+    }
+
+    /** Grow buffer to hold size bytes, keeping its contents */
+    private static byte[] ensureCapacity(byte[] buffer, int size) {
+      return buffer.length >= size
+          ? buffer
+          : Arrays.copyOf(buffer, Math.max(size, buffer.length * 2));
+    }
   }
 
   /**
@@ -137,104 +262,129 @@ public class EncryptionService {
    */
   @SuppressWarnings("java:S5542") // SonarQube: AES/ECB required for GREE protocol compatibility
   private static class EcbCipher extends AbstractCipher {
+    private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
+
+    private Cipher encryptCipher;
+    private Cipher decryptCipher;
+
     public EcbCipher() {
-      super("a3K8Bx%2r8Y7#xDh"); // NOSONAR - GREE protocol constant, not a secret
+      super("ecb", "a3K8Bx%2r8Y7#xDh"); // NOSONAR - GREE protocol constant, not a secret
     }
 
     @Override
-    public DecryptedMessage decrypt(JSONObject input) throws Exception {
-      // SonarQube: AES/ECB required for GREE protocol - cannot use secure mode
-      Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding"); // NOSONAR
-      SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES");
-      cipher.init(Cipher.DECRYPT_MODE, secretKey);
+    protected void resetCipherState() {
+      encryptCipher = null;
+      decryptCipher = null;
+    }
 
-      byte[] encryptedData = Base64.getDecoder().decode(input.getString("pack"));
-      byte[] decryptedData = cipher.doFinal(encryptedData);
-      String decryptedString = new String(decryptedData, StandardCharsets.UTF_8);
+    @Override
+    protected int decryptPack(String pack, String tag) throws Exception {
+      if (decryptCipher == null) {
+        // SonarQube: AES/ECB required for GREE protocol - cannot use secure mode
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION); // NOSONAR
+        cipher.init(Cipher.DECRYPT_MODE, keySpec());
+        decryptCipher = cipher;
+      }
 
-      JSONObject payload = new JSONObject(decryptedString);
-      return new DecryptedMessage(payload, "ecb", key);
+      try {
+        int encryptedLength = decodeInput(pack, 0);
+        return finishInput(decryptCipher, encryptedLength);
+      } catch (Exception e) {
+        decryptCipher = null;
+        throw e;
+      }
     }
 
     @Override
     public EncryptedMessage encrypt(JSONObject output) throws Exception {
-      // SonarQube: AES/ECB required for GREE protocol - cannot use secure mode
-      Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding"); // NOSONAR
-      SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES");
-      cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+      if (encryptCipher == null) {
+        // SonarQube: AES/ECB required for GREE protocol - cannot use secure mode
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION); // NOSONAR
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec());
+        encryptCipher = cipher;
+      }
 
       byte[] data = output.toString().getBytes(StandardCharsets.UTF_8);
-      byte[] encryptedData = cipher.doFinal(data);
-      String payload = Base64.getEncoder().encodeToString(encryptedData);
+      int encryptedLength;
+      try {
+        encryptedLength = finish(encryptCipher, data, data.length);
+      } catch (Exception e) {
+        encryptCipher = null;
+        throw e;
+      }
 
-      return new EncryptedMessage(payload, null, "ecb", key);
+      return new EncryptedMessage(outputAsBase64(0, encryptedLength), null, getName(), key);
     }
   }
 
   private static class GcmCipher extends AbstractCipher {
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
     private static final byte[] GCM_NONCE = hexToBytes("5440784449675a516c5e6313");
     private static final byte[] GCM_AEAD = "qualcomm-test".getBytes(StandardCharsets.UTF_8);
     private static final int GCM_TAG_LENGTH = 16;
+    private static final GCMParameterSpec GCM_SPEC =
+        new GCMParameterSpec(GCM_TAG_LENGTH * 8, GCM_NONCE);
+
+    private Cipher decryptCipher;
+    private Provider provider;
 
     public GcmCipher() {
-      super("{yxAHAY_Lm6pbC/<");
+      super("gcm", "{yxAHAY_Lm6pbC/<");
     }
 
     @Override
-    public DecryptedMessage decrypt(JSONObject input) throws Exception {
-      Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-      SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES");
+    protected void resetCipherState() {
+      decryptCipher = null;
+    }
 
-      GCMParameterSpec gcmSpec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, GCM_NONCE);
-      cipher.init(Cipher.DECRYPT_MODE, secretKey, gcmSpec);
-      cipher.updateAAD(GCM_AEAD);
+    @Override
+    protected int decryptPack(String pack, String tag) throws Exception {
+      if (decryptCipher == null) {
+        Cipher cipher = newCipher();
+        cipher.init(Cipher.DECRYPT_MODE, keySpec(), GCM_SPEC);
+        decryptCipher = cipher;
+      }
 
-      if (input.has("tag")) {
-        // For GCM, we need to append the auth tag to the ciphertext
-        byte[] encryptedData = Base64.getDecoder().decode(input.getString("pack"));
-        byte[] tag = Base64.getDecoder().decode(input.getString("tag"));
-
-        byte[] cipherWithTag = new byte[encryptedData.length + tag.length];
-        System.arraycopy(encryptedData, 0, cipherWithTag, 0, encryptedData.length);
-        System.arraycopy(tag, 0, cipherWithTag, encryptedData.length, tag.length);
-
-        byte[] decryptedData = cipher.doFinal(cipherWithTag);
-        String decryptedString = new String(decryptedData, StandardCharsets.UTF_8);
-        JSONObject payload = new JSONObject(decryptedString);
-        return new DecryptedMessage(payload, "gcm", key);
-      } else {
-        byte[] encryptedData = Base64.getDecoder().decode(input.getString("pack"));
-        byte[] decryptedData = cipher.doFinal(encryptedData);
-        String decryptedString = new String(decryptedData, StandardCharsets.UTF_8);
-        JSONObject payload = new JSONObject(decryptedString);
-        return new DecryptedMessage(payload, "gcm", key);
+      try {
+        // For GCM, the auth tag is appended to the ciphertext
+        int encryptedLength = decodeInput(pack, 0);
+        if (tag != null) {
+          encryptedLength += decodeInput(tag, encryptedLength);
+        }
+        decryptCipher.updateAAD(GCM_AEAD);
+        return finishInput(decryptCipher, encryptedLength);
+      } catch (Exception e) {
+        decryptCipher = null;
+        throw e;
       }
     }
 
     @Override
     public EncryptedMessage encrypt(JSONObject output) throws Exception {
-      Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-      SecretKeySpec secretKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES");
-
-      GCMParameterSpec gcmSpec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, GCM_NONCE);
-      cipher.init(Cipher.ENCRYPT_MODE, secretKey, gcmSpec);
+      // The JCE refuses to re-initialize a GCM cipher for encryption with the key and nonce it
+      // used last, and GREE fixes the nonce, so only the provider lookup can be cached here
+      Cipher cipher = newCipher();
+      cipher.init(Cipher.ENCRYPT_MODE, keySpec(), GCM_SPEC);
       cipher.updateAAD(GCM_AEAD);
 
       byte[] data = output.toString().getBytes(StandardCharsets.UTF_8);
-      byte[] encryptedData = cipher.doFinal(data);
+      int encryptedLength = finish(cipher, data, data.length);
 
       // Split encrypted data and auth tag
-      int cipherLength = encryptedData.length - GCM_TAG_LENGTH;
-      byte[] ciphertext = new byte[cipherLength];
-      byte[] authTag = new byte[GCM_TAG_LENGTH];
+      int cipherLength = encryptedLength - GCM_TAG_LENGTH;
+      String payload = outputAsBase64(0, cipherLength);
+      String tag = outputAsBase64(cipherLength, GCM_TAG_LENGTH);
 
-      System.arraycopy(encryptedData, 0, ciphertext, 0, cipherLength);
-      System.arraycopy(encryptedData, cipherLength, authTag, 0, GCM_TAG_LENGTH);
-
-      String payload = Base64.getEncoder().encodeToString(ciphertext);
-      String tag = Base64.getEncoder().encodeToString(authTag);
+      return new EncryptedMessage(payload, tag, getName(), key);
+    }
 
-      return new EncryptedMessage(payload, tag, "gcm", key);
+    private Cipher newCipher() throws Exception {
+      if (provider == null) {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        provider = cipher.getProvider();
+        return cipher;
+      }
+      return Cipher.getInstance(TRANSFORMATION, provider);
     }
 
     private static byte[] hexToBytes(String hex) {
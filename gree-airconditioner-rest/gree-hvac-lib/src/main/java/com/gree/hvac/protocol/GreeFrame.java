@@ -0,0 +1,164 @@
+package com.gree.hvac.protocol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Decrypted GREE payload reduced to the fields the client acts on
+ *
+ * <p>Produced either by {@link GreeFrameCodec} straight from the decrypted bytes or by {@link
+ * #fromJson(JSONObject)} from an org.json tree; both yield equal frames for the same payload. Text
+ * fields follow {@link JSONObject#optString(String)} and default to an empty string, except {@code
+ * key} which is null when absent. List fields are null when absent and hold org.json value types
+ * (Integer, Long, BigDecimal, String, Boolean, {@link JSONObject#NULL}).
+ */
+public class GreeFrame {
+
+  private final String type;
+  private final String cid;
+  private final String mac;
+  private final String key;
+  private final List<String> columns;
+  private final List<Object> data;
+  private final List<String> options;
+  private final List<Object> values;
+
+  GreeFrame(
+      String type,
+      String cid,
+      String mac,
+      String key,
+      List<String> columns,
+      List<Object> data,
+      List<String> options,
+      List<Object> values) {
+    this.type = type;
+    this.cid = cid;
+    this.mac = mac;
+    this.key = key;
+    this.columns = columns;
+    this.data = data;
+    this.options = options;
+    this.values = values;
+  }
+
+  /** Build a frame from a payload parsed by org.json */
+  public static GreeFrame fromJson(JSONObject pack) {
+    JSONArray values = pack.has("val") ? pack.optJSONArray("val") : pack.optJSONArray("p");
+    return new GreeFrame(
+        pack.optString("t"),
+        pack.optString("cid"),
+        pack.optString("mac"),
+        pack.has("key") ? pack.getString("key") : null,
+        stringList(pack.optJSONArray("cols")),
+        valueList(pack.optJSONArray("dat")),
+        stringList(pack.optJSONArray("opt")),
+        valueList(values));
+  }
+
+  /** Message type ({@code t}), e.g. dev, bindok, dat or res */
+  public String getType() {
+    return type;
+  }
+
+  public String getCid() {
+    return cid;
+  }
+
+  public String getMac() {
+    return mac;
+  }
+
+  /** Device key delivered by {@code bindok} */
+  public String getKey() {
+    return key;
+  }
+
+  /** Vendor property names of a status response ({@code cols}) */
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  /** Vendor values of a status response ({@code dat}) */
+  public List<Object> getData() {
+    return data;
+  }
+
+  /** Vendor property names confirmed by a command result ({@code opt}) */
+  public List<String> getOptions() {
+    return options;
+  }
+
+  /** Confirmed vendor values of a command result ({@code val}, or {@code p} if absent) */
+  public List<Object> getValues() {
+    return values;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof GreeFrame other)) {
+      return false;
+    }
+    return type.equals(other.type)
+        && cid.equals(other.cid)
+        && mac.equals(other.mac)
+        && Objects.equals(key, other.key)
+        && Objects.equals(columns, other.columns)
+        && Objects.equals(data, other.data)
+        && Objects.equals(options, other.options)
+        && Objects.equals(values, other.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, cid, mac, key, columns, data, options, values);
+  }
+
+  @Override
+  public String toString() {
+    return "GreeFrame{type='"
+        + type
+        + "', cid='"
+        + cid
+        + "', mac='"
+        + mac
+        + "', columns="
+        + columns
+        + ", data="
+        + data
+        + ", options="
+        + options
+        + ", values="
+        + values
+        + "}";
+  }
+
+  private static List<String> stringList(JSONArray array) {
+    if (array == null) {
+      return null;
+    }
+    List<String> result = new ArrayList<>(array.length());
+    for (int i = 0; i < array.length(); i++) {
+      result.add(array.getString(i));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  private static List<Object> valueList(JSONArray array) {
+    if (array == null) {
+      return null;
+    }
+    List<Object> result = new ArrayList<>(array.length());
+    for (int i = 0; i < array.length(); i++) {
+      result.add(array.get(i));
+    }
+    return Collections.unmodifiableList(result);
+  }
+}
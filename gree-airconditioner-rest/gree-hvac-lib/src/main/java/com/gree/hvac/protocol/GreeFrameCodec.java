@@ -0,0 +1,503 @@
+package com.gree.hvac.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Streaming decoder for GREE frames
+ *
+ * <p>Walks the JSON bytes once and keeps only the fields the client acts on, skipping everything
+ * else without building an object tree. Scalars are converted with the same rules as org.json, so
+ * {@link #decode(ByteBuffer)} returns a frame equal to {@link GreeFrame#fromJson(JSONObject)} for
+ * the same payload. The codec is stateless and can be shared between threads.
+ */
+public class GreeFrameCodec {
+
+  // Field ids, indexes into FIELD_NAMES
+  private static final int FIELD_T = 0;
+  private static final int FIELD_PACK = 1;
+  private static final int FIELD_TAG = 2;
+  private static final int FIELD_CID = 3;
+  private static final int FIELD_MAC = 4;
+  private static final int FIELD_KEY = 5;
+  private static final int FIELD_COLS = 6;
+  private static final int FIELD_DAT = 7;
+  private static final int FIELD_OPT = 8;
+  private static final int FIELD_P = 9;
+  private static final int FIELD_VAL = 10;
+  private static final int FIELD_OTHER = -1;
+
+  private static final byte[][] FIELD_NAMES = {
+    ascii("t"),
+    ascii("pack"),
+    ascii("tag"),
+    ascii("cid"),
+    ascii("mac"),
+    ascii("key"),
+    ascii("cols"),
+    ascii("dat"),
+    ascii("opt"),
+    ascii("p"),
+    ascii("val")
+  };
+
+  /** Decode the outer {@code {"t":"pack","pack":...,"tag":...}} envelope of a received datagram */
+  public Envelope decodeEnvelope(ByteBuffer frame) {
+    Parser parser = new Parser(frame);
+    String type = "";
+    String pack = null;
+    String tag = null;
+
+    parser.beginObject();
+    while (parser.nextField()) {
+      switch (parser.fieldName(FIELD_TAG + 1)) {
+        case FIELD_T -> type = parser.readText();
+        case FIELD_PACK -> pack = parser.readString();
+        case FIELD_TAG -> tag = parser.readString();
+        default -> parser.skipValue();
+      }
+    }
+    parser.end();
+
+    if (pack == null) {
+      throw new IllegalArgumentException("Frame has no pack");
+    }
+    return new Envelope(type, pack, tag);
+  }
+
+  /** Decode a decrypted payload into a frame */
+  public GreeFrame decode(ByteBuffer payload) {
+    Parser parser = new Parser(payload);
+    String type = "";
+    String cid = "";
+    String mac = "";
+    String key = null;
+    List<String> columns = null;
+    List<Object> data = null;
+    List<String> options = null;
+    List<Object> p = null;
+    List<Object> val = null;
+
+    parser.beginObject();
+    while (parser.nextField()) {
+      switch (parser.fieldName(FIELD_NAMES.length)) {
+        case FIELD_T -> type = parser.readText();
+        case FIELD_CID -> cid = parser.readText();
+        case FIELD_MAC -> mac = parser.readText();
+        case FIELD_KEY -> key = parser.readString();
+        case FIELD_COLS -> columns = parser.readStringArray();
+        case FIELD_DAT -> data = parser.readValueArray();
+        case FIELD_OPT -> options = parser.readStringArray();
+        case FIELD_P -> p = parser.readValueArray();
+        case FIELD_VAL -> val = parser.readValueArray();
+        default -> parser.skipValue();
+      }
+    }
+    parser.end();
+
+    return new GreeFrame(type, cid, mac, key, columns, data, options, val != null ? val : p);
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /** Outer frame fields needed to decrypt a datagram */
+  public static class Envelope {
+    private final String type;
+    private final String pack;
+    private final String tag;
+
+    public Envelope(String type, String pack, String tag) {
+      this.type = type;
+      this.pack = pack;
+      this.tag = tag;
+    }
+
+    public String getType() {
+      return type;
+    }
+
+    public String getPack() {
+      return pack;
+    }
+
+    /** GCM authentication tag, null for ECB frames */
+    public String getTag() {
+      return tag;
+    }
+
+    @Override
+    public String toString() {
+      return "Envelope{type='" + type + "', pack='" + pack + "', tag='" + tag + "'}";
+    }
+  }
+
+  /** Cursor over the readable bytes of a buffer; reads use absolute indexes */
+  private static final class Parser {
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+    private boolean fieldRead;
+
+    Parser(ByteBuffer buffer) {
+      this.buffer = buffer;
+      this.position = buffer.position();
+      this.limit = buffer.limit();
+    }
+
+    void beginObject() {
+      expect('{');
+    }
+
+    /** Advance to the next field of the current object, leaving the cursor after its colon */
+    boolean nextField() {
+      int c = peek();
+      if (c == '}') {
+        position++;
+        return false;
+      }
+      if (fieldRead) {
+        if (c != ',') {
+          throw error("Expected ',' or '}'");
+        }
+        position++;
+        c = peek();
+      }
+      if (c != '"') {
+        throw error("Expected field name");
+      }
+      fieldRead = true;
+      return true;
+    }
+
+    /** Read the field name and colon, returning its id among the first count known fields */
+    int fieldName(int count) {
+      int start = position + 1;
+      int end = start;
+      boolean escaped = false;
+      while (true) {
+        if (end >= limit) {
+          throw error("Unterminated string");
+        }
+        byte b = buffer.get(end);
+        if (b == '"') {
+          break;
+        }
+        if (b == '\\') {
+          escaped = true;
+          end++;
+        }
+        end++;
+      }
+
+      int field;
+      if (escaped) {
+        field = lookup(readString().getBytes(StandardCharsets.UTF_8), count);
+      } else {
+        field = FIELD_OTHER;
+        for (int i = 0; i < count && field == FIELD_OTHER; i++) {
+          if (rangeEquals(start, end, FIELD_NAMES[i])) {
+            field = i;
+          }
+        }
+        position = end + 1;
+      }
+      expect(':');
+      return field;
+    }
+
+    /** Read a value the way {@link JSONObject#optString(String)} reports it */
+    String readText() {
+      int c = peek();
+      if (c == '"') {
+        return readString();
+      }
+      if (c == '{' || c == '[') {
+        return nestedValue().toString();
+      }
+      Object value = readScalar();
+      return JSONObject.NULL.equals(value) ? "" : value.toString();
+    }
+
+    String readString() {
+      if (peek() != '"') {
+        throw error("Expected string");
+      }
+      int segment = ++position;
+      StringBuilder builder = null;
+      while (true) {
+        if (position >= limit) {
+          throw error("Unterminated string");
+        }
+        byte b = buffer.get(position);
+        if (b == '"') {
+          String tail = decode(segment, position);
+          position++;
+          return builder == null ? tail : builder.append(tail).toString();
+        }
+        if (b == '\n' || b == '\r') {
+          throw error("Unterminated string");
+        }
+        if (b == '\\') {
+          if (builder == null) {
+            builder = new StringBuilder();
+          }
+          builder.append(decode(segment, position));
+          position++;
+          builder.append(readEscape());
+          segment = position;
+        } else {
+          position++;
+        }
+      }
+    }
+
+    List<String> readStringArray() {
+      expect('[');
+      List<String> result = new ArrayList<>();
+      if (peek() == ']') {
+        position++;
+        return Collections.unmodifiableList(result);
+      }
+      while (true) {
+        if (peek() != '"') {
+          throw error("Expected string element");
+        }
+        result.add(readString());
+        if (!nextElement()) {
+          return Collections.unmodifiableList(result);
+        }
+      }
+    }
+
+    List<Object> readValueArray() {
+      expect('[');
+      List<Object> result = new ArrayList<>();
+      if (peek() == ']') {
+        position++;
+        return Collections.unmodifiableList(result);
+      }
+      while (true) {
+        result.add(readValue());
+        if (!nextElement()) {
+          return Collections.unmodifiableList(result);
+        }
+      }
+    }
+
+    void skipValue() {
+      int c = peek();
+      if (c == '"') {
+        readString();
+      } else if (c == '{' || c == '[') {
+        skipNested();
+      } else {
+        scalarEnd();
+      }
+    }
+
+    /** Require that only whitespace follows the top-level object */
+    void end() {
+      skipWhitespace();
+      if (position != limit) {
+        throw error("Unexpected trailing data");
+      }
+    }
+
+    private Object readValue() {
+      int c = peek();
+      if (c == '"') {
+        return readString();
+      }
+      if (c == '{' || c == '[') {
+        return nestedValue();
+      }
+      return readScalar();
+    }
+
+    /** Parse a scalar token with org.json rules, with a fast path for small integers */
+    private Object readScalar() {
+      int start = position;
+      int end = scalarEnd();
+      if (start == end) {
+        throw error("Missing value");
+      }
+
+      Integer small = smallInteger(start, end);
+      return small != null ? small : JSONObject.stringToValue(decode(start, end));
+    }
+
+    /** Nested structures are rare in GREE payloads, so they are handed to org.json as is */
+    private Object nestedValue() {
+      int start = position;
+      skipNested();
+      return new JSONTokener(decode(start, position)).nextValue();
+    }
+
+    private Integer smallInteger(int start, int end) {
+      int i = start;
+      boolean negative = buffer.get(i) == '-';
+      if (negative) {
+        i++;
+      }
+      int digits = end - i;
+      // Leave -0, leading zeros and anything that may not fit an int to org.json
+      if (digits < 1 || digits > 9 || (buffer.get(i) == '0' && (digits > 1 || negative))) {
+        return null;
+      }
+      int value = 0;
+      for (; i < end; i++) {
+        int digit = buffer.get(i) - '0';
+        if (digit < 0 || digit > 9) {
+          return null;
+        }
+        value = value * 10 + digit;
+      }
+      return negative ? -value : value;
+    }
+
+    private int scalarEnd() {
+      while (position < limit) {
+        byte b = buffer.get(position);
+        if (b == ',' || b == '}' || b == ']' || (b >= 0 && b <= ' ')) {
+          break;
+        }
+        if (b == '"' || b == '{' || b == '[' || b == ':') {
+          throw error("Unexpected character");
+        }
+        position++;
+      }
+      return position;
+    }
+
+    private void skipNested() {
+      int depth = 0;
+      while (position < limit) {
+        byte b = buffer.get(position);
+        if (b == '"') {
+          readString();
+          continue;
+        }
+        position++;
+        if (b == '{' || b == '[') {
+          depth++;
+        } else if ((b == '}' || b == ']') && --depth == 0) {
+          return;
+        }
+      }
+      throw error("Unterminated structure");
+    }
+
+    private boolean nextElement() {
+      int c = peek();
+      position++;
+      if (c == ',') {
+        return true;
+      }
+      if (c == ']') {
+        return false;
+      }
+      throw error("Expected ',' or ']'");
+    }
+
+    private char readEscape() {
+      if (position >= limit) {
+        throw error("Unterminated string");
+      }
+      byte b = buffer.get(position++);
+      switch (b) {
+        case 'b':
+          return '\b';
+        case 't':
+          return '\t';
+        case 'n':
+          return '\n';
+        case 'f':
+          return '\f';
+        case 'r':
+          return '\r';
+        case '"', '\'', '\\', '/':
+          return (char) b;
+        case 'u':
+          if (position + 4 > limit) {
+            throw error("Illegal escape");
+          }
+          int value = 0;
+          for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(buffer.get(position++), 16);
+            if (digit < 0) {
+              throw error("Illegal escape");
+            }
+            value = (value << 4) | digit;
+          }
+          return (char) value;
+        default:
+          throw error("Illegal escape");
+      }
+    }
+
+    private String decode(int start, int end) {
+      int length = end - start;
+      if (buffer.hasArray()) {
+        return new String(
+            buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+      }
+      byte[] bytes = new byte[length];
+      buffer.get(start, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean rangeEquals(int start, int end, byte[] name) {
+      if (end - start != name.length) {
+        return false;
+      }
+      for (int i = 0; i < name.length; i++) {
+        if (buffer.get(start + i) != name[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static int lookup(byte[] name, int count) {
+      for (int i = 0; i < count; i++) {
+        if (Arrays.equals(name, FIELD_NAMES[i])) {
+          return i;
+        }
+      }
+      return FIELD_OTHER;
+    }
+
+    private int peek() {
+      skipWhitespace();
+      if (position >= limit) {
+        throw error("Unexpected end of frame");
+      }
+      return buffer.get(position);
+    }
+
+    private void expect(char expected) {
+      if (peek() != expected) {
+        throw error("Expected '" + expected + "'");
+      }
+      position++;
+    }
+
+    private void skipWhitespace() {
+      while (position < limit && buffer.get(position) <= ' ' && buffer.get(position) >= 0) {
+        position++;
+      }
+    }
+
+    private IllegalArgumentException error(String message) {
+      return new IllegalArgumentException(message + " at offset " + position);
+    }
+  }
+}
@@ -1,53 +1,83 @@
 package com.gree.hvac.protocol;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-/** Transforms device properties from vendor names to human friendly names and back */
+/**
+ * Transforms device properties from vendor names to human friendly names and back
+ *
+ * <p>All lookups are precompiled per {@link Property} when the class is initialized: vendor codes
+ * and value names are stored in arrays indexed by property ordinal and vendor value, so decoding a
+ * status frame is plain array indexing. The map and string based methods are kept for callers that
+ * work with friendly property names.
+ */
 public class PropertyTransformer {
-  private static final Map<String, String> PROPERTY_VENDOR_CODES = new HashMap<>();
-  private static final Map<String, String> REVERSED_PROPERTIES = new HashMap<>();
+  private static final Property[] PROPERTIES = Property.values();
 
-  // Property name constant
-  private static final String CURRENT_TEMPERATURE = "currentTemperature";
+  // Vendor column code per property ordinal, and the reverse lookups
+  private static final String[] VENDOR_CODES = new String[PROPERTIES.length];
+  private static final Map<String, Property> BY_VENDOR_CODE = new HashMap<>();
+  private static final Map<String, Property> BY_NAME = new HashMap<>();
+
+  // Friendly value names indexed by [property ordinal][vendor value], null if not mapped
+  private static final String[][] VALUE_NAMES = new String[PROPERTIES.length][];
+  private static final Map<Property, Map<String, Integer>> VALUE_CODES =
+      new EnumMap<>(Property.class);
 
   static {
-    PROPERTY_VENDOR_CODES.put("power", "Pow");
-    PROPERTY_VENDOR_CODES.put("mode", "Mod");
-    PROPERTY_VENDOR_CODES.put("temperatureUnit", "TemUn");
-    PROPERTY_VENDOR_CODES.put("temperature", "SetTem");
-    PROPERTY_VENDOR_CODES.put(CURRENT_TEMPERATURE, "TemSen");
-    PROPERTY_VENDOR_CODES.put("fanSpeed", "WdSpd");
-    PROPERTY_VENDOR_CODES.put("air", "Air");
-    PROPERTY_VENDOR_CODES.put("blow", "Blo");
-    PROPERTY_VENDOR_CODES.put("health", "Health");
-    PROPERTY_VENDOR_CODES.put("sleep", "SwhSlp");
-    PROPERTY_VENDOR_CODES.put("lights", "Lig");
-    PROPERTY_VENDOR_CODES.put("swingHor", "SwingLfRig");
-    PROPERTY_VENDOR_CODES.put("swingVert", "SwUpDn");
-    PROPERTY_VENDOR_CODES.put("quiet", "Quiet");
-    PROPERTY_VENDOR_CODES.put("turbo", "Tur");
-    PROPERTY_VENDOR_CODES.put("powerSave", "SvSt");
-    PROPERTY_VENDOR_CODES.put("safetyHeating", "StHt");
-
-    // Create reversed mapping
-    for (Map.Entry<String, String> entry : PROPERTY_VENDOR_CODES.entrySet()) {
-      REVERSED_PROPERTIES.put(entry.getValue(), entry.getKey());
+    vendorCode(Property.POWER, "Pow");
+    vendorCode(Property.MODE, "Mod");
+    vendorCode(Property.TEMPERATURE_UNIT, "TemUn");
+    vendorCode(Property.TEMPERATURE, "SetTem");
+    vendorCode(Property.CURRENT_TEMPERATURE, "TemSen");
+    vendorCode(Property.FAN_SPEED, "WdSpd");
+    vendorCode(Property.AIR, "Air");
+    vendorCode(Property.BLOW, "Blo");
+    vendorCode(Property.HEALTH, "Health");
+    vendorCode(Property.SLEEP, "SwhSlp");
+    vendorCode(Property.LIGHTS, "Lig");
+    vendorCode(Property.SWING_HOR, "SwingLfRig");
+    vendorCode(Property.SWING_VERT, "SwUpDn");
+    vendorCode(Property.QUIET, "Quiet");
+    vendorCode(Property.TURBO, "Tur");
+    vendorCode(Property.POWER_SAVE, "SvSt");
+    vendorCode(Property.SAFETY_HEATING, "StHt");
+
+    Map<String, Map<String, Integer>> vendorValues = PropertyValue.getVendorValues();
+    for (Property property : PROPERTIES) {
+      BY_NAME.put(property.getValue(), property);
+
+      Map<String, Integer> values = vendorValues.get(property.getValue());
+      if (values != null) {
+        int maxCode = values.values().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        String[] names = new String[maxCode + 1];
+        values.forEach(
+            (name, code) -> {
+              if (code >= 0) {
+                names[code] = name;
+              }
+            });
+        VALUE_NAMES[property.ordinal()] = names;
+        VALUE_CODES.put(property, Map.copyOf(values));
+      }
     }
   }
 
+  private static void vendorCode(Property property, String vendorCode) {
+    VENDOR_CODES[property.ordinal()] = vendorCode;
+    BY_VENDOR_CODE.put(vendorCode, property);
+  }
+
   /** Transforms device properties from vendor names to human friendly names */
   public Map<String, Object> fromVendor(Map<String, Object> properties) {
     Map<String, Object> result = new HashMap<>();
     for (Map.Entry<String, Object> entry : properties.entrySet()) {
-      String property = entry.getKey();
-      Object value = entry.getValue();
-
-      String reversedProperty = REVERSED_PROPERTIES.get(property);
-      if (reversedProperty != null) {
-        result.put(reversedProperty, valueFromVendor(reversedProperty, value));
+      Property property = BY_VENDOR_CODE.get(entry.getKey());
+      if (property != null) {
+        result.put(property.getValue(), fromVendor(property, entry.getValue()));
       }
     }
     return result;
@@ -57,73 +87,87 @@ public class PropertyTransformer {
   public Map<String, Object> toVendor(Map<String, Object> properties) {
     Map<String, Object> result = new HashMap<>();
     for (Map.Entry<String, Object> entry : properties.entrySet()) {
-      String property = entry.getKey();
-      Object value = entry.getValue();
-
-      String vendorProperty = PROPERTY_VENDOR_CODES.get(property);
-      if (vendorProperty != null) {
-        result.put(vendorProperty, valueToVendor(property, value));
+      Property property = BY_NAME.get(entry.getKey());
+      if (property != null) {
+        result.put(VENDOR_CODES[property.ordinal()], toVendor(property, entry.getValue()));
       }
     }
     return result;
   }
 
-  /** Transform property array to vendor codes */
-  public List<String> arrayToVendor(List<String> properties) {
-    List<String> result = new ArrayList<>();
-    for (String property : properties) {
-      String vendorCode = PROPERTY_VENDOR_CODES.get(property);
-      if (vendorCode != null) {
-        result.add(vendorCode);
-      }
-    }
-    return result;
+  /** Property reported under the given vendor code, or null if the code is unknown */
+  public Property propertyFromVendor(String vendorCode) {
+    return BY_VENDOR_CODE.get(vendorCode);
   }
 
-  private Object valueFromVendor(String property, Object value) {
-    // Special handling for currentTemperature
-    if (CURRENT_TEMPERATURE.equals(property) && value instanceof Number number) {
-      int intValue = number.intValue();
-      if (intValue != 0) {
-        return intValue - 40; // Temperature from AC should be transformed by subtracting 40
-      }
-      return intValue;
+  /** Vendor column code of the given property */
+  public String toVendorCode(Property property) {
+    return VENDOR_CODES[property.ordinal()];
+  }
+
+  /** Transforms a single vendor value of the given property to its human friendly value */
+  public Object fromVendor(Property property, Object value) {
+    if (value instanceof Number number) {
+      Object friendly = fromVendor(property, number.intValue());
+      // Unmapped values are passed through unchanged
+      return friendly instanceof String || property == Property.CURRENT_TEMPERATURE
+          ? friendly
+          : value;
     }
+    return value;
+  }
 
-    // Handle string values that need to be converted from vendor codes
-    Map<String, Map<String, Integer>> vendorValues = PropertyValue.getVendorValues();
-    Map<String, Integer> propertyValues = vendorValues.get(property);
-
-    if (propertyValues != null && value instanceof Number number) {
-      int intValue = number.intValue();
-      // Find the string key for this vendor value
-      for (Map.Entry<String, Integer> entry : propertyValues.entrySet()) {
-        if (entry.getValue().equals(intValue)) {
-          return entry.getKey();
-        }
-      }
+  /**
+   * Transforms a single integer vendor value: the value name if the property maps it, the sensor
+   * reading for currentTemperature, otherwise the value itself
+   */
+  public Object fromVendor(Property property, int value) {
+    if (property == Property.CURRENT_TEMPERATURE) {
+      // Temperature from AC should be transformed by subtracting 40
+      return value != 0 ? value - 40 : 0;
     }
 
+    String[] names = VALUE_NAMES[property.ordinal()];
+    if (names != null && value >= 0 && value < names.length && names[value] != null) {
+      return names[value];
+    }
     return value;
   }
 
-  private Object valueToVendor(String property, Object value) {
-    // Special handling for currentTemperature (read-only)
-    if (CURRENT_TEMPERATURE.equals(property)) {
+  /** Transforms a single human friendly value of the given property to its vendor value */
+  public Object toVendor(Property property, Object value) {
+    if (property == Property.CURRENT_TEMPERATURE) {
       throw new IllegalArgumentException("Cannot set read-only property currentTemperature");
     }
 
-    // Handle string values that need to be converted to vendor codes
-    Map<String, Map<String, Integer>> vendorValues = PropertyValue.getVendorValues();
-    Map<String, Integer> propertyValues = vendorValues.get(property);
-
-    if (propertyValues != null && value instanceof String) {
-      Integer vendorValue = propertyValues.get(value);
+    Map<String, Integer> codes = VALUE_CODES.get(property);
+    if (codes != null && value instanceof String name) {
+      Integer vendorValue = codes.get(name);
       if (vendorValue != null) {
         return vendorValue;
       }
     }
-
     return value;
   }
+
+  /** Transform properties to vendor codes */
+  public List<String> toVendorCodes(List<Property> properties) {
+    List<String> result = new ArrayList<>(properties.size());
+    for (Property property : properties) {
+      result.add(VENDOR_CODES[property.ordinal()]);
+    }
+    return result;
+  }
+
+  /** Transform property array to vendor codes */
+  public List<String> arrayToVendor(List<String> properties) {
+    List<String> result = new ArrayList<>();
+    for (String name : properties) {
+      Property property = BY_NAME.get(name);
+      if (property != null) {
+        result.add(VENDOR_CODES[property.ordinal()]);
+      }
+    }
+    return result;
+  }
 }
@@ -5,7 +5,9 @@ import static org.mockito.Mockito.*;
 
 import com.gree.hvac.client.HvacClient;
 import com.gree.hvac.client.HvacClientOptions;
+import com.gree.hvac.discovery.DiscoveryOptions;
 import com.gree.hvac.dto.DeviceInfo;
+import com.gree.hvac.network.MultiplexedNetworkService;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
@@ -47,6 +49,18 @@ class GreeHvacTest {
     result.cancel(true);
   }
 
+  @Test
+  void testDiscoverDevicesWithOptions() {
+    CompletableFuture<List<DeviceInfo>> result =
+        GreeHvac.discoverDevices(new DiscoveryOptions().setTimeout(500).setQuietPeriod(100));
+
+    assertNotNull(result);
+    assertFalse(result.isDone()); // Should be running asynchronously
+
+    // Cancel the future to avoid network operations
+    result.cancel(true);
+  }
+
   @Test
   void testDiscoverDevicesWithBroadcastAddress() {
     String broadcastAddress = "192.168.1.255";
@@ -106,6 +120,25 @@ class GreeHvacTest {
     assertThrows(NullPointerException.class, () -> GreeHvac.createClient((HvacClientOptions) null));
   }
 
+  @Test
+  void testCreateClientWithSharedNetworkService() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100").setAutoConnect(false);
+
+    try (MultiplexedNetworkService networkService = new MultiplexedNetworkService()) {
+      HvacClient client = GreeHvac.createClient(options, networkService);
+
+      assertNotNull(client);
+      client.shutdown();
+    }
+  }
+
+  @Test
+  void testCreateClientWithNullNetworkService() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+
+    assertThrows(NullPointerException.class, () -> GreeHvac.createClient(options, null));
+  }
+
   @Test
   void testDiscoverDevicesWithInvalidBroadcastAddress() {
     // Test with clearly invalid broadcast address
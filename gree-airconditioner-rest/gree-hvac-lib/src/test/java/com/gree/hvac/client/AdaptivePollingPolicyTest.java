@@ -0,0 +1,66 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptivePollingPolicyTest {
+
+  @Test
+  void testBacksOffWhileNothingChanges() {
+    AdaptivePollingPolicy policy = new AdaptivePollingPolicy(3000, 1000, 20000, 0);
+
+    assertEquals(3000, policy.nextDelay(0));
+
+    policy.onStatus(false);
+    assertEquals(6000, policy.nextDelay(0));
+    policy.onStatus(false);
+    policy.onStatus(false);
+    assertEquals(20000, policy.nextDelay(0));
+    policy.onStatus(false);
+    assertEquals(20000, policy.nextDelay(0));
+  }
+
+  @Test
+  void testChangeAndCommandSnapToFastInterval() {
+    AdaptivePollingPolicy policy = new AdaptivePollingPolicy(3000, 1000, 20000, 0);
+    policy.onStatus(false);
+    policy.onStatus(false);
+
+    policy.onStatus(true);
+    assertEquals(1000, policy.getInterval());
+
+    policy.onStatus(false);
+    assertEquals(2000, policy.getInterval());
+
+    policy.onCommand();
+    assertEquals(1000, policy.nextDelay(0));
+  }
+
+  @Test
+  void testPollsPerMinuteAreCapped() {
+    AdaptivePollingPolicy policy = new AdaptivePollingPolicy(1000, 1000, 20000, 3);
+
+    policy.onPoll(0);
+    policy.onPoll(1000);
+    assertEquals(1000, policy.nextDelay(1000));
+
+    policy.onPoll(2000);
+    // The fourth poll has to wait until the first leaves the one minute window
+    assertEquals(58000, policy.nextDelay(2000));
+    assertEquals(1000, policy.nextDelay(59000));
+  }
+
+  @Test
+  void testInitialIntervalIsClamped() {
+    assertEquals(20000, new AdaptivePollingPolicy(60000, 1000, 20000, 0).getInterval());
+    assertEquals(1000, new AdaptivePollingPolicy(10, 1000, 20000, 0).getInterval());
+  }
+
+  @Test
+  void testRejectsInvalidIntervals() {
+    assertThrows(IllegalArgumentException.class, () -> new AdaptivePollingPolicy(1000, 0, 10, 0));
+    assertThrows(
+        IllegalArgumentException.class, () -> new AdaptivePollingPolicy(1000, 5000, 1000, 0));
+  }
+}
@@ -0,0 +1,129 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.gree.hvac.exceptions.HvacException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CommandCoalescerTest {
+
+  private HashedWheelTimer timer;
+  private List<Map<String, Object>> sent;
+  private List<CompletableFuture<Void>> commands;
+
+  @BeforeEach
+  void setUp() {
+    timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 64, Runnable::run);
+    sent = new CopyOnWriteArrayList<>();
+    commands = new CopyOnWriteArrayList<>();
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.shutdown();
+  }
+
+  @Test
+  void testWritesWithinWindowAreMerged() throws Exception {
+    CommandCoalescer coalescer = coalescer(100);
+
+    CompletableFuture<Void> first = coalescer.submit(Map.of("SetTem", 24));
+    CompletableFuture<Void> second = coalescer.submit(Map.of("SetTem", 25, "Pow", 1));
+    CompletableFuture<Void> third = coalescer.submit(Map.of("SetTem", 26));
+
+    awaitCommands(1);
+    assertEquals(List.of(Map.of("SetTem", 26, "Pow", 1)), sent);
+    assertFalse(first.isDone());
+
+    commands.get(0).complete(null);
+
+    assertNull(first.get(1, TimeUnit.SECONDS));
+    assertNull(second.get(1, TimeUnit.SECONDS));
+    assertNull(third.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testWritesAfterFlushStartNewCommand() throws Exception {
+    CommandCoalescer coalescer = coalescer(20);
+
+    coalescer.submit(Map.of("SetTem", 24));
+    awaitCommands(1);
+    coalescer.submit(Map.of("SetTem", 25));
+    awaitCommands(2);
+
+    assertEquals(List.of(Map.of("SetTem", 24), Map.of("SetTem", 25)), sent);
+  }
+
+  @Test
+  void testCommandFailureFailsEveryWrite() throws Exception {
+    CommandCoalescer coalescer = coalescer(50);
+
+    CompletableFuture<Void> first = coalescer.submit(Map.of("Pow", 1));
+    CompletableFuture<Void> second = coalescer.submit(Map.of("Lig", 0));
+    awaitCommands(1);
+    commands.get(0).completeExceptionally(new HvacException("Not confirmed"));
+
+    ExecutionException exception =
+        assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+    assertInstanceOf(HvacException.class, exception.getCause());
+    assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testFailAllFailsPendingWrites() throws Exception {
+    CommandCoalescer coalescer = coalescer(200);
+
+    CompletableFuture<Void> write = coalescer.submit(Map.of("Pow", 1));
+    coalescer.failAll(new HvacException("Connection reset"));
+
+    assertTrue(write.isCompletedExceptionally());
+    Thread.sleep(300);
+    assertTrue(sent.isEmpty());
+  }
+
+  @Test
+  void testWindowTimerOfFailedWritesDoesNotFlushNextWindow() throws Exception {
+    CommandCoalescer coalescer = coalescer(300);
+
+    coalescer.submit(Map.of("Pow", 1));
+    Thread.sleep(150);
+    coalescer.failAll(new HvacException("Connection reset"));
+    coalescer.submit(Map.of("SetTem", 24));
+    coalescer.submit(Map.of("SetTem", 25));
+
+    // The timer of the failed window would have fired by now
+    Thread.sleep(225);
+    assertTrue(sent.isEmpty());
+
+    awaitCommands(1);
+    assertEquals(List.of(Map.of("SetTem", 25)), sent);
+  }
+
+  private CommandCoalescer coalescer(long window) {
+    return new CommandCoalescer(
+        timer,
+        window,
+        properties -> {
+          CompletableFuture<Void> command = new CompletableFuture<>();
+          sent.add(properties);
+          commands.add(command);
+          return command;
+        });
+  }
+
+  private void awaitCommands(int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 2000;
+    while (commands.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(count, commands.size());
+  }
+}
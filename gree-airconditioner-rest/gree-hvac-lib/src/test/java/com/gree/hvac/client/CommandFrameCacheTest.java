@@ -0,0 +1,80 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.gree.hvac.protocol.EncryptionService;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CommandFrameCacheTest {
+
+  private CommandFrameCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new CommandFrameCache();
+  }
+
+  @Test
+  void testFrameIsSharedBetweenServicesWithSameKey() throws Exception {
+    byte[] first = cache.get(command("Pow", 0), new EncryptionService());
+    byte[] second = cache.get(command("Pow", 0), new EncryptionService());
+
+    assertSame(first, second);
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void testFrameDecryptsToCommand() throws Exception {
+    EncryptionService encryptionService = new EncryptionService();
+    JSONObject frame =
+        new JSONObject(
+            new String(
+                cache.get(command("SetTem", 22), encryptionService), StandardCharsets.UTF_8));
+
+    assertEquals("pack", frame.getString("t"));
+    JSONObject pack = encryptionService.decrypt(frame);
+    assertEquals("cmd", pack.getString("t"));
+    assertEquals(List.of("SetTem"), pack.getJSONArray("opt").toList());
+    assertEquals(List.of(22), pack.getJSONArray("p").toList());
+  }
+
+  @Test
+  void testDistinctPayloadsAreEncryptedSeparately() throws Exception {
+    EncryptionService encryptionService = new EncryptionService();
+
+    byte[] off = cache.get(command("Pow", 0), encryptionService);
+    byte[] on = cache.get(command("Pow", 1), encryptionService);
+
+    assertNotSame(off, on);
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void testDistinctKeysAreEncryptedSeparately() throws Exception {
+    EncryptionService bound = new EncryptionService();
+    bound.restore("ecb", "0123456789abcdef");
+
+    byte[] generic = cache.get(command("Pow", 0), new EncryptionService());
+    byte[] device = cache.get(command("Pow", 0), bound);
+
+    assertFalse(Arrays.equals(generic, device));
+    assertEquals(2, cache.size());
+    assertEquals(
+        "cmd",
+        bound.decrypt(new JSONObject(new String(device, StandardCharsets.UTF_8))).getString("t"));
+  }
+
+  private static JSONObject command(String property, int value) {
+    JSONObject command = new JSONObject();
+    command.put("opt", new JSONArray(List.of(property)));
+    command.put("p", new JSONArray(List.of(value)));
+    command.put("t", "cmd");
+    return command;
+  }
+}
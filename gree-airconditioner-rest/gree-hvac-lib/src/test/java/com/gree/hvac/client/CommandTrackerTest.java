@@ -0,0 +1,152 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.gree.hvac.exceptions.HvacException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CommandTrackerTest {
+
+  private HashedWheelTimer timer;
+  private List<String> sent;
+
+  @BeforeEach
+  void setUp() {
+    timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 64, Runnable::run);
+    sent = new CopyOnWriteArrayList<>();
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.shutdown();
+  }
+
+  @Test
+  void testConfirmCompletesMatchingCommand() throws Exception {
+    CommandTracker tracker = tracker(2, 10000, 0);
+
+    CompletableFuture<Void> power = tracker.submit(List.of("Pow"), frame("power"));
+    CompletableFuture<Void> mode = tracker.submit(List.of("Mod", "SetTem"), frame("mode"));
+
+    assertTrue(tracker.confirm(List.of("SetTem", "Mod")));
+    assertTrue(mode.isDone());
+    assertFalse(power.isDone());
+
+    assertTrue(tracker.confirm(List.of("Pow")));
+    assertNull(power.get(1, TimeUnit.SECONDS));
+    assertEquals(0, tracker.getInFlightCount());
+  }
+
+  @Test
+  void testUnknownConfirmationIsIgnored() {
+    CommandTracker tracker = tracker(1, 10000, 0);
+    CompletableFuture<Void> power = tracker.submit(List.of("Pow"), frame("power"));
+
+    assertFalse(tracker.confirm(List.of("Lig")));
+    assertFalse(power.isDone());
+  }
+
+  @Test
+  void testCommandsBeyondDepthAreQueued() {
+    CommandTracker tracker = tracker(1, 10000, 0);
+
+    tracker.submit(List.of("Pow"), frame("first"));
+    CompletableFuture<Void> second = tracker.submit(List.of("Pow"), frame("second"));
+
+    assertEquals(List.of("first"), sent);
+    assertEquals(1, tracker.getQueuedCount());
+
+    tracker.confirm(List.of("Pow"));
+
+    assertEquals(List.of("first", "second"), sent);
+    assertEquals(0, tracker.getQueuedCount());
+    assertFalse(second.isDone());
+  }
+
+  @Test
+  void testUnconfirmedCommandIsResentThenFails() {
+    CommandTracker tracker = tracker(1, 50, 2);
+
+    CompletableFuture<Void> power = tracker.submit(List.of("Pow"), frame("power"));
+
+    ExecutionException exception =
+        assertThrows(ExecutionException.class, () -> power.get(2, TimeUnit.SECONDS));
+    assertInstanceOf(HvacException.class, exception.getCause());
+    assertEquals(List.of("power", "power", "power"), sent);
+    assertEquals(0, tracker.getInFlightCount());
+  }
+
+  @Test
+  void testRetransmittedCommandCanStillBeConfirmed() throws Exception {
+    CommandTracker tracker = tracker(1, 50, 5);
+
+    CompletableFuture<Void> power = tracker.submit(List.of("Pow"), frame("power"));
+    while (sent.size() < 2) {
+      Thread.sleep(10);
+    }
+
+    assertTrue(tracker.confirm(List.of("Pow")));
+    assertNull(power.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testSendFailureFailsCommandAndSendsNext() {
+    CommandTracker tracker =
+        new CommandTracker(
+            timer,
+            data -> {
+              String frame = new String(data);
+              sent.add(frame);
+              if (frame.equals("broken")) {
+                throw new IOException("Send failed");
+              }
+            },
+            1,
+            10000,
+            0);
+
+    CompletableFuture<Void> broken = tracker.submit(List.of("Pow"), frame("broken"));
+    CompletableFuture<Void> next = tracker.submit(List.of("Mod"), frame("next"));
+
+    assertTrue(broken.isCompletedExceptionally());
+    assertEquals(List.of("broken", "next"), sent);
+    assertFalse(next.isDone());
+  }
+
+  @Test
+  void testFailAllFailsPendingCommands() {
+    CommandTracker tracker = tracker(1, 10000, 0);
+    CompletableFuture<Void> first = tracker.submit(List.of("Pow"), frame("first"));
+    CompletableFuture<Void> second = tracker.submit(List.of("Mod"), frame("second"));
+
+    tracker.failAll(new HvacException("Connection reset"));
+
+    assertTrue(first.isCompletedExceptionally());
+    assertTrue(second.isCompletedExceptionally());
+    assertEquals(List.of("first"), sent);
+    assertEquals(0, tracker.getInFlightCount());
+    assertEquals(0, tracker.getQueuedCount());
+  }
+
+  @Test
+  void testConstructorRejectsInvalidDepth() {
+    assertThrows(IllegalArgumentException.class, () -> tracker(0, 1000, 0));
+  }
+
+  private CommandTracker tracker(int maxInFlight, long timeout, int retries) {
+    return new CommandTracker(
+        timer, data -> sent.add(new String(data)), maxInFlight, timeout, retries);
+  }
+
+  private static byte[] frame(String name) {
+    return name.getBytes();
+  }
+}
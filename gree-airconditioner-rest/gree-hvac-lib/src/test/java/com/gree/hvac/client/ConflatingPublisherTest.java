@@ -0,0 +1,177 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ConflatingPublisherTest {
+
+  @Test
+  void testDeliversOnlyRequestedItems() {
+    ConflatingPublisher<String> publisher = new ConflatingPublisher<>(Runnable::run);
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    publisher.subscribe(subscriber);
+
+    publisher.submit("a");
+    assertEquals(List.of(), subscriber.items);
+
+    subscriber.request(1);
+    assertEquals(List.of("a"), subscriber.items);
+
+    publisher.submit("b");
+    assertEquals(List.of("a"), subscriber.items);
+    subscriber.request(5);
+    publisher.submit("c");
+    assertEquals(List.of("a", "b", "c"), subscriber.items);
+  }
+
+  @Test
+  void testConflatesUpdatesForSlowSubscriber() {
+    ConflatingPublisher<Integer> publisher = new ConflatingPublisher<>(Runnable::run);
+    RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+    publisher.subscribe(subscriber);
+
+    for (int i = 1; i <= 10; i++) {
+      publisher.submit(i);
+    }
+    subscriber.request(Long.MAX_VALUE);
+
+    assertEquals(List.of(10), subscriber.items);
+  }
+
+  @Test
+  void testConflatesPerKey() {
+    ConflatingPublisher<String> publisher =
+        new ConflatingPublisher<>(Runnable::run, item -> item.charAt(0));
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    publisher.subscribe(subscriber);
+
+    publisher.submit("a1");
+    publisher.submit("b1");
+    publisher.submit("a2");
+    subscriber.request(10);
+
+    assertEquals(List.of("b1", "a2"), subscriber.items);
+  }
+
+  @Test
+  void testNewSubscriberReceivesLatestItem() {
+    ConflatingPublisher<String> publisher = new ConflatingPublisher<>(Runnable::run);
+    publisher.submit("old");
+    publisher.submit("latest");
+
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    publisher.subscribe(subscriber);
+    subscriber.request(10);
+
+    assertEquals(List.of("latest"), subscriber.items);
+  }
+
+  @Test
+  void testCloseCompletesAfterPendingItems() {
+    ConflatingPublisher<String> publisher = new ConflatingPublisher<>(Runnable::run);
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    publisher.subscribe(subscriber);
+    publisher.submit("last");
+
+    publisher.close();
+    assertFalse(subscriber.completed);
+    assertFalse(publisher.submit("ignored"));
+
+    subscriber.request(1);
+    assertEquals(List.of("last"), subscriber.items);
+    assertTrue(subscriber.completed);
+
+    RecordingSubscriber<String> late = new RecordingSubscriber<>();
+    publisher.subscribe(late);
+    assertTrue(late.completed);
+  }
+
+  @Test
+  void testCancelStopsDelivery() {
+    ConflatingPublisher<String> publisher = new ConflatingPublisher<>(Runnable::run);
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    publisher.subscribe(subscriber);
+    subscriber.request(10);
+
+    subscriber.subscription.cancel();
+    publisher.submit("a");
+
+    assertEquals(List.of(), subscriber.items);
+    assertFalse(publisher.hasSubscribers());
+  }
+
+  @Test
+  void testNonPositiveRequestSignalsError() {
+    ConflatingPublisher<String> publisher = new ConflatingPublisher<>(Runnable::run);
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+    publisher.subscribe(subscriber);
+
+    subscriber.request(0);
+
+    assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+    assertEquals(0, publisher.getSubscriberCount());
+  }
+
+  @Test
+  void testDeliversAsynchronouslyByDefault() throws Exception {
+    ConflatingPublisher<String> publisher = new ConflatingPublisher<>();
+    CountDownLatch received = new CountDownLatch(1);
+    List<Thread> threads = new CopyOnWriteArrayList<>();
+    publisher.subscribe(
+        new RecordingSubscriber<>() {
+          @Override
+          public void onSubscribe(Flow.Subscription subscription) {
+            super.onSubscribe(subscription);
+            subscription.request(1);
+          }
+
+          @Override
+          public void onNext(String item) {
+            threads.add(Thread.currentThread());
+            received.countDown();
+          }
+        });
+
+    publisher.submit("a");
+
+    assertTrue(received.await(2, TimeUnit.SECONDS));
+    assertNotEquals(Thread.currentThread(), threads.get(0));
+  }
+
+  static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+    final List<T> items = new CopyOnWriteArrayList<>();
+    volatile Flow.Subscription subscription;
+    volatile Throwable error;
+    volatile boolean completed;
+
+    void request(long n) {
+      subscription.request(n);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(T item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.gree.hvac.protocol.Property;
+import com.gree.hvac.protocol.PropertyTransformer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DeviceStateTest {
+
+  private DeviceState state;
+  private PropertyTransformer transformer;
+
+  @BeforeEach
+  void setUp() {
+    state = new DeviceState();
+    transformer = new PropertyTransformer();
+  }
+
+  @Test
+  void testEmptyState() {
+    DeviceState.Snapshot snapshot = state.snapshot();
+
+    assertTrue(snapshot.isEmpty());
+    assertEquals(0, snapshot.size());
+    assertFalse(snapshot.has(Property.POWER));
+    assertNull(snapshot.get(Property.POWER));
+  }
+
+  @Test
+  void testUpdateStoresValuesByProperty() {
+    assertTrue(state.update(transformer, List.of("Pow", "SetTem", "TemSen"), List.of(1, 24, 63)));
+
+    DeviceState.Snapshot snapshot = state.snapshot();
+    assertEquals(3, snapshot.size());
+    assertEquals(1, snapshot.get(Property.POWER));
+    assertEquals(24, snapshot.get(Property.TEMPERATURE));
+    assertEquals(63, snapshot.get(Property.CURRENT_TEMPERATURE));
+    assertFalse(snapshot.has(Property.MODE));
+  }
+
+  @Test
+  void testUpdateReportsChangesOnly() {
+    state.update(transformer, List.of("Pow", "Mod"), List.of(1, 1));
+
+    assertFalse(state.update(transformer, List.of("Pow", "Mod"), List.of(1, 1)));
+    assertFalse(state.update(transformer, List.of("Pow"), List.of(1)));
+    assertTrue(state.update(transformer, List.of("Pow", "Mod"), List.of(1, 4)));
+    assertTrue(state.update(transformer, List.of("Lig"), List.of(0)));
+  }
+
+  @Test
+  void testZeroValueIsPresent() {
+    assertTrue(state.update(transformer, List.of("Pow"), List.of(0)));
+
+    assertTrue(state.snapshot().has(Property.POWER));
+    assertEquals(0, state.snapshot().get(Property.POWER));
+  }
+
+  @Test
+  void testUnknownColumnsAreIgnored() {
+    assertFalse(state.update(transformer, List.of("Unknown"), List.of(5)));
+
+    assertTrue(state.snapshot().isEmpty());
+  }
+
+  @Test
+  void testMismatchedLengthsUseShorterList() {
+    state.update(transformer, List.of("Pow", "Mod"), List.of(1));
+
+    assertEquals(1, state.snapshot().size());
+  }
+
+  @Test
+  void testNonIntegerValuesAreKept() {
+    state.update(transformer, List.of("TemSen", "Mod"), List.of(new BigDecimal("23.5"), "x"));
+
+    DeviceState.Snapshot snapshot = state.snapshot();
+    assertEquals(new BigDecimal("23.5"), snapshot.get(Property.CURRENT_TEMPERATURE));
+    assertEquals("x", snapshot.get(Property.MODE));
+
+    assertFalse(state.update(transformer, List.of("Mod"), List.of("x")));
+    assertTrue(state.update(transformer, List.of("Mod"), List.of(1)));
+    assertEquals(1, state.snapshot().get(Property.MODE));
+    assertTrue(state.update(transformer, List.of("Mod"), List.of(1L)));
+  }
+
+  @Test
+  void testSnapshotIsNotAffectedByLaterUpdates() {
+    state.update(transformer, List.of("Pow"), List.of(1));
+    DeviceState.Snapshot snapshot = state.snapshot();
+
+    state.update(transformer, List.of("Pow"), List.of(0));
+    state.clear();
+
+    assertEquals(1, snapshot.get(Property.POWER));
+  }
+
+  @Test
+  void testClear() {
+    state.update(transformer, List.of("Pow", "Mod"), List.of(1, "x"));
+
+    state.clear();
+
+    assertTrue(state.snapshot().isEmpty());
+    assertTrue(state.update(transformer, List.of("Pow"), List.of(1)));
+  }
+
+  @Test
+  void testSnapshotEqualsAndToString() {
+    state.update(transformer, List.of("Pow", "SetTem"), List.of(1, 24));
+    DeviceState other = new DeviceState();
+    other.update(transformer, List.of("SetTem", "Pow"), List.of(24, 1));
+
+    assertEquals(state.snapshot(), other.snapshot());
+    assertEquals(state.snapshot().hashCode(), other.snapshot().hashCode());
+    assertEquals("{power=1, temperature=24}", state.snapshot().toString());
+
+    other.update(transformer, List.of("Pow"), List.of(0));
+    assertNotEquals(state.snapshot(), other.snapshot());
+  }
+
+  @Test
+  void testListenerReceivesEachChangeWithVersion() {
+    state.update(transformer, List.of("Pow", "Mod"), List.of(1, 1));
+    assertEquals(2, state.getVersion());
+
+    List<String> changes = new ArrayList<>();
+    boolean changed =
+        state.update(
+            transformer,
+            List.of("Pow", "Mod", "Lig"),
+            List.of(0, 1, 1),
+            (property, oldValue, newValue, version) ->
+                changes.add(property + ":" + oldValue + "->" + newValue + "@" + version));
+
+    assertTrue(changed);
+    assertEquals(List.of("power:1->0@3", "lights:null->1@4"), changes);
+    assertEquals(4, state.getVersion());
+  }
+
+  @Test
+  void testListenerIsNotCalledWithoutChanges() {
+    state.update(transformer, List.of("Pow"), List.of(1));
+
+    assertFalse(
+        state.update(
+            transformer,
+            List.of("Pow"),
+            List.of(1),
+            (property, oldValue, newValue, version) -> fail("Unexpected change of " + property)));
+    assertEquals(1, state.getVersion());
+  }
+}
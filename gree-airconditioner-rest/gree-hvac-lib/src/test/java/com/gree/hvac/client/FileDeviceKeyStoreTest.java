@@ -0,0 +1,88 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileDeviceKeyStoreTest {
+
+  private static final DeviceKey LIVING_ROOM =
+      new DeviceKey("f4911e7aca59", "192.168.1.100", "ecb", "a3K8Bx%2r8Y7#xDh");
+  private static final DeviceKey BEDROOM =
+      new DeviceKey("c8f742aa0b11", "192.168.1.101", "gcm", "0123456789abcdef");
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testKeysSurviveRestart() {
+    Path file = tempDir.resolve("keys.json");
+    FileDeviceKeyStore store = new FileDeviceKeyStore(file);
+    assertNull(store.find("192.168.1.100"));
+
+    store.save(LIVING_ROOM);
+    store.save(BEDROOM);
+
+    FileDeviceKeyStore reopened = new FileDeviceKeyStore(file);
+    assertEquals(LIVING_ROOM, reopened.find("192.168.1.100"));
+    assertEquals(BEDROOM, reopened.find("192.168.1.101"));
+  }
+
+  @Test
+  void testSaveReplacesKeyOfSameDeviceOrHost() {
+    FileDeviceKeyStore store = new FileDeviceKeyStore(tempDir.resolve("keys.json"));
+    store.save(LIVING_ROOM);
+
+    // The device moved to another address
+    DeviceKey moved = new DeviceKey("f4911e7aca59", "192.168.1.150", "ecb", "a3K8Bx%2r8Y7#xDh");
+    store.save(moved);
+    assertNull(store.find("192.168.1.100"));
+    assertEquals(moved, store.find("192.168.1.150"));
+
+    // Another device took over the address
+    DeviceKey replacement =
+        new DeviceKey("0a1b2c3d4e5f", "192.168.1.150", "ecb", "fedcba9876543210");
+    store.save(replacement);
+    assertEquals(replacement, store.find("192.168.1.150"));
+  }
+
+  @Test
+  void testRemove() {
+    Path file = tempDir.resolve("keys.json");
+    FileDeviceKeyStore store = new FileDeviceKeyStore(file);
+    store.save(LIVING_ROOM);
+
+    store.remove("f4911e7aca59");
+
+    assertNull(store.find("192.168.1.100"));
+    assertNull(new FileDeviceKeyStore(file).find("192.168.1.100"));
+  }
+
+  @Test
+  void testUnreadableFileIsTreatedAsEmpty() throws Exception {
+    Path file = tempDir.resolve("keys.json");
+    Files.writeString(file, "not json");
+
+    FileDeviceKeyStore store = new FileDeviceKeyStore(file);
+    assertNull(store.find("192.168.1.100"));
+
+    store.save(LIVING_ROOM);
+    assertEquals(LIVING_ROOM, new FileDeviceKeyStore(file).find("192.168.1.100"));
+  }
+
+  @Test
+  void testCreatesMissingDirectories() {
+    Path file = tempDir.resolve("state").resolve("gree").resolve("keys.json");
+
+    new FileDeviceKeyStore(file).save(LIVING_ROOM);
+
+    assertTrue(Files.exists(file));
+  }
+
+  @Test
+  void testToStringHidesKey() {
+    assertFalse(LIVING_ROOM.toString().contains(LIVING_ROOM.getKey()));
+  }
+}
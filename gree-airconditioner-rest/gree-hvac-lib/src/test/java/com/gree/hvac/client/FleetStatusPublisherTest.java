@@ -0,0 +1,139 @@
+package com.gree.hvac.client;
+
+import static com.gree.hvac.client.HvacClientTest.datagram;
+import static com.gree.hvac.client.HvacClientTest.devDatagram;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.gree.hvac.client.ConflatingPublisherTest.RecordingSubscriber;
+import com.gree.hvac.dto.DeviceStatus;
+import com.gree.hvac.network.MockNetworkService;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FleetStatusPublisherTest {
+
+  private MockNetworkService livingRoomNetwork;
+  private MockNetworkService bedroomNetwork;
+  private HvacClient livingRoom;
+  private HvacClient bedroom;
+  private FleetStatusPublisher fleet;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    livingRoomNetwork = new MockNetworkService();
+    bedroomNetwork = new MockNetworkService();
+    livingRoom = connectedClient("192.168.1.100", livingRoomNetwork, "f4911e7aca59");
+    bedroom = connectedClient("192.168.1.101", bedroomNetwork, "c8f742aa0b11");
+    fleet = new FleetStatusPublisher(Runnable::run);
+  }
+
+  @AfterEach
+  void tearDown() {
+    fleet.close();
+    livingRoom.shutdown();
+    bedroom.shutdown();
+  }
+
+  @Test
+  void testMergesClientsAndConflatesPerDevice() throws Exception {
+    fleet.add(livingRoom);
+    fleet.add(bedroom);
+    RecordingSubscriber<DeviceStatus> subscriber = new RecordingSubscriber<>();
+    fleet.subscribe(subscriber);
+
+    sendTemperature(livingRoomNetwork, 20);
+    sendTemperature(bedroomNetwork, 22);
+    sendTemperature(livingRoomNetwork, 21);
+    subscriber.request(10);
+
+    assertEquals(
+        Map.of("f4911e7aca59", 21, "c8f742aa0b11", 22), temperaturesByDevice(subscriber.items));
+    assertEquals(2, subscriber.items.size());
+  }
+
+  @Test
+  void testNewSubscriberStartsWithLatestStatusOfEachDevice() throws Exception {
+    fleet.add(livingRoom);
+    fleet.add(bedroom);
+    sendTemperature(livingRoomNetwork, 20);
+    sendTemperature(bedroomNetwork, 22);
+
+    RecordingSubscriber<DeviceStatus> subscriber = new RecordingSubscriber<>();
+    fleet.subscribe(subscriber);
+    subscriber.request(10);
+
+    assertEquals(
+        Map.of("f4911e7aca59", 20, "c8f742aa0b11", 22), temperaturesByDevice(subscriber.items));
+  }
+
+  @Test
+  void testRemovedClientIsForgotten() throws Exception {
+    fleet.add(livingRoom);
+    fleet.add(bedroom);
+    sendTemperature(livingRoomNetwork, 20);
+    sendTemperature(bedroomNetwork, 22);
+
+    fleet.remove(bedroom);
+    sendTemperature(bedroomNetwork, 23);
+    assertEquals(1, fleet.getClientCount());
+
+    RecordingSubscriber<DeviceStatus> subscriber = new RecordingSubscriber<>();
+    fleet.subscribe(subscriber);
+    subscriber.request(10);
+
+    assertEquals(Map.of("f4911e7aca59", 20), temperaturesByDevice(subscriber.items));
+  }
+
+  @Test
+  void testShutdownClientLeavesFleet() throws Exception {
+    fleet.add(livingRoom);
+    fleet.add(bedroom);
+
+    bedroom.shutdown();
+
+    assertEquals(1, fleet.getClientCount());
+  }
+
+  @Test
+  void testCloseCompletesSubscribers() {
+    fleet.add(livingRoom);
+    RecordingSubscriber<DeviceStatus> subscriber = new RecordingSubscriber<>();
+    fleet.subscribe(subscriber);
+
+    fleet.close();
+
+    assertTrue(subscriber.completed);
+    assertEquals(0, fleet.getClientCount());
+  }
+
+  private static HvacClient connectedClient(
+      String host, MockNetworkService networkService, String mac) throws Exception {
+    HvacClient client =
+        new HvacClient(
+            new HvacClientOptions(host)
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setListenerExecutor(Runnable::run),
+            networkService);
+    client.connect();
+    networkService.simulateMessageToAll(devDatagram(mac));
+    return client;
+  }
+
+  private static void sendTemperature(MockNetworkService networkService, int temperature)
+      throws Exception {
+    networkService.simulateMessageToAll(
+        datagram("dat", "cols", List.of("SetTem"), List.of(temperature)));
+  }
+
+  private static Map<String, Integer> temperaturesByDevice(List<DeviceStatus> statuses) {
+    return statuses.stream()
+        .collect(
+            Collectors.toMap(DeviceStatus::getDeviceId, DeviceStatus::getTemperature, (a, b) -> b));
+  }
+}
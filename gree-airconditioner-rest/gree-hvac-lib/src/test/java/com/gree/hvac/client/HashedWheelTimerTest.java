@@ -0,0 +1,136 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+  private HashedWheelTimer timer;
+
+  @BeforeEach
+  void setUp() {
+    // Few buckets so that longer delays wrap around the wheel
+    timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8, Runnable::run);
+  }
+
+  @AfterEach
+  void tearDown() {
+    timer.shutdown();
+  }
+
+  @Test
+  void testRunsTaskAfterDelay() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicLong ranAt = new AtomicLong();
+    long start = System.nanoTime();
+
+    timer.schedule(
+        () -> {
+          ranAt.set(System.nanoTime());
+          latch.countDown();
+        },
+        30,
+        TimeUnit.MILLISECONDS);
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(ranAt.get() - start) >= 30);
+    assertEquals(0, timer.getPendingTimeouts());
+  }
+
+  @Test
+  void testCancelledTaskDoesNotRun() throws Exception {
+    AtomicBoolean ran = new AtomicBoolean();
+    HvacTimer.Timeout timeout = timer.schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+    assertEquals(1, timer.getPendingTimeouts());
+
+    assertTrue(timeout.cancel());
+    assertTrue(timeout.isCancelled());
+    assertFalse(timeout.cancel());
+    assertEquals(0, timer.getPendingTimeouts());
+
+    Thread.sleep(60);
+    assertFalse(ran.get());
+  }
+
+  @Test
+  void testCancelAfterRunReturnsFalse() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    HvacTimer.Timeout timeout = timer.schedule(latch::countDown, 0, TimeUnit.MILLISECONDS);
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    assertFalse(timeout.cancel());
+    assertFalse(timeout.isCancelled());
+  }
+
+  @Test
+  void testRunsManyTimeoutsAcrossWheelRounds() throws Exception {
+    int count = 2000;
+    CountDownLatch latch = new CountDownLatch(count);
+    for (int i = 0; i < count; i++) {
+      timer.schedule(latch::countDown, i % 50, TimeUnit.MILLISECONDS);
+    }
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(0, timer.getPendingTimeouts());
+  }
+
+  @Test
+  void testGetDelayCountsDown() throws Exception {
+    HvacTimer.Timeout timeout = timer.schedule(() -> {}, 1, TimeUnit.SECONDS);
+    long first = timeout.getDelay(TimeUnit.MILLISECONDS);
+    assertTrue(first > 900 && first <= 1000);
+
+    Thread.sleep(20);
+    assertTrue(timeout.getDelay(TimeUnit.MILLISECONDS) < first);
+  }
+
+  @Test
+  void testFailingTaskDoesNotStopTimer() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    timer.schedule(
+        () -> {
+          throw new IllegalStateException("boom");
+        },
+        0,
+        TimeUnit.MILLISECONDS);
+    timer.schedule(latch::countDown, 5, TimeUnit.MILLISECONDS);
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testRejectsTasksAfterShutdown() {
+    timer.shutdown();
+
+    assertThrows(
+        RejectedExecutionException.class, () -> timer.schedule(() -> {}, 1, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testSharedTimerCannotBeShutDown() throws Exception {
+    assertSame(HashedWheelTimer.shared(), HashedWheelTimer.shared());
+    assertThrows(UnsupportedOperationException.class, () -> HashedWheelTimer.shared().shutdown());
+
+    CountDownLatch latch = new CountDownLatch(1);
+    HashedWheelTimer.shared().schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testRejectsInvalidConfiguration() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new HashedWheelTimer(0, TimeUnit.MILLISECONDS, 8, Runnable::run));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 0, Runnable::run));
+  }
+}
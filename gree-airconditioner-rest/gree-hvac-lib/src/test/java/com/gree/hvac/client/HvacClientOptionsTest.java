@@ -2,7 +2,12 @@ package com.gree.hvac.client;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.gree.hvac.protocol.Property;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executor;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class HvacClientOptionsTest {
 
@@ -282,4 +287,167 @@ class HvacClientOptionsTest {
     assertEquals(emptyLogLevel, options.getLogLevel());
     assertSame(options, result);
   }
+
+  @Test
+  void testAddressCacheDefaults() {
+    HvacClientOptions options = new HvacClientOptions();
+
+    assertEquals(60000, options.getAddressCacheTtl());
+    assertEquals(5000, options.getAddressNegativeCacheTtl());
+  }
+
+  @Test
+  void testSetAddressCacheTtls() {
+    HvacClientOptions options = new HvacClientOptions();
+
+    HvacClientOptions result = options.setAddressCacheTtl(1000).setAddressNegativeCacheTtl(200);
+
+    assertEquals(1000, options.getAddressCacheTtl());
+    assertEquals(200, options.getAddressNegativeCacheTtl());
+    assertSame(options, result);
+  }
+
+  @Test
+  void testStreamingCodecOption() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+
+    assertFalse(options.isStreamingCodec());
+    assertSame(options, options.setStreamingCodec(true));
+    assertTrue(options.isStreamingCodec());
+  }
+
+  @Test
+  void testCommandOptions() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+
+    assertEquals(1000, options.getCommandTimeout());
+    assertEquals(2, options.getCommandRetries());
+    assertEquals(1, options.getMaxInFlightCommands());
+
+    HvacClientOptions result =
+        options.setCommandTimeout(250).setCommandRetries(0).setMaxInFlightCommands(4);
+
+    assertSame(options, result);
+    assertEquals(250, options.getCommandTimeout());
+    assertEquals(0, options.getCommandRetries());
+    assertEquals(4, options.getMaxInFlightCommands());
+  }
+
+  @Test
+  void testCommandCoalesceWindowOption() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+
+    assertEquals(0, options.getCommandCoalesceWindow());
+    assertSame(options, options.setCommandCoalesceWindow(150));
+    assertEquals(150, options.getCommandCoalesceWindow());
+  }
+
+  @Test
+  void testAdaptivePollingOptions() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+
+    assertFalse(options.isAdaptivePolling());
+    assertEquals(1000, options.getFastPollingInterval());
+    assertEquals(30000, options.getMaxPollingInterval());
+    assertEquals(60, options.getMaxPollsPerMinute());
+
+    HvacClientOptions result =
+        options
+            .setAdaptivePolling(true)
+            .setFastPollingInterval(500)
+            .setMaxPollingInterval(60000)
+            .setMaxPollsPerMinute(20);
+
+    assertSame(options, result);
+    assertTrue(options.isAdaptivePolling());
+    assertEquals(500, options.getFastPollingInterval());
+    assertEquals(60000, options.getMaxPollingInterval());
+    assertEquals(20, options.getMaxPollsPerMinute());
+  }
+
+  @Test
+  void testTieredPollingOptions() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+
+    assertEquals(1, options.getFullPollEvery());
+    assertTrue(options.getFastPollProperties().contains(Property.CURRENT_TEMPERATURE));
+
+    HvacClientOptions result =
+        options.setFastPollProperties(List.of(Property.POWER)).setFullPollEvery(10);
+
+    assertSame(options, result);
+    assertEquals(List.of(Property.POWER), options.getFastPollProperties());
+    assertEquals(10, options.getFullPollEvery());
+  }
+
+  @Test
+  void testTimerOption() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+    assertNull(options.getTimer());
+
+    HvacTimer timer = (task, delay, unit) -> null;
+    assertSame(options, options.setTimer(timer));
+    assertSame(timer, options.getTimer());
+  }
+
+  @Test
+  void testListenerOptions() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+
+    assertNull(options.getListenerExecutor());
+    assertEquals(100, options.getListenerQueueCapacity());
+    assertEquals(OverflowPolicy.DROP_OLDEST, options.getListenerOverflowPolicy());
+    assertEquals(1000, options.getListenerLateThreshold());
+
+    Executor executor = Runnable::run;
+    HvacClientOptions result =
+        options
+            .setListenerExecutor(executor)
+            .setListenerQueueCapacity(10)
+            .setListenerOverflowPolicy(OverflowPolicy.CONFLATE_LATEST)
+            .setListenerLateThreshold(200);
+
+    assertSame(options, result);
+    assertSame(executor, options.getListenerExecutor());
+    assertEquals(10, options.getListenerQueueCapacity());
+    assertEquals(OverflowPolicy.CONFLATE_LATEST, options.getListenerOverflowPolicy());
+    assertEquals(200, options.getListenerLateThreshold());
+  }
+
+  @Test
+  void testKeyStoreOption(@TempDir Path tempDir) {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+    assertNull(options.getKeyStore());
+
+    DeviceKeyStore keyStore = new FileDeviceKeyStore(tempDir.resolve("keys.json"));
+    assertSame(options, options.setKeyStore(keyStore));
+    assertSame(keyStore, options.getKeyStore());
+  }
+
+  @Test
+  void testPollPhaseOptions() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+    assertNull(options.getPollPhaseAllocator());
+    assertEquals(0, options.getPollJitter());
+
+    PollPhaseAllocator allocator = new PollPhaseAllocator();
+    HvacClientOptions result = options.setPollPhaseAllocator(allocator).setPollJitter(250);
+
+    assertSame(options, result);
+    assertSame(allocator, options.getPollPhaseAllocator());
+    assertEquals(250, options.getPollJitter());
+  }
+
+  @Test
+  void testSendRateOptions() {
+    HvacClientOptions options = new HvacClientOptions("192.168.1.100");
+    assertEquals(0, options.getMaxSendRate());
+    assertEquals(5, options.getSendBurst());
+
+    HvacClientOptions result = options.setMaxSendRate(2.5).setSendBurst(3);
+
+    assertSame(options, result);
+    assertEquals(2.5, options.getMaxSendRate());
+    assertEquals(3, options.getSendBurst());
+  }
 }
@@ -6,16 +6,31 @@ import com.gree.hvac.dto.DeviceControl;
 import com.gree.hvac.dto.DeviceStatus;
 import com.gree.hvac.exceptions.HvacException;
 import com.gree.hvac.network.MockNetworkService;
+import com.gree.hvac.protocol.EncryptionService;
+import com.gree.hvac.protocol.Property;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -435,4 +450,735 @@ class HvacClientTest {
           connect.cancel(true);
         });
   }
+
+  @Test
+  void testStreamingCodecMatchesJsonPath() throws Exception {
+    JSONObject pack = new JSONObject();
+    pack.put("t", "dat");
+    pack.put("mac", "f4911e7aca59");
+    pack.put("cols", new JSONArray(List.of("Pow", "Mod", "SetTem", "TemSen", "WdSpd", "Lig")));
+    pack.put("dat", new JSONArray(List.of(1, 1, 24, 63, 2, 1)));
+
+    JSONObject frame = new JSONObject();
+    frame.put("t", "pack");
+    frame.put("pack", new EncryptionService().encrypt(pack).getPayload());
+    byte[] datagram = frame.toString().getBytes(StandardCharsets.UTF_8);
+
+    Map<String, Object> jsonProperties = receiveStatus(false, datagram);
+    Map<String, Object> streamedProperties = receiveStatus(true, datagram);
+
+    assertEquals(6, jsonProperties.size());
+    assertEquals(jsonProperties, streamedProperties);
+  }
+
+  private Map<String, Object> receiveStatus(boolean streamingCodec, byte[] datagram)
+      throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setStreamingCodec(streamingCodec),
+            networkService);
+    try {
+      CountDownLatch updated = new CountDownLatch(1);
+      testClient.onStatusUpdate(status -> updated.countDown());
+      testClient.connect();
+
+      networkService.simulateMessageToAll(datagram);
+
+      assertTrue(updated.await(2, TimeUnit.SECONDS));
+      return testClient.getCurrentProperties();
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testStatusResponseUpdatesState() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                // Deliver events on the receive thread so they can be asserted right away
+                .setListenerExecutor(Runnable::run),
+            networkService);
+    try {
+      List<DeviceStatus> updates = new CopyOnWriteArrayList<>();
+      testClient.onStatusUpdate(updates::add);
+      testClient.connect();
+
+      byte[] status =
+          datagram("dat", "cols", List.of("Pow", "Mod", "TemSen", "Lig"), List.of(1, 1, 63, 0));
+      networkService.simulateMessageToAll(status);
+      networkService.simulateMessageToAll(status);
+
+      assertEquals(1, updates.size());
+      DeviceStatus deviceStatus = updates.get(0);
+      assertTrue(deviceStatus.getPower());
+      assertEquals("cool", deviceStatus.getMode());
+      assertEquals(23, deviceStatus.getCurrentTemperature());
+      assertFalse(deviceStatus.getLights());
+      assertNull(deviceStatus.getTurbo());
+      assertEquals(4, testClient.getState().size());
+
+      networkService.simulateMessageToAll(datagram("res", "opt", List.of("Pow"), List.of(0)));
+
+      assertFalse(testClient.getStatus().getPower());
+      assertEquals("off", testClient.getCurrentProperties().get("power"));
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testControlCompletesWhenDeviceConfirms() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setCommandTimeout(10000),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+
+      DeviceControl control = new DeviceControl();
+      control.setPower(false);
+      control.setLights(true);
+      CompletableFuture<Void> result = testClient.control(control);
+
+      assertFalse(result.isDone());
+
+      networkService.simulateMessageToAll(datagram("res", "opt", List.of("Lig"), List.of(1)));
+      assertFalse(result.isDone());
+
+      networkService.simulateMessageToAll(
+          datagram("res", "opt", List.of("Lig", "Pow"), List.of(1, 0)));
+      assertNull(result.get(1, TimeUnit.SECONDS));
+      assertFalse(testClient.getStatus().getPower());
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testUnconfirmedCommandFails() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setCommandTimeout(50)
+                .setCommandRetries(1),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+
+      CompletableFuture<Void> result = testClient.setProperties(Map.of("power", "on"));
+
+      Exception exception = assertThrows(Exception.class, () -> result.get(2, TimeUnit.SECONDS));
+      assertInstanceOf(HvacException.class, exception.getCause());
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testCoalescedWritesShareOneCommand() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setCommandTimeout(10000)
+                .setCommandCoalesceWindow(100),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+
+      List<CompletableFuture<Void>> writes = new ArrayList<>();
+      for (int temperature = 20; temperature <= 26; temperature++) {
+        writes.add(testClient.setProperties(Map.of("temperature", temperature)));
+      }
+      writes.add(testClient.setProperties(Map.of("power", "on")));
+
+      // Only the merged command is confirmed, and it completes every write
+      networkService.simulateMessageToAll(
+          datagram("res", "opt", List.of("SetTem", "Pow"), List.of(26, 1)));
+      Thread.sleep(200);
+      assertFalse(writes.get(0).isDone());
+
+      networkService.simulateMessageToAll(
+          datagram("res", "opt", List.of("SetTem", "Pow"), List.of(26, 1)));
+      for (CompletableFuture<Void> write : writes) {
+        assertNull(write.get(1, TimeUnit.SECONDS));
+      }
+      assertEquals(26, testClient.getStatus().getTemperature());
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testTieredPollingRequestsFastColumnsBetweenFullPolls() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setConnectTimeout(10000)
+                .setPollingInterval(20)
+                .setPollingTimeout(10000)
+                .setFastPollProperties(List.of(Property.POWER, Property.CURRENT_TEMPERATURE))
+                .setFullPollEvery(3),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+
+      List<Integer> polledColumns = new ArrayList<>();
+      long deadline = System.currentTimeMillis() + 2000;
+      while (polledColumns.size() < 7 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20);
+        polledColumns = statusRequestColumnCounts(networkService);
+      }
+
+      // The initial request is full, then every third poll
+      assertEquals(List.of(17, 2, 2, 17, 2, 2, 17), polledColumns.subList(0, 7));
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  private static List<Integer> statusRequestColumnCounts(MockNetworkService networkService)
+      throws Exception {
+    EncryptionService encryptionService = new EncryptionService();
+    List<Integer> counts = new ArrayList<>();
+    for (byte[] message : networkService.getSentMessages()) {
+      JSONObject frame = new JSONObject(new String(message, StandardCharsets.UTF_8));
+      if (frame.has("pack")) {
+        JSONObject pack = encryptionService.decrypt(frame);
+        if ("status".equals(pack.optString("t"))) {
+          counts.add(pack.getJSONArray("cols").length());
+        }
+      }
+    }
+    return counts;
+  }
+
+  @Test
+  void testBindingStoresDeviceKey(@TempDir Path tempDir) throws Exception {
+    FileDeviceKeyStore keyStore = new FileDeviceKeyStore(tempDir.resolve("keys.json"));
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setKeyStore(keyStore),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(devDatagram());
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+
+      assertEquals(
+          new DeviceKey("f4911e7aca59", "192.168.1.100", "ecb", "a3K8Bx%2r8Y7#xDh"),
+          keyStore.find("192.168.1.100"));
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testStoredKeyConnectsWithoutBinding(@TempDir Path tempDir) throws Exception {
+    FileDeviceKeyStore keyStore = new FileDeviceKeyStore(tempDir.resolve("keys.json"));
+    keyStore.save(new DeviceKey("f4911e7aca59", "192.168.1.100", "ecb", "a3K8Bx%2r8Y7#xDh"));
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setPollingTimeout(10000)
+                .setKeyStore(keyStore),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      assertEquals(List.of(17), statusRequestColumnCounts(networkService));
+      assertFalse(sentPlainMessageTypes(networkService).contains("scan"));
+
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(1)));
+      connected.get(1, TimeUnit.SECONDS);
+
+      assertTrue(testClient.isConnected());
+      assertEquals("f4911e7aca59", testClient.getDeviceId());
+      assertTrue(testClient.getStatus().getPower());
+      assertFalse(sentPlainMessageTypes(networkService).contains("scan"));
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testStoredKeyFallsBackToBinding(@TempDir Path tempDir) throws Exception {
+    FileDeviceKeyStore keyStore = new FileDeviceKeyStore(tempDir.resolve("keys.json"));
+    keyStore.save(new DeviceKey("f4911e7aca59", "192.168.1.100", "ecb", "0123456789abcdef"));
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setPollingTimeout(50)
+                .setKeyStore(keyStore),
+            networkService);
+    try {
+      testClient.connect();
+
+      long deadline = System.currentTimeMillis() + 2000;
+      while (!sentPlainMessageTypes(networkService).contains("scan")
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertTrue(sentPlainMessageTypes(networkService).contains("scan"));
+      assertFalse(testClient.isConnected());
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testPollingHoldsPhaseUntilShutdown() throws Exception {
+    PollPhaseAllocator allocator = new PollPhaseAllocator();
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setConnectTimeout(10000)
+                .setPollingInterval(20)
+                .setPollingTimeout(10000)
+                .setPollJitter(5)
+                .setPollPhaseAllocator(allocator),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+      assertEquals(1, allocator.getClientCount());
+
+      long deadline = System.currentTimeMillis() + 2000;
+      while (statusRequestColumnCounts(networkService).size() < 4
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20);
+      }
+      assertTrue(statusRequestColumnCounts(networkService).size() >= 4);
+      assertTrue(allocator.getBurstWidth() > 0);
+    } finally {
+      testClient.shutdown();
+    }
+    assertEquals(0, allocator.getClientCount());
+  }
+
+  @Test
+  void testRateLimitedCommandOvertakesWaitingPoll() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setPollingTimeout(10000)
+                .setCommandTimeout(10000)
+                .setMaxSendRate(5)
+                .setSendBurst(1),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      // The scan took the only token, so the initial status request has to wait
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+      testClient.setProperties(Map.of("power", "on"));
+      assertEquals(2, testClient.getOutboundMetrics().getQueuedFrames());
+
+      long deadline = System.currentTimeMillis() + 2000;
+      while (testClient.getOutboundMetrics().getQueuedFrames() > 0
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20);
+      }
+
+      assertEquals(List.of("cmd", "status"), sentPackTypes(networkService));
+      OutboundMetrics metrics = testClient.getOutboundMetrics();
+      assertEquals(3, metrics.getSentFrames());
+      // The status request was queued before the command and left one token interval (200ms)
+      // after it; a slow bind reply shortens its wait, but never below that interval
+      assertTrue(metrics.getMaxWait() >= 180, metrics.toString());
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testStatusTimeoutKeepsLastStateAsStale() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setPollingTimeout(50),
+            networkService);
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(1)));
+      assertFalse(testClient.getStatus().isStale());
+
+      // Nobody answers the revalidation
+      CompletableFuture<DeviceStatus> fresh = testClient.getStatus(Duration.ZERO);
+      ExecutionException timeout =
+          assertThrows(ExecutionException.class, () -> fresh.get(1, TimeUnit.SECONDS));
+      assertInstanceOf(HvacException.class, timeout.getCause());
+
+      int requests = statusRequestColumnCounts(networkService).size();
+      DeviceStatus stale = testClient.getStatus();
+      assertTrue(stale.isStale());
+      assertTrue(stale.getPower());
+      assertNotNull(stale.getLastUpdated());
+      assertTrue(testClient.getStatusAge().toMillis() >= 50);
+      // Reading stale values revalidates in the background
+      assertEquals(requests + 1, statusRequestColumnCounts(networkService).size());
+
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(1)));
+      assertFalse(testClient.getStatus().isStale());
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testConcurrentRevalidationNeverLeavesAnsweredStatusStale() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setConnectTimeout(10000)
+                .setPollingInterval(5)
+                .setPollingTimeout(500),
+            networkService);
+    List<DeviceStatus> staleUpdates = new CopyOnWriteArrayList<>();
+    AtomicInteger noResponses = new AtomicInteger();
+    testClient.onStatusUpdate(
+        status -> {
+          if (status.isStale()) {
+            staleUpdates.add(status);
+          }
+        });
+    testClient.onNoResponse(noResponses::incrementAndGet);
+    AtomicBoolean running = new AtomicBoolean(true);
+
+    // The device answers every request with a dat frame
+    Thread device =
+        new Thread(
+            () -> {
+              int answered = 0;
+              while (running.get()) {
+                try {
+                  int sent = networkService.getSentMessages().size();
+                  if (sent > answered) {
+                    answered = sent;
+                    networkService.simulateMessageToAll(
+                        datagram("dat", "cols", List.of("Pow"), List.of(1)));
+                  }
+                  Thread.sleep(1);
+                } catch (Exception e) {
+                  return;
+                }
+              }
+            });
+    try {
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+      device.start();
+
+      // Callers revalidate while the timer polls
+      long deadline = System.currentTimeMillis() + 1000;
+      while (System.currentTimeMillis() < deadline) {
+        testClient.getStatus(Duration.ZERO);
+        Thread.sleep(1);
+      }
+      // Leave time for any timeout lost in the race to fire
+      Thread.sleep(700);
+
+      assertFalse(testClient.getStatus().isStale());
+      assertTrue(staleUpdates.isEmpty());
+      assertEquals(0, noResponses.get());
+    } finally {
+      running.set(false);
+      device.join(1000);
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testGetStatusWithinStalenessBoundSendsNoRequest() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setPollingTimeout(10000),
+            networkService);
+    try {
+      assertNull(testClient.getStatusAge());
+      CompletableFuture<Void> connected = testClient.connect();
+      networkService.simulateMessageToAll(bindOkDatagram());
+      connected.get(1, TimeUnit.SECONDS);
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(0)));
+      int requests = statusRequestColumnCounts(networkService).size();
+
+      DeviceStatus cached = testClient.getStatus(Duration.ofMinutes(1)).getNow(null);
+      assertNotNull(cached);
+      assertFalse(cached.getPower());
+      assertEquals(requests, statusRequestColumnCounts(networkService).size());
+
+      CompletableFuture<DeviceStatus> fresh = testClient.getStatus(Duration.ZERO);
+      assertFalse(fresh.isDone());
+      assertEquals(requests + 1, statusRequestColumnCounts(networkService).size());
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(1)));
+      assertTrue(fresh.get(1, TimeUnit.SECONDS).getPower());
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testStatusPublisherHonorsDemand() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                .setListenerExecutor(Runnable::run),
+            networkService);
+    List<DeviceStatus> received = new CopyOnWriteArrayList<>();
+    AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+    AtomicBoolean completed = new AtomicBoolean();
+    testClient
+        .getStatusPublisher()
+        .subscribe(
+            new Flow.Subscriber<>() {
+              @Override
+              public void onSubscribe(Flow.Subscription s) {
+                subscription.set(s);
+                s.request(1);
+              }
+
+              @Override
+              public void onNext(DeviceStatus status) {
+                received.add(status);
+              }
+
+              @Override
+              public void onError(Throwable throwable) {}
+
+              @Override
+              public void onComplete() {
+                completed.set(true);
+              }
+            });
+    try {
+      testClient.connect();
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(1)));
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(0)));
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(1)));
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(0)));
+
+      // The first update satisfied the demand, the rest were conflated into the latest
+      assertEquals(1, received.size());
+      assertTrue(received.get(0).getPower());
+
+      subscription.get().request(10);
+      assertEquals(2, received.size());
+      assertFalse(received.get(1).getPower());
+    } finally {
+      testClient.shutdown();
+    }
+    assertTrue(completed.get());
+  }
+
+  /** Types of the unencrypted messages sent, such as the scan request */
+  /** Types of the encrypted requests sent, in order */
+  private static List<String> sentPackTypes(MockNetworkService networkService) throws Exception {
+    EncryptionService encryptionService = new EncryptionService();
+    List<String> types = new ArrayList<>();
+    for (byte[] message : networkService.getSentMessages()) {
+      JSONObject frame = new JSONObject(new String(message, StandardCharsets.UTF_8));
+      if (frame.has("pack")) {
+        types.add(encryptionService.decrypt(frame).optString("t"));
+      }
+    }
+    return types;
+  }
+
+  private static List<String> sentPlainMessageTypes(MockNetworkService networkService) {
+    List<String> types = new ArrayList<>();
+    for (byte[] message : networkService.getSentMessages()) {
+      JSONObject frame = new JSONObject(new String(message, StandardCharsets.UTF_8));
+      if (!frame.has("pack")) {
+        types.add(frame.optString("t"));
+      }
+    }
+    return types;
+  }
+
+  private static byte[] devDatagram() throws Exception {
+    return devDatagram("f4911e7aca59");
+  }
+
+  /** Handshake response of the device with the given MAC */
+  static byte[] devDatagram(String mac) throws Exception {
+    JSONObject pack = new JSONObject();
+    pack.put("t", "dev");
+    pack.put("cid", mac);
+    pack.put("mac", mac);
+
+    JSONObject frame = new JSONObject();
+    frame.put("t", "pack");
+    frame.put("pack", new EncryptionService().encrypt(pack).getPayload());
+    return frame.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  static byte[] bindOkDatagram() throws Exception {
+    JSONObject pack = new JSONObject();
+    pack.put("t", "bindok");
+    pack.put("mac", "f4911e7aca59");
+    pack.put("key", "a3K8Bx%2r8Y7#xDh");
+
+    JSONObject frame = new JSONObject();
+    frame.put("t", "pack");
+    frame.put("pack", new EncryptionService().encrypt(pack).getPayload());
+    return frame.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void testPropertyChangeEvents() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000)
+                // Deliver events on the receive thread so they can be asserted right away
+                .setListenerExecutor(Runnable::run),
+            networkService);
+    try {
+      List<PropertyChange> allChanges = new CopyOnWriteArrayList<>();
+      List<PropertyChange> powerChanges = new CopyOnWriteArrayList<>();
+      testClient.onPropertyChange(allChanges::add);
+      testClient.onPropertyChange(Property.POWER, powerChanges::add);
+      testClient.connect();
+
+      networkService.simulateMessageToAll(
+          datagram("dat", "cols", List.of("Pow", "Mod"), List.of(1, 1)));
+      networkService.simulateMessageToAll(
+          datagram("dat", "cols", List.of("Pow", "Mod"), List.of(1, 4)));
+      networkService.simulateMessageToAll(datagram("res", "opt", List.of("Pow"), List.of(0)));
+
+      assertEquals(
+          List.of(
+              new PropertyChange(null, Property.POWER, null, "on", 1),
+              new PropertyChange(null, Property.MODE, null, "cool", 2),
+              new PropertyChange(null, Property.MODE, "cool", "heat", 3),
+              new PropertyChange(null, Property.POWER, "on", "off", 4)),
+          allChanges);
+      assertEquals(List.of(allChanges.get(0), allChanges.get(3)), powerChanges);
+    } finally {
+      testClient.shutdown();
+    }
+  }
+
+  @Test
+  void testSlowListenerDoesNotBlockReceiving() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient testClient =
+        new HvacClient(
+            new HvacClientOptions("192.168.1.100")
+                .setAutoConnect(false)
+                .setPoll(false)
+                .setConnectTimeout(10000),
+            networkService);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      CountDownLatch powerChanged = new CountDownLatch(2);
+      testClient.onStatusUpdate(
+          status -> {
+            try {
+              release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      testClient.onPropertyChange(Property.POWER, change -> powerChanged.countDown());
+      testClient.connect();
+
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(1)));
+      networkService.simulateMessageToAll(datagram("dat", "cols", List.of("Pow"), List.of(0)));
+
+      assertFalse(testClient.getStatus().getPower());
+      assertTrue(powerChanged.await(2, TimeUnit.SECONDS));
+      assertTrue(testClient.getListenerMetrics().getQueuedEvents() >= 1);
+    } finally {
+      release.countDown();
+      testClient.shutdown();
+    }
+  }
+
+  /** Frame of the given type encrypted with the generic key, as sent before binding */
+  static byte[] datagram(String type, String namesField, List<String> names, List<Integer> values)
+      throws Exception {
+    JSONObject pack = new JSONObject();
+    pack.put("t", type);
+    pack.put(namesField, new JSONArray(names));
+    pack.put("dat".equals(type) ? "dat" : "val", new JSONArray(values));
+
+    JSONObject frame = new JSONObject();
+    frame.put("t", "pack");
+    frame.put("pack", new EncryptionService().encrypt(pack).getPayload());
+    return frame.toString().getBytes(StandardCharsets.UTF_8);
+  }
 }
@@ -0,0 +1,165 @@
+package com.gree.hvac.client;
+
+import static com.gree.hvac.client.HvacClientTest.bindOkDatagram;
+import static com.gree.hvac.client.HvacClientTest.datagram;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.gree.hvac.dto.DeviceControl;
+import com.gree.hvac.network.MockNetworkService;
+import com.gree.hvac.protocol.EncryptionService;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HvacFleetTest {
+
+  private final List<HvacClient> clients = new ArrayList<>();
+  private final List<MockNetworkService> networks = new ArrayList<>();
+  private DeviceControl powerOff;
+
+  @BeforeEach
+  void setUp() {
+    powerOff = new DeviceControl();
+    powerOff.setPower(false);
+  }
+
+  @AfterEach
+  void tearDown() {
+    clients.forEach(HvacClient::shutdown);
+  }
+
+  @Test
+  void testCommandIsSentToEveryDevice() throws Exception {
+    HvacFleet fleet = new HvacFleet();
+    fleet.add("living", connectedClient());
+    fleet.add("bedroom", connectedClient());
+
+    CompletableFuture<List<GroupCommandResult>> results =
+        fleet.control(List.of("living", "bedroom"), powerOff);
+    confirmPowerOff(0);
+    confirmPowerOff(1);
+
+    List<GroupCommandResult> done = results.get(1, TimeUnit.SECONDS);
+    assertEquals(
+        List.of("living", "bedroom"), done.stream().map(GroupCommandResult::getDeviceId).toList());
+    assertTrue(done.stream().allMatch(GroupCommandResult::isSuccess));
+    assertTrue(done.stream().allMatch(r -> r.getLatency() >= 0 && r.getError() == null));
+  }
+
+  @Test
+  void testDevicesWithSameKeyReceiveSameFrame() throws Exception {
+    HvacFleet fleet = new HvacFleet();
+    fleet.add("living", connectedClient());
+    fleet.add("bedroom", connectedClient());
+
+    fleet.control(List.of("living", "bedroom"), powerOff);
+
+    assertArrayEquals(lastCommandFrame(0), lastCommandFrame(1));
+  }
+
+  @Test
+  void testConcurrencyLimitHoldsBackDevices() throws Exception {
+    HvacFleet fleet = new HvacFleet(1);
+    fleet.add("living", connectedClient());
+    fleet.add("bedroom", connectedClient());
+
+    CompletableFuture<List<GroupCommandResult>> results =
+        fleet.control(List.of("living", "bedroom"), powerOff);
+
+    assertNotNull(lastCommandFrame(0));
+    assertNull(lastCommandFrame(1));
+
+    confirmPowerOff(0);
+    assertNotNull(lastCommandFrame(1));
+    assertFalse(results.isDone());
+
+    confirmPowerOff(1);
+    assertTrue(results.get(1, TimeUnit.SECONDS).stream().allMatch(GroupCommandResult::isSuccess));
+  }
+
+  @Test
+  void testUnknownAndDisconnectedDevicesFailWithoutBlockingOthers() throws Exception {
+    HvacFleet fleet = new HvacFleet(1);
+    fleet.add("offline", client());
+    fleet.add("living", connectedClient());
+
+    CompletableFuture<List<GroupCommandResult>> results =
+        fleet.control(List.of("unknown", "offline", "living"), powerOff);
+    confirmPowerOff(0);
+
+    List<GroupCommandResult> done = results.get(1, TimeUnit.SECONDS);
+    assertFalse(done.get(0).isSuccess());
+    assertEquals("Device is not registered", done.get(0).getError());
+    assertFalse(done.get(1).isSuccess());
+    assertNotNull(done.get(1).getError());
+    assertTrue(done.get(2).isSuccess());
+  }
+
+  @Test
+  void testRemoveOnlyDropsRegisteredClient() {
+    HvacFleet fleet = new HvacFleet();
+    HvacClient client = client();
+    fleet.add("living", client);
+
+    fleet.remove("living", client());
+    assertEquals(Set.of("living"), fleet.getDeviceIds());
+
+    fleet.remove("living", client);
+    assertTrue(fleet.getDeviceIds().isEmpty());
+  }
+
+  @Test
+  void testRejectsInvalidConcurrency() {
+    assertThrows(IllegalArgumentException.class, () -> new HvacFleet(0));
+  }
+
+  private HvacClient connectedClient() throws Exception {
+    MockNetworkService networkService = new MockNetworkService();
+    HvacClient client = new HvacClient(options(), networkService);
+    clients.add(client);
+    networks.add(networkService);
+
+    CompletableFuture<Void> connected = client.connect();
+    networkService.simulateMessageToAll(bindOkDatagram());
+    connected.get(1, TimeUnit.SECONDS);
+    return client;
+  }
+
+  private HvacClient client() {
+    HvacClient client = new HvacClient(options(), new MockNetworkService());
+    clients.add(client);
+    return client;
+  }
+
+  private static HvacClientOptions options() {
+    return new HvacClientOptions("192.168.1.100")
+        .setAutoConnect(false)
+        .setPoll(false)
+        .setConnectTimeout(10000)
+        .setCommandTimeout(10000);
+  }
+
+  private void confirmPowerOff(int device) throws Exception {
+    networks.get(device).simulateMessageToAll(datagram("res", "opt", List.of("Pow"), List.of(0)));
+  }
+
+  /** The last cmd frame sent to a device, null if none was sent */
+  private byte[] lastCommandFrame(int device) throws Exception {
+    byte[] last = null;
+    EncryptionService encryptionService = new EncryptionService();
+    for (byte[] message : networks.get(device).getSentMessages()) {
+      JSONObject frame = new JSONObject(new String(message, StandardCharsets.UTF_8));
+      if (frame.has("pack") && "cmd".equals(encryptionService.decrypt(frame).optString("t"))) {
+        last = message;
+      }
+    }
+    return last;
+  }
+}
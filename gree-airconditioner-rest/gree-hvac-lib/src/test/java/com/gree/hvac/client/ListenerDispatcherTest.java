@@ -0,0 +1,169 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ListenerDispatcherTest {
+
+  @Test
+  void testDeliversEventsInOrderOffTheCallingThread() throws Exception {
+    ListenerDispatcher dispatcher =
+        new ListenerDispatcher(null, 100, OverflowPolicy.DROP_OLDEST, 1000);
+    ListenerDispatcher.Listeners<Integer> listeners = dispatcher.newListeners();
+    List<Integer> received = new CopyOnWriteArrayList<>();
+    List<Thread> threads = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(10);
+    listeners.add(
+        event -> {
+          received.add(event);
+          threads.add(Thread.currentThread());
+          done.countDown();
+        });
+
+    for (int i = 0; i < 10; i++) {
+      listeners.dispatch(i);
+    }
+
+    assertTrue(done.await(2, TimeUnit.SECONDS));
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), received);
+    assertFalse(threads.contains(Thread.currentThread()));
+    assertEquals(10, dispatcher.getMetrics().getDeliveredEvents());
+  }
+
+  @Test
+  void testSlowListenerDoesNotDelayOthers() throws Exception {
+    ListenerDispatcher dispatcher =
+        new ListenerDispatcher(null, 100, OverflowPolicy.DROP_OLDEST, 1000);
+    ListenerDispatcher.Listeners<String> listeners = dispatcher.newListeners();
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch fastReceived = new CountDownLatch(1);
+    listeners.add(event -> awaitQuietly(release));
+    listeners.add(event -> fastReceived.countDown());
+
+    listeners.dispatch("status");
+
+    assertTrue(fastReceived.await(2, TimeUnit.SECONDS));
+    release.countDown();
+  }
+
+  @Test
+  void testDropOldestKeepsNewestEvents() {
+    ManualExecutor executor = new ManualExecutor();
+    ListenerDispatcher dispatcher =
+        new ListenerDispatcher(executor, 3, OverflowPolicy.DROP_OLDEST, 1000);
+    ListenerDispatcher.Listeners<Integer> listeners = dispatcher.newListeners();
+    List<Integer> received = new ArrayList<>();
+    listeners.add(received::add);
+
+    for (int i = 0; i < 5; i++) {
+      listeners.dispatch(i);
+    }
+    assertEquals(3, dispatcher.getMetrics().getQueuedEvents());
+    executor.runAll();
+
+    assertEquals(List.of(2, 3, 4), received);
+    assertEquals(2, dispatcher.getMetrics().getDroppedEvents());
+    assertEquals(0, dispatcher.getMetrics().getQueuedEvents());
+  }
+
+  @Test
+  void testConflateLatestKeepsOnlyLatestEvent() {
+    ManualExecutor executor = new ManualExecutor();
+    ListenerDispatcher dispatcher =
+        new ListenerDispatcher(executor, 3, OverflowPolicy.CONFLATE_LATEST, 1000);
+    ListenerDispatcher.Listeners<Integer> listeners = dispatcher.newListeners();
+    List<Integer> received = new ArrayList<>();
+    listeners.add(received::add);
+
+    for (int i = 0; i < 5; i++) {
+      listeners.dispatch(i);
+    }
+    executor.runAll();
+
+    assertEquals(List.of(3, 4), received);
+    assertEquals(3, dispatcher.getMetrics().getDroppedEvents());
+  }
+
+  @Test
+  void testCountsLateAndFailedEvents() throws Exception {
+    ManualExecutor executor = new ManualExecutor();
+    ListenerDispatcher dispatcher =
+        new ListenerDispatcher(executor, 10, OverflowPolicy.DROP_OLDEST, 10);
+    ListenerDispatcher.Listeners<String> listeners = dispatcher.newListeners();
+    List<String> received = new ArrayList<>();
+    listeners.add(
+        event -> {
+          throw new IllegalStateException("listener bug");
+        });
+    listeners.add(received::add);
+
+    listeners.dispatch("late");
+    Thread.sleep(30);
+    executor.runAll();
+    listeners.dispatch("on time");
+    executor.runAll();
+
+    assertEquals(List.of("late", "on time"), received);
+    ListenerMetrics metrics = dispatcher.getMetrics();
+    assertEquals(4, metrics.getDeliveredEvents());
+    assertEquals(2, metrics.getLateEvents());
+    assertEquals(2, metrics.getFailedEvents());
+  }
+
+  @Test
+  void testListenerAddedDuringDispatchReceivesLaterEvents() {
+    ListenerDispatcher dispatcher =
+        new ListenerDispatcher(Runnable::run, 10, OverflowPolicy.DROP_OLDEST, 1000);
+    ListenerDispatcher.Listeners<Integer> listeners = dispatcher.newListeners();
+    List<Integer> received = new ArrayList<>();
+    listeners.add(
+        event -> {
+          if (event == 0) {
+            listeners.add(received::add);
+          }
+        });
+
+    listeners.dispatch(0);
+    listeners.dispatch(1);
+
+    assertEquals(List.of(1), received);
+  }
+
+  @Test
+  void testRejectsInvalidCapacity() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ListenerDispatcher(null, 0, OverflowPolicy.DROP_OLDEST, 1000));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Holds submitted drains until the test runs them */
+  private static final class ManualExecutor implements Executor {
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable task) {
+      tasks.add(task);
+    }
+
+    void runAll() {
+      List<Runnable> pending = new ArrayList<>(tasks);
+      tasks.clear();
+      pending.forEach(Runnable::run);
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OutboundQueueTest {
+
+  private ManualTimer timer;
+  private long nanos;
+  private List<String> sent;
+  private List<Exception> errors;
+
+  @BeforeEach
+  void setUp() {
+    timer = new ManualTimer();
+    nanos = 0;
+    sent = new CopyOnWriteArrayList<>();
+    errors = new CopyOnWriteArrayList<>();
+  }
+
+  @Test
+  void testUnlimitedQueueSendsInline() throws Exception {
+    OutboundQueue queue = queue(0, 1);
+
+    for (int i = 0; i < 10; i++) {
+      queue.send(SendPriority.POLL, frame("poll" + i));
+    }
+
+    assertEquals(10, sent.size());
+    assertEquals(0, timer.tasks.size());
+    assertEquals(10, queue.getMetrics().getSentFrames());
+  }
+
+  @Test
+  void testBurstIsSentInlineThenPaced() throws Exception {
+    OutboundQueue queue = queue(10, 2);
+
+    queue.send(SendPriority.BIND, frame("scan"));
+    queue.send(SendPriority.BIND, frame("bind"));
+    queue.send(SendPriority.BIND, frame("bind again"));
+
+    assertEquals(List.of("scan", "bind"), sent);
+    assertEquals(1, queue.getQueuedCount());
+    assertEquals(100, timer.tasks.get(0).delay);
+
+    advance(100);
+
+    assertEquals(List.of("scan", "bind", "bind again"), sent);
+    assertEquals(0, queue.getQueuedCount());
+  }
+
+  @Test
+  void testWaitingFramesAreSentByPriority() throws Exception {
+    OutboundQueue queue = queue(10, 1);
+    queue.send(SendPriority.BIND, frame("scan"));
+
+    queue.sendPoll(frame("poll"), true);
+    queue.send(SendPriority.BIND, frame("bind"));
+    queue.send(SendPriority.COMMAND, frame("power"));
+    queue.send(SendPriority.COMMAND, frame("mode"));
+
+    for (int i = 0; i < 4; i++) {
+      advance(100);
+    }
+
+    assertEquals(List.of("scan", "power", "mode", "bind", "poll"), sent);
+  }
+
+  @Test
+  void testNewerPollReplacesWaitingPoll() throws Exception {
+    OutboundQueue queue = queue(10, 1);
+    queue.send(SendPriority.BIND, frame("scan"));
+
+    queue.sendPoll(frame("fast1"), false);
+    queue.sendPoll(frame("fast2"), false);
+    advance(100);
+
+    assertEquals(List.of("scan", "fast2"), sent);
+    assertEquals(1, queue.getMetrics().getMergedPolls());
+  }
+
+  @Test
+  void testFullPollIsNotReplacedByPartialPoll() throws Exception {
+    OutboundQueue queue = queue(10, 1);
+    queue.send(SendPriority.BIND, frame("scan"));
+
+    queue.sendPoll(frame("full"), true);
+    queue.sendPoll(frame("fast"), false);
+    advance(100);
+
+    assertEquals(List.of("scan", "full"), sent);
+    assertEquals(0, queue.getQueuedCount());
+  }
+
+  @Test
+  void testMetricsReportWaitTime() throws Exception {
+    OutboundQueue queue = queue(10, 1);
+    queue.send(SendPriority.BIND, frame("scan"));
+    queue.send(SendPriority.BIND, frame("bind"));
+    queue.send(SendPriority.COMMAND, frame("power"));
+    assertEquals(2, queue.getMetrics().getQueuedFrames());
+
+    advance(100);
+    advance(100);
+
+    OutboundMetrics metrics = queue.getMetrics();
+    assertEquals(3, metrics.getSentFrames());
+    assertEquals(0, metrics.getQueuedFrames());
+    assertEquals(150, metrics.getAverageWait());
+    assertEquals(200, metrics.getMaxWait());
+  }
+
+  @Test
+  void testClearDropsWaitingFrames() throws Exception {
+    OutboundQueue queue = queue(10, 1);
+    queue.send(SendPriority.BIND, frame("scan"));
+    queue.send(SendPriority.BIND, frame("bind"));
+
+    queue.clear();
+    advance(100);
+
+    assertEquals(List.of("scan"), sent);
+    assertTrue(timer.tasks.get(0).cancelled);
+  }
+
+  @Test
+  void testQueuedSendFailureIsReported() throws Exception {
+    OutboundQueue queue =
+        new OutboundQueue(
+            timer,
+            frame -> {
+              throw new IOException("Network unreachable");
+            },
+            errors::add,
+            10,
+            1,
+            () -> nanos);
+    assertThrows(IOException.class, () -> queue.send(SendPriority.BIND, frame("scan")));
+
+    queue.send(SendPriority.BIND, frame("bind"));
+    advance(100);
+
+    assertEquals(1, errors.size());
+  }
+
+  @Test
+  void testRejectsInvalidLimits() {
+    assertThrows(IllegalArgumentException.class, () -> queue(-1, 1));
+    assertThrows(IllegalArgumentException.class, () -> queue(10, 0));
+  }
+
+  private OutboundQueue queue(double rate, int burst) {
+    return new OutboundQueue(
+        timer,
+        frame -> sent.add(new String(frame, StandardCharsets.UTF_8)),
+        errors::add,
+        rate,
+        burst,
+        () -> nanos);
+  }
+
+  private void advance(long millis) {
+    nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    timer.runDue(TimeUnit.NANOSECONDS.toMillis(nanos));
+  }
+
+  private static byte[] frame(String name) {
+    return name.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Timer that runs tasks only when the test advances its clock */
+  private static class ManualTimer implements HvacTimer {
+    final List<Task> tasks = new ArrayList<>();
+    long now;
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+      Task scheduled = new Task(task, unit.toMillis(delay), now + unit.toMillis(delay));
+      tasks.add(scheduled);
+      return scheduled;
+    }
+
+    void runDue(long millis) {
+      now = millis;
+      for (Task task : new ArrayList<>(tasks)) {
+        if (!task.done && !task.cancelled && task.deadline <= now) {
+          task.done = true;
+          task.task.run();
+        }
+      }
+    }
+  }
+
+  private static class Task implements HvacTimer.Timeout {
+    final Runnable task;
+    final long delay;
+    final long deadline;
+    boolean done;
+    boolean cancelled;
+
+    Task(Runnable task, long delay, long deadline) {
+      this.task = task;
+      this.delay = delay;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (done || cancelled) {
+        return false;
+      }
+      cancelled = true;
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadline, TimeUnit.MILLISECONDS);
+    }
+  }
+}
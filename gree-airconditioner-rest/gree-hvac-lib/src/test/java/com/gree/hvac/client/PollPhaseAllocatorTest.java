@@ -0,0 +1,135 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PollPhaseAllocatorTest {
+
+  @Test
+  void testPhasesFollowVanDerCorputSequence() {
+    PollPhaseAllocator allocator = new PollPhaseAllocator();
+
+    List<Double> fractions = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      fractions.add(allocator.allocate().getFraction());
+    }
+
+    assertEquals(List.of(0.0, 0.5, 0.25, 0.75, 0.125, 0.625), fractions);
+    assertEquals(6, allocator.getClientCount());
+  }
+
+  @Test
+  void testReleasedPhaseIsReused() {
+    PollPhaseAllocator allocator = new PollPhaseAllocator();
+    allocator.allocate();
+    PollPhaseAllocator.Phase second = allocator.allocate();
+    allocator.allocate();
+
+    second.release();
+    second.release();
+    assertEquals(2, allocator.getClientCount());
+
+    assertEquals(0.5, allocator.allocate().getFraction());
+    assertEquals(3, allocator.getClientCount());
+  }
+
+  @Test
+  void testDelayLandsOnPhaseGrid() {
+    PollPhaseAllocator allocator = new PollPhaseAllocator();
+    allocator.allocate();
+    PollPhaseAllocator.Phase half = allocator.allocate();
+
+    // Phase 0.5 of a 1000ms interval polls at 500, 1500, 2500, ...
+    assertEquals(500, half.delayToNext(10_000, 1000));
+    assertEquals(100, half.delayToNext(10_400, 1000));
+    assertEquals(1000, half.delayToNext(10_500, 1000));
+    assertEquals(1, half.delayToNext(10_499, 1000));
+  }
+
+  @Test
+  void testClientsStartedTogetherPollApart() {
+    PollPhaseAllocator allocator = new PollPhaseAllocator();
+    long interval = 3000;
+    long start = 1_000_000;
+
+    List<Long> firstPolls = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      firstPolls.add(start + allocator.allocate().delayToNext(start, interval));
+    }
+    firstPolls.sort(null);
+
+    // Even spacing would be 30ms; the sequence keeps every gap within twice that
+    long largestGap = 0;
+    for (int i = 1; i < firstPolls.size(); i++) {
+      largestGap = Math.max(largestGap, firstPolls.get(i) - firstPolls.get(i - 1));
+    }
+    assertTrue(largestGap <= 2 * interval / 100, "largest gap " + largestGap);
+    assertEquals(100, firstPolls.stream().distinct().count());
+  }
+
+  @Test
+  void testBurstWidth() {
+    PollPhaseAllocator allocator = new PollPhaseAllocator(50);
+    PollPhaseAllocator.Phase phase = allocator.allocate();
+    assertEquals(0, allocator.getBurstWidth());
+
+    phase.recordPoll(1000);
+    phase.recordPoll(1010);
+    phase.recordPoll(1049);
+    phase.recordPoll(1050);
+    phase.recordPoll(1200);
+
+    assertEquals(3, allocator.getBurstWidth());
+  }
+
+  @Test
+  void testBurstWidthOnlyCountsLastMinute() {
+    PollPhaseAllocator allocator = new PollPhaseAllocator(50);
+    PollPhaseAllocator.Phase phase = allocator.allocate();
+
+    phase.recordPoll(1000);
+    phase.recordPoll(1010);
+    phase.recordPoll(1020);
+    phase.recordPoll(100_000);
+
+    assertEquals(1, allocator.getBurstWidth());
+  }
+
+  @Test
+  void testBurstWidthKeepsMostRecentPolls() {
+    PollPhaseAllocator allocator = new PollPhaseAllocator(50);
+    PollPhaseAllocator.Phase phase = allocator.allocate();
+
+    // A dense burst that the following polls push out of the history
+    for (int i = 0; i < 100; i++) {
+      phase.recordPoll(1000);
+    }
+    for (int i = 0; i < 10_000; i++) {
+      phase.recordPoll(2000 + i * 50L);
+    }
+
+    assertEquals(1, allocator.getBurstWidth());
+  }
+
+  @Test
+  void testSpreadFleetKeepsBurstWidthFlat() {
+    PollPhaseAllocator allocator = new PollPhaseAllocator(10);
+    long interval = 3000;
+    long now = 1_000_000;
+    for (int i = 0; i < 200; i++) {
+      PollPhaseAllocator.Phase phase = allocator.allocate();
+      phase.recordPoll(now + phase.delayToNext(now, interval));
+    }
+
+    // 200 polls spread over 3s; without phases all of them would fall in one window
+    assertTrue(allocator.getBurstWidth() <= 2, "burst width " + allocator.getBurstWidth());
+  }
+
+  @Test
+  void testRejectsNonPositiveBurstWindow() {
+    assertThrows(IllegalArgumentException.class, () -> new PollPhaseAllocator(0));
+  }
+}
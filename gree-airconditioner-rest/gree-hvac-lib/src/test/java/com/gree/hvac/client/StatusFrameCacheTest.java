@@ -0,0 +1,102 @@
+package com.gree.hvac.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.gree.hvac.protocol.EncryptionService;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatusFrameCacheTest {
+
+  private static final List<String> COLUMNS = List.of("Pow", "Mod", "SetTem");
+
+  private StatusFrameCache cache;
+  private EncryptionService encryptionService;
+
+  @BeforeEach
+  void setUp() {
+    cache = new StatusFrameCache();
+    encryptionService = new EncryptionService();
+  }
+
+  @Test
+  void testFrameIsReusedForSameInputs() throws Exception {
+    byte[] first = cache.get("mac-1", COLUMNS, encryptionService);
+    byte[] second = cache.get("mac-1", List.of("Pow", "Mod", "SetTem"), encryptionService);
+
+    assertSame(first, second);
+  }
+
+  @Test
+  void testFrameDecryptsToStatusRequest() throws Exception {
+    JSONObject frame =
+        new JSONObject(
+            new String(cache.get("mac-1", COLUMNS, encryptionService), StandardCharsets.UTF_8));
+
+    assertEquals("pack", frame.getString("t"));
+    assertEquals("app", frame.getString("cid"));
+
+    JSONObject pack = encryptionService.decrypt(frame);
+    assertEquals("status", pack.getString("t"));
+    assertEquals("mac-1", pack.getString("mac"));
+    assertEquals(COLUMNS, pack.getJSONArray("cols").toList());
+  }
+
+  @Test
+  void testFrameIsRebuiltWhenMacOrColumnsChange() throws Exception {
+    byte[] original = cache.get("mac-1", COLUMNS, encryptionService);
+
+    assertNotSame(original, cache.get("mac-2", COLUMNS, encryptionService));
+    assertNotSame(
+        cache.get("mac-2", COLUMNS, encryptionService),
+        cache.get("mac-2", List.of("Pow"), encryptionService));
+  }
+
+  @Test
+  void testFrameIsRebuiltWhenKeyChanges() throws Exception {
+    byte[] original = cache.get("mac-1", COLUMNS, encryptionService);
+
+    JSONObject bindOk = new JSONObject();
+    bindOk.put("t", "bindok");
+    bindOk.put("key", "0123456789abcdef");
+    JSONObject received = new JSONObject();
+    received.put("pack", encryptionService.encrypt(bindOk).getPayload());
+    encryptionService.decrypt(received);
+
+    byte[] rebuilt = cache.get("mac-1", COLUMNS, encryptionService);
+
+    assertNotSame(original, rebuilt);
+    JSONObject pack =
+        encryptionService.decrypt(new JSONObject(new String(rebuilt, StandardCharsets.UTF_8)));
+    assertEquals("status", pack.getString("t"));
+  }
+
+  @Test
+  void testFrameIsRebuiltWhenCipherChanges() throws Exception {
+    byte[] ecbFrame = cache.get("mac-1", COLUMNS, encryptionService);
+
+    JSONObject bind = new JSONObject();
+    bind.put("t", "bind");
+    encryptionService.encrypt(bind);
+    encryptionService.encrypt(bind);
+
+    byte[] gcmFrame = cache.get("mac-1", COLUMNS, encryptionService);
+
+    assertNotSame(ecbFrame, gcmFrame);
+    assertTrue(new JSONObject(new String(gcmFrame, StandardCharsets.UTF_8)).has("tag"));
+  }
+
+  @Test
+  void testInvalidateDropsFrame() throws Exception {
+    byte[] original = cache.get("mac-1", COLUMNS, encryptionService);
+
+    cache.invalidate();
+
+    byte[] rebuilt = cache.get("mac-1", COLUMNS, encryptionService);
+    assertNotSame(original, rebuilt);
+    assertArrayEquals(original, rebuilt);
+  }
+}
@@ -0,0 +1,41 @@
+package com.gree.hvac.discovery;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DiscoveryOptionsTest {
+
+  @Test
+  void testDefaultsWaitForFullTimeout() {
+    DiscoveryOptions options = new DiscoveryOptions();
+
+    assertEquals(3000, options.getTimeout());
+    assertEquals(0, options.getQuietPeriod());
+    assertTrue(options.getExpectedDevices().isEmpty());
+  }
+
+  @Test
+  void testSettersChain() {
+    DiscoveryOptions options =
+        new DiscoveryOptions()
+            .setTimeout(1500)
+            .setQuietPeriod(300)
+            .setExpectedDevices(List.of("f4911e7aca59"));
+
+    assertEquals(1500, options.getTimeout());
+    assertEquals(300, options.getQuietPeriod());
+    assertEquals(Set.of("f4911e7aca59"), options.getExpectedDevices());
+  }
+
+  @Test
+  void testExpectedDevicesAreNormalized() {
+    DiscoveryOptions options =
+        new DiscoveryOptions().setExpectedDevices(Arrays.asList("F4911E7ACA59", "", null));
+
+    assertEquals(Set.of("f4911e7aca59"), options.getExpectedDevices());
+  }
+}
@@ -73,6 +73,161 @@ class HvacDiscoveryTest {
     verify(socketService).sendPacket(eq(socket), any(byte[].class), eq(broadcastAddress), eq(7000));
   }
 
+  @Test
+  void testAllInterfacesAreScannedInOneReceiveWindow() throws Exception {
+    // Arrange
+    NetworkInterface vlan = mock(NetworkInterface.class);
+    InterfaceAddress vlanAddress = mock(InterfaceAddress.class);
+    InetAddress lanBroadcast = InetAddress.getByName("192.168.1.255");
+    InetAddress vlanBroadcast = InetAddress.getByName("10.0.20.255");
+
+    when(networkService.getNetworkInterfaces())
+        .thenReturn(Collections.enumeration(List.of(networkInterface, vlan)));
+    when(networkInterface.isUp()).thenReturn(true);
+    when(networkInterface.getName()).thenReturn("eth0");
+    when(networkInterface.getInterfaceAddresses()).thenReturn(List.of(interfaceAddress));
+    when(interfaceAddress.getBroadcast()).thenReturn(lanBroadcast);
+    when(vlan.isUp()).thenReturn(true);
+    when(vlan.getName()).thenReturn("eth0.20");
+    when(vlan.getInterfaceAddresses()).thenReturn(List.of(vlanAddress));
+    when(vlanAddress.getBroadcast()).thenReturn(vlanBroadcast);
+
+    when(socketService.createSocket()).thenReturn(socket);
+    when(timeService.getCurrentTimeMillis()).thenReturn(0L, 100L, 200L, 4000L);
+
+    DatagramPacket lanReply = createMockResponsePacket("{\"t\":\"pack\",\"pack\":\"lan\"}");
+    DatagramPacket vlanReply =
+        createMockResponsePacket("{\"t\":\"pack\",\"pack\":\"vlan\"}", "10.0.20.7");
+    when(socketService.receivePacket(eq(socket), any(byte[].class)))
+        .thenReturn(lanReply, vlanReply);
+    when(cryptoService.decryptPackData("lan"))
+        .thenReturn("{\"t\":\"dev\",\"name\":\"Living\",\"mac\":\"f4911e7aca59\"}");
+    when(cryptoService.decryptPackData("vlan"))
+        .thenReturn("{\"t\":\"dev\",\"name\":\"Office\",\"mac\":\"f4911e7aca60\"}");
+
+    // Act
+    List<DeviceInfo> devices = hvacDiscovery.discoverDevices().get();
+
+    // Assert
+    assertEquals(List.of("Living", "Office"), devices.stream().map(DeviceInfo::getName).toList());
+    verify(socketService).createSocket();
+    verify(socketService).sendPacket(eq(socket), any(byte[].class), eq(lanBroadcast), eq(7000));
+    verify(socketService).sendPacket(eq(socket), any(byte[].class), eq(vlanBroadcast), eq(7000));
+  }
+
+  @Test
+  void testDeviceAnsweringTwiceIsReportedOnce() throws Exception {
+    // Arrange
+    String broadcastAddr = "192.168.1.255";
+    when(networkService.getByName(broadcastAddr)).thenReturn(InetAddress.getByName(broadcastAddr));
+    when(socketService.createSocket()).thenReturn(socket);
+    when(timeService.getCurrentTimeMillis()).thenReturn(0L, 100L, 200L, 4000L);
+
+    DatagramPacket responsePacket = createMockResponsePacket();
+    when(socketService.receivePacket(eq(socket), any(byte[].class))).thenReturn(responsePacket);
+    when(cryptoService.decryptPackData(anyString()))
+        .thenReturn("{\"t\":\"dev\",\"name\":\"Living\",\"mac\":\"f4911e7aca59\"}");
+
+    // Act
+    List<DeviceInfo> devices = hvacDiscovery.discoverDevices(broadcastAddr).get();
+
+    // Assert
+    assertEquals(1, devices.size());
+    verify(socketService, times(2)).receivePacket(eq(socket), any(byte[].class));
+  }
+
+  @Test
+  void testFailedSendDoesNotStopOtherInterfaces() throws Exception {
+    // Arrange
+    NetworkInterface vlan = mock(NetworkInterface.class);
+    InterfaceAddress vlanAddress = mock(InterfaceAddress.class);
+    InetAddress lanBroadcast = InetAddress.getByName("192.168.1.255");
+    InetAddress vlanBroadcast = InetAddress.getByName("10.0.20.255");
+
+    when(networkService.getNetworkInterfaces())
+        .thenReturn(Collections.enumeration(List.of(networkInterface, vlan)));
+    when(networkInterface.isUp()).thenReturn(true);
+    when(networkInterface.getInterfaceAddresses()).thenReturn(List.of(interfaceAddress));
+    when(interfaceAddress.getBroadcast()).thenReturn(lanBroadcast);
+    when(vlan.isUp()).thenReturn(true);
+    when(vlan.getInterfaceAddresses()).thenReturn(List.of(vlanAddress));
+    when(vlanAddress.getBroadcast()).thenReturn(vlanBroadcast);
+
+    when(socketService.createSocket()).thenReturn(socket);
+    doThrow(new SocketException("Network is unreachable"))
+        .when(socketService)
+        .sendPacket(eq(socket), any(byte[].class), eq(lanBroadcast), eq(7000));
+    when(timeService.getCurrentTimeMillis()).thenReturn(0L, 100L, 4000L);
+
+    DatagramPacket responsePacket = createMockResponsePacket();
+    when(socketService.receivePacket(eq(socket), any(byte[].class))).thenReturn(responsePacket);
+    when(cryptoService.decryptPackData(anyString()))
+        .thenReturn("{\"t\":\"dev\",\"name\":\"Office\",\"mac\":\"f4911e7aca60\"}");
+
+    // Act
+    List<DeviceInfo> devices = hvacDiscovery.discoverDevices().get();
+
+    // Assert
+    assertEquals(1, devices.size());
+    verify(socketService).sendPacket(eq(socket), any(byte[].class), eq(vlanBroadcast), eq(7000));
+  }
+
+  @Test
+  void testDiscoveryStopsOnceExpectedDevicesAnswered() throws Exception {
+    // Arrange
+    String broadcastAddr = "192.168.1.255";
+    when(networkService.getByName(broadcastAddr)).thenReturn(InetAddress.getByName(broadcastAddr));
+    when(socketService.createSocket()).thenReturn(socket);
+    when(timeService.getCurrentTimeMillis()).thenReturn(0L, 20L, 40L);
+
+    DatagramPacket first = createMockResponsePacket("{\"t\":\"pack\",\"pack\":\"first\"}");
+    DatagramPacket second =
+        createMockResponsePacket("{\"t\":\"pack\",\"pack\":\"second\"}", "192.168.1.101");
+    when(socketService.receivePacket(eq(socket), any(byte[].class))).thenReturn(first, second);
+    when(cryptoService.decryptPackData("first"))
+        .thenReturn("{\"t\":\"dev\",\"name\":\"Living\",\"mac\":\"f4911e7aca59\"}");
+    when(cryptoService.decryptPackData("second"))
+        .thenReturn("{\"t\":\"dev\",\"name\":\"Office\",\"mac\":\"f4911e7aca60\"}");
+
+    DiscoveryOptions options =
+        new DiscoveryOptions().setExpectedDevices(List.of("F4911E7ACA59", "f4911e7aca60"));
+
+    // Act
+    List<DeviceInfo> devices = hvacDiscovery.discoverDevices(broadcastAddr, options).get();
+
+    // Assert
+    assertEquals(2, devices.size());
+    verify(socketService, times(2)).receivePacket(eq(socket), any(byte[].class));
+  }
+
+  @Test
+  void testDiscoveryStopsAfterQuietPeriod() throws Exception {
+    // Arrange
+    String broadcastAddr = "192.168.1.255";
+    when(networkService.getByName(broadcastAddr)).thenReturn(InetAddress.getByName(broadcastAddr));
+    when(socketService.createSocket()).thenReturn(socket);
+    // The device is found by 50, only duplicates follow, so the quiet period ends at 250
+    when(timeService.getCurrentTimeMillis()).thenReturn(0L, 10L, 50L, 200L, 250L);
+
+    DatagramPacket responsePacket = createMockResponsePacket();
+    when(socketService.receivePacket(eq(socket), any(byte[].class))).thenReturn(responsePacket);
+    when(cryptoService.decryptPackData(anyString()))
+        .thenReturn("{\"t\":\"dev\",\"name\":\"Living\",\"mac\":\"f4911e7aca59\"}");
+
+    DiscoveryOptions options = new DiscoveryOptions().setQuietPeriod(200);
+
+    // Act
+    List<DeviceInfo> devices = hvacDiscovery.discoverDevices(broadcastAddr, options).get();
+
+    // Assert
+    assertEquals(1, devices.size());
+    verify(socketService, times(3)).receivePacket(eq(socket), any(byte[].class));
+    // Each receive waits no longer than the rest of the quiet period
+    verify(socket).setSoTimeout(200);
+    verify(socket).setSoTimeout(190);
+    verify(socket).setSoTimeout(50);
+  }
+
   @Test
   void testDiscoverDevicesOnSpecificBroadcastAddress() throws Exception {
     // Arrange
@@ -276,8 +431,12 @@ class HvacDiscoveryTest {
   }
 
   private DatagramPacket createMockResponsePacket(String response) throws Exception {
+    return createMockResponsePacket(response, "192.168.1.100");
+  }
+
+  private DatagramPacket createMockResponsePacket(String response, String source) throws Exception {
     byte[] responseData = response.getBytes();
-    InetAddress sourceAddress = InetAddress.getByName("192.168.1.100");
+    InetAddress sourceAddress = InetAddress.getByName(source);
 
     DatagramPacket packet = mock(DatagramPacket.class);
     when(packet.getData()).thenReturn(responseData);
@@ -321,6 +321,18 @@ class DeviceStatusTest {
     assertNull(deviceStatus.getSleep());
   }
 
+  @Test
+  void testFreshnessProperties() {
+    assertNull(deviceStatus.getLastUpdated());
+    assertFalse(deviceStatus.isStale());
+
+    deviceStatus.setLastUpdated(1700000000000L);
+    deviceStatus.setStale(true);
+
+    assertEquals(1700000000000L, deviceStatus.getLastUpdated());
+    assertTrue(deviceStatus.isStale());
+  }
+
   @Test
   void testCompleteDeviceStatus() {
     // Test setting all properties
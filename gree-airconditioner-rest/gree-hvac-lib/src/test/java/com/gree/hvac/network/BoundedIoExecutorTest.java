@@ -0,0 +1,65 @@
+package com.gree.hvac.network;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BoundedIoExecutorTest {
+
+  private BoundedIoExecutor executor;
+
+  @AfterEach
+  void tearDown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testConstructorValidation() {
+    assertThrows(IllegalArgumentException.class, () -> new BoundedIoExecutor(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new BoundedIoExecutor(1, 0));
+  }
+
+  @Test
+  void testQueueAndRejectionMetrics() throws Exception {
+    executor = new BoundedIoExecutor(1, 1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    executor.execute(
+        () -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+
+    executor.execute(() -> {});
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+
+    IoExecutorMetrics metrics = executor.getMetrics();
+    assertEquals(1, metrics.getActiveThreads());
+    assertEquals(1, metrics.getQueuedTasks());
+    assertEquals(3, metrics.getSubmittedTasks());
+    assertEquals(1, metrics.getRejectedTasks());
+
+    release.countDown();
+  }
+
+  @Test
+  void testNetworkServiceUsesGivenExecutor() {
+    executor = new BoundedIoExecutor(2, 4);
+    NetworkServiceImpl networkService = new NetworkServiceImpl(executor);
+
+    assertSame(executor, networkService.getIoExecutor());
+    assertSame(VirtualThreadIoExecutor.shared(), new NetworkServiceImpl().getIoExecutor());
+  }
+}
@@ -0,0 +1,52 @@
+package com.gree.hvac.network;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class ByteBufferPoolTest {
+
+  @Test
+  void testConstructorValidation() {
+    assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(0, 1, false));
+    assertThrows(IllegalArgumentException.class, () -> new ByteBufferPool(16, 0, false));
+  }
+
+  @Test
+  void testReleasedBufferIsReused() {
+    ByteBufferPool pool = new ByteBufferPool(16, 2, false);
+
+    ByteBuffer first = pool.acquire();
+    first.put((byte) 1);
+    pool.release(first);
+    ByteBuffer second = pool.acquire();
+
+    assertSame(first, second);
+    assertEquals(0, second.position());
+    assertEquals(16, second.limit());
+    assertEquals(1, pool.getAllocatedCount());
+  }
+
+  @Test
+  void testPoolRetainsAtMostMaxPooledBuffers() {
+    ByteBufferPool pool = new ByteBufferPool(16, 1, false);
+
+    pool.release(pool.acquire());
+    pool.release(ByteBuffer.allocate(16));
+
+    assertEquals(1, pool.getPooledCount());
+  }
+
+  @Test
+  void testForeignBuffersAreNotPooled() {
+    ByteBufferPool pool = new ByteBufferPool(16, 4, true);
+
+    pool.release(ByteBuffer.allocate(16));
+    pool.release(ByteBuffer.allocateDirect(32));
+    pool.release(null);
+
+    assertEquals(0, pool.getPooledCount());
+    assertTrue(pool.acquire().isDirect());
+  }
+}
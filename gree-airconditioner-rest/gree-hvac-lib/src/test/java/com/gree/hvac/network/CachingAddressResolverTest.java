@@ -0,0 +1,71 @@
+package com.gree.hvac.network;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingAddressResolverTest {
+
+  private NetworkService networkService;
+  private AtomicLong now;
+  private CachingAddressResolver resolver;
+
+  @BeforeEach
+  void setUp() {
+    networkService = mock(NetworkService.class);
+    now = new AtomicLong();
+    resolver = new CachingAddressResolver(networkService, 1000, 100, now::get);
+  }
+
+  @Test
+  void testResolvedAddressIsCachedUntilTtl() throws Exception {
+    InetAddress address = InetAddress.getByName("127.0.0.1");
+    when(networkService.resolveAddress("device")).thenReturn(address);
+
+    assertSame(address, resolver.resolve("device"));
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+    assertSame(address, resolver.resolve("device"));
+    verify(networkService, times(1)).resolveAddress("device");
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+    resolver.resolve("device");
+    verify(networkService, times(2)).resolveAddress("device");
+  }
+
+  @Test
+  void testFailuresAreNegativelyCached() throws Exception {
+    when(networkService.resolveAddress("missing")).thenThrow(new UnknownHostException("missing"));
+
+    assertThrows(UnknownHostException.class, () -> resolver.resolve("missing"));
+    assertThrows(UnknownHostException.class, () -> resolver.resolve("missing"));
+    verify(networkService, times(1)).resolveAddress("missing");
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThrows(UnknownHostException.class, () -> resolver.resolve("missing"));
+    verify(networkService, times(2)).resolveAddress("missing");
+  }
+
+  @Test
+  void testInvalidateForcesFreshLookup() throws Exception {
+    when(networkService.resolveAddress("device")).thenReturn(InetAddress.getByName("127.0.0.1"));
+
+    resolver.resolve("device");
+    resolver.invalidate("device");
+    resolver.resolve("device");
+    resolver.invalidateAll();
+    resolver.resolve("device");
+
+    verify(networkService, times(3)).resolveAddress("device");
+  }
+
+  @Test
+  void testInvalidateNullHostIsIgnored() {
+    assertDoesNotThrow(() -> resolver.invalidate(null));
+  }
+}
@@ -14,6 +14,8 @@ public class MockNetworkService implements NetworkService {
   private volatile boolean simulateConnectionFailure = false;
   private volatile boolean simulateBindFailure = false;
   private volatile InetAddress mockAddress;
+  private final java.util.List<MockNetworkSocket> sockets =
+      new java.util.concurrent.CopyOnWriteArrayList<>();
 
   public MockNetworkService() {
     try {
@@ -28,7 +30,9 @@ public class MockNetworkService implements NetworkService {
     if (simulateConnectionFailure) {
       throw new Exception("Simulated connection failure");
     }
-    return new MockNetworkSocket();
+    MockNetworkSocket socket = new MockNetworkSocket();
+    sockets.add(socket);
+    return socket;
   }
 
   @Override
@@ -97,6 +101,18 @@ public class MockNetworkService implements NetworkService {
     }
   }
 
+  /** Messages sent through every socket created by this service, in creation order */
+  public java.util.List<byte[]> getSentMessages() {
+    java.util.List<byte[]> messages = new java.util.ArrayList<>();
+    sockets.forEach(socket -> messages.addAll(socket.getSentMessages()));
+    return messages;
+  }
+
+  /** Deliver a message to every socket that is currently listening */
+  public void simulateMessageToAll(byte[] message) {
+    messageHandlers.values().forEach(handler -> handler.accept(message));
+  }
+
   private void simulateDeviceResponse(MockNetworkSocket socket) {
     CompletableFuture.runAsync(
         () -> {
@@ -0,0 +1,137 @@
+package com.gree.hvac.network;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MultiplexedNetworkServiceTest {
+
+  private MultiplexedNetworkService service;
+
+  @BeforeEach
+  void setUp() {
+    service = new MultiplexedNetworkService();
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.close();
+  }
+
+  @Test
+  void testConstructorRejectsInvalidChannelCount() {
+    assertThrows(IllegalArgumentException.class, () -> new MultiplexedNetworkService(0));
+  }
+
+  @Test
+  void testCreateSocketRejectsFixedPort() {
+    assertThrows(IllegalArgumentException.class, () -> service.createSocket(7000));
+  }
+
+  @Test
+  void testRepliesAreRoutedBySourceAddress() throws Exception {
+    InetAddress loopback = InetAddress.getByName("127.0.0.1");
+    try (DatagramSocket device = new DatagramSocket(new InetSocketAddress(loopback, 0))) {
+      device.setSoTimeout(2000);
+
+      NetworkSocket socket = service.createSocket(0);
+      BlockingQueue<String> received = new ArrayBlockingQueue<>(4);
+      service.startListening(
+          socket, data -> received.add(new String(data, StandardCharsets.UTF_8)));
+
+      service.sendData(
+          socket,
+          "{\"t\":\"scan\"}".getBytes(StandardCharsets.UTF_8),
+          loopback,
+          device.getLocalPort());
+
+      DatagramPacket request = new DatagramPacket(new byte[1024], 1024);
+      device.receive(request);
+      assertEquals(
+          "{\"t\":\"scan\"}",
+          new String(request.getData(), 0, request.getLength(), StandardCharsets.UTF_8));
+
+      byte[] reply = "{\"t\":\"pack\"}".getBytes(StandardCharsets.UTF_8);
+      device.send(new DatagramPacket(reply, reply.length, request.getSocketAddress()));
+
+      assertEquals("{\"t\":\"pack\"}", received.poll(2, TimeUnit.SECONDS));
+      assertEquals(1, service.getRouteCount());
+    }
+  }
+
+  @Test
+  void testFrameHandlerReceivesReadOnlyView() throws Exception {
+    InetAddress loopback = InetAddress.getByName("127.0.0.1");
+    try (DatagramSocket device = new DatagramSocket(new InetSocketAddress(loopback, 0))) {
+      device.setSoTimeout(2000);
+
+      NetworkSocket socket = service.createSocket(0);
+      BlockingQueue<String> received = new ArrayBlockingQueue<>(4);
+      BlockingQueue<Boolean> readOnly = new ArrayBlockingQueue<>(4);
+      service.startFrameListening(
+          socket,
+          frame -> {
+            readOnly.add(frame.isReadOnly());
+            received.add(StandardCharsets.UTF_8.decode(frame).toString());
+          });
+
+      service.sendData(socket, new byte[] {1}, loopback, device.getLocalPort());
+      DatagramPacket request = new DatagramPacket(new byte[16], 16);
+      device.receive(request);
+
+      byte[] large = new byte[4096];
+      Arrays.fill(large, (byte) 'x');
+      device.send(new DatagramPacket(large, large.length, request.getSocketAddress()));
+
+      String frame = received.poll(2, TimeUnit.SECONDS);
+      assertNotNull(frame);
+      assertEquals(4096, frame.length());
+      assertEquals(Boolean.TRUE, readOnly.poll());
+    }
+  }
+
+  @Test
+  void testClosedSocketIsUnrouted() throws Exception {
+    InetAddress loopback = InetAddress.getByName("127.0.0.1");
+    NetworkSocket socket = service.createSocket(0);
+    service.startListening(socket, data -> {});
+    service.sendData(socket, new byte[] {1}, loopback, 9);
+
+    assertEquals(1, service.getRouteCount());
+
+    service.closeSocket(socket);
+
+    assertTrue(service.isClosed(socket));
+    assertEquals(0, service.getRouteCount());
+    assertThrows(Exception.class, () -> service.sendData(socket, new byte[] {1}, loopback, 9));
+  }
+
+  @Test
+  void testSocketsShareChannels() throws Exception {
+    NetworkSocket first = service.createSocket(0);
+    NetworkSocket second = service.createSocket(0);
+
+    assertSame(first.getUnderlyingSocket(), second.getUnderlyingSocket());
+  }
+
+  @Test
+  void testCloseServiceClosesSockets() throws Exception {
+    NetworkSocket socket = service.createSocket(0);
+
+    service.close();
+
+    assertTrue(socket.isClosed());
+    assertThrows(Exception.class, () -> service.createSocket(0));
+  }
+}
@@ -0,0 +1,103 @@
+package com.gree.hvac.network;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NetworkServiceImplTest {
+
+  private NetworkServiceImpl service;
+  private NetworkSocket socket;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    service = new NetworkServiceImpl();
+    socket = service.createSocket(0);
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.closeSocket(socket);
+  }
+
+  @Test
+  void testFramesLargerThanLegacyBufferAreNotTruncated() throws Exception {
+    BlockingQueue<byte[]> received = new ArrayBlockingQueue<>(4);
+    service.startListening(socket, received::add);
+
+    byte[] payload = new byte[3000];
+    Arrays.fill(payload, (byte) 'a');
+    sendToSocket(payload);
+
+    byte[] data = received.poll(2, TimeUnit.SECONDS);
+    assertNotNull(data);
+    assertEquals(3000, data.length);
+  }
+
+  @Test
+  void testFrameListenerReusesPooledBuffer() throws Exception {
+    BlockingQueue<Integer> sizes = new ArrayBlockingQueue<>(4);
+    BlockingQueue<Boolean> readOnly = new ArrayBlockingQueue<>(4);
+    service.startFrameListening(
+        socket,
+        frame -> {
+          readOnly.add(frame.isReadOnly());
+          sizes.add(frame.remaining());
+        });
+
+    sendToSocket(new byte[100]);
+    sendToSocket(new byte[10]);
+
+    assertEquals(100, sizes.poll(2, TimeUnit.SECONDS));
+    assertEquals(10, sizes.poll(2, TimeUnit.SECONDS));
+    assertEquals(Boolean.TRUE, readOnly.poll());
+    assertEquals(1, service.getBufferPool().getAllocatedCount());
+  }
+
+  @Test
+  void testReceiveBufferIsSizedToFrameBound() {
+    assertEquals(
+        NetworkServiceImpl.DEFAULT_FRAME_BUFFER_SIZE, service.getBufferPool().getBufferSize());
+  }
+
+  @Test
+  void testDatagramFillingBufferIsDropped() throws Exception {
+    NetworkServiceImpl smallService = new NetworkServiceImpl(VirtualThreadIoExecutor.shared(), 64);
+    NetworkSocket smallSocket = smallService.createSocket(0);
+    try {
+      BlockingQueue<byte[]> received = new ArrayBlockingQueue<>(4);
+      smallService.startListening(smallSocket, received::add);
+
+      sendTo(smallSocket, new byte[200]);
+      sendTo(smallSocket, new byte[10]);
+
+      byte[] data = received.poll(2, TimeUnit.SECONDS);
+      assertNotNull(data);
+      assertEquals(10, data.length);
+      assertTrue(received.isEmpty());
+    } finally {
+      smallService.closeSocket(smallSocket);
+    }
+  }
+
+  private void sendToSocket(byte[] payload) throws Exception {
+    sendTo(socket, payload);
+  }
+
+  private static void sendTo(NetworkSocket socket, byte[] payload) throws Exception {
+    int port = ((DatagramSocketWrapper) socket).getDatagramSocket().getLocalPort();
+    try (DatagramSocket sender = new DatagramSocket()) {
+      sender.send(
+          new DatagramPacket(payload, payload.length, InetAddress.getByName("127.0.0.1"), port));
+    }
+  }
+}
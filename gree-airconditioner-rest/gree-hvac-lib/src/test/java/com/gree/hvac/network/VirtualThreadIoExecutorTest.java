@@ -0,0 +1,89 @@
+package com.gree.hvac.network;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadIoExecutorTest {
+
+  private VirtualThreadIoExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = new VirtualThreadIoExecutor("test-io-");
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void testTasksRunOnVirtualThreads() throws Exception {
+    AtomicBoolean virtual = new AtomicBoolean();
+    CountDownLatch done = new CountDownLatch(1);
+
+    executor.execute(
+        () -> {
+          virtual.set(Thread.currentThread().isVirtual());
+          done.countDown();
+        });
+
+    assertTrue(done.await(1, TimeUnit.SECONDS));
+    assertTrue(virtual.get());
+  }
+
+  @Test
+  void testMetricsTrackActiveAndCompletedTasks() throws Exception {
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+
+    for (int i = 0; i < 2; i++) {
+      executor.execute(
+          () -> {
+            started.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+    }
+    assertTrue(started.await(1, TimeUnit.SECONDS));
+
+    IoExecutorMetrics busy = executor.getMetrics();
+    assertEquals(2, busy.getActiveThreads());
+    assertEquals(2, busy.getSubmittedTasks());
+    assertEquals(0, busy.getQueuedTasks());
+
+    release.countDown();
+    long deadline = System.currentTimeMillis() + 1000;
+    while (executor.getMetrics().getCompletedTasks() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    IoExecutorMetrics idle = executor.getMetrics();
+    assertEquals(0, idle.getActiveThreads());
+    assertEquals(2, idle.getPeakThreads());
+    assertEquals(2, idle.getCompletedTasks());
+  }
+
+  @Test
+  void testRejectedAfterShutdown() {
+    executor.shutdown();
+
+    assertThrows(Exception.class, () -> executor.execute(() -> {}));
+    assertEquals(1, executor.getMetrics().getRejectedTasks());
+  }
+
+  @Test
+  void testSharedExecutorCannotBeShutDown() {
+    assertThrows(
+        UnsupportedOperationException.class, () -> VirtualThreadIoExecutor.shared().shutdown());
+  }
+}
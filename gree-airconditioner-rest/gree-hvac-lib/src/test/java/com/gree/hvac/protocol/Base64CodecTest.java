@@ -0,0 +1,56 @@
+package com.gree.hvac.protocol;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class Base64CodecTest {
+
+  @Test
+  void testEncodeMatchesJdkForAllPaddingLengths() {
+    Random random = new Random(42);
+    for (int len = 0; len < 64; len++) {
+      byte[] data = new byte[len];
+      random.nextBytes(data);
+
+      byte[] encoded = new byte[Base64Codec.encodedLength(len)];
+      int written = Base64Codec.encode(data, 0, len, encoded);
+
+      assertEquals(
+          Base64.getEncoder().encodeToString(data),
+          new String(encoded, 0, written, StandardCharsets.US_ASCII));
+    }
+  }
+
+  @Test
+  void testDecodeMatchesJdkForAllPaddingLengths() {
+    Random random = new Random(7);
+    for (int len = 0; len < 64; len++) {
+      byte[] data = new byte[len];
+      random.nextBytes(data);
+      String encoded = Base64.getEncoder().encodeToString(data);
+
+      byte[] fromChars = new byte[Base64Codec.maxDecodedLength(encoded.length())];
+      int charsLength = Base64Codec.decode(encoded, fromChars, 0);
+      assertArrayEquals(data, Arrays.copyOf(fromChars, charsLength));
+
+      byte[] ascii = encoded.getBytes(StandardCharsets.US_ASCII);
+      byte[] fromBytes = new byte[Base64Codec.maxDecodedLength(ascii.length) + 3];
+      int bytesLength = Base64Codec.decode(ascii, 0, ascii.length, fromBytes, 3);
+      assertArrayEquals(data, Arrays.copyOfRange(fromBytes, 3, 3 + bytesLength));
+    }
+  }
+
+  @Test
+  void testDecodeRejectsInvalidInput() {
+    byte[] buffer = new byte[16];
+
+    assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("ab$d", buffer, 0));
+    assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("abcde", buffer, 0));
+    assertThrows(IllegalArgumentException.class, () -> Base64Codec.decode("abéd", buffer, 0));
+  }
+}
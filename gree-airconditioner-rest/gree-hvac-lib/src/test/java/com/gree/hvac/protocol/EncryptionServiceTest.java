@@ -2,6 +2,18 @@ package com.gree.hvac.protocol;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -106,6 +118,27 @@ class EncryptionServiceTest {
     }
   }
 
+  @Test
+  void testRestoreStoredKey() throws Exception {
+    EncryptionService bound = new EncryptionService();
+    bound.restore("gcm", "0123456789abcdef");
+    assertEquals("gcm", bound.getCipher());
+    assertEquals("0123456789abcdef", bound.getKey());
+
+    JSONObject message = new JSONObject();
+    message.put("t", "status");
+    EncryptionService.EncryptedMessage encrypted = bound.encrypt(message);
+    assertEquals("gcm", encrypted.getCipher());
+    assertNotNull(encrypted.getTag());
+
+    JSONObject packed = new JSONObject();
+    packed.put("pack", encrypted.getPayload());
+    packed.put("tag", encrypted.getTag());
+    assertEquals("status", bound.decrypt(packed).getString("t"));
+
+    assertThrows(IllegalArgumentException.class, () -> bound.restore("cbc", "0123456789abcdef"));
+  }
+
   @Test
   void testDecryptBasicMessage() {
     JSONObject message = new JSONObject();
@@ -353,4 +386,207 @@ class EncryptionServiceTest {
       fail("Multiple encryption/decryption cycles should not throw exception: " + e.getMessage());
     }
   }
+
+  @Test
+  void testEcbOutputMatchesJdkReference() throws Exception {
+    JSONObject message = new JSONObject();
+    message.put("t", "status");
+    message.put("mac", "test-mac");
+
+    Cipher reference = Cipher.getInstance("AES/ECB/PKCS5Padding");
+    reference.init(
+        Cipher.ENCRYPT_MODE,
+        new SecretKeySpec(encryptionService.getKey().getBytes(StandardCharsets.UTF_8), "AES"));
+    String expected =
+        Base64.getEncoder()
+            .encodeToString(reference.doFinal(message.toString().getBytes(StandardCharsets.UTF_8)));
+
+    // Repeated calls reuse the cached cipher and must keep producing the same frame
+    assertEquals(expected, encryptionService.encrypt(message).getPayload());
+    assertEquals(expected, encryptionService.encrypt(message).getPayload());
+  }
+
+  @Test
+  void testGcmRoundTripAfterBindFallback() throws Exception {
+    JSONObject bindMessage = new JSONObject();
+    bindMessage.put("t", "bind");
+    encryptionService.encrypt(bindMessage);
+    EncryptionService.EncryptedMessage gcmBind = encryptionService.encrypt(bindMessage);
+    assertEquals("gcm", gcmBind.getCipher());
+
+    JSONObject message = new JSONObject();
+    message.put("t", "status");
+    for (int i = 0; i < 3; i++) {
+      message.put("counter", i);
+      EncryptionService.EncryptedMessage encrypted = encryptionService.encrypt(message);
+
+      JSONObject received = new JSONObject();
+      received.put("pack", encrypted.getPayload());
+      received.put("tag", encrypted.getTag());
+
+      assertEquals(i, encryptionService.decrypt(received).getInt("counter"));
+    }
+  }
+
+  @Test
+  void testGcmDecryptsPayloadsThatGrowInputBufferForTag() throws Exception {
+    // Packs around 660-680 characters fit the initial input buffer, but their tag does not
+    for (int length = 470; length <= 520; length++) {
+      JSONObject message = new JSONObject();
+      message.put("t", "dat");
+      message.put("pad", "x".repeat(length - "{\"t\":\"dat\",\"pad\":\"\"}".length()));
+      assertEquals(length, message.toString().length());
+
+      EncryptionService sender = new EncryptionService();
+      sender.restore("gcm", "0123456789abcdef");
+      EncryptionService.EncryptedMessage encrypted = sender.encrypt(message);
+
+      EncryptionService receiver = new EncryptionService();
+      receiver.restore("gcm", "0123456789abcdef");
+      JSONObject packed = new JSONObject();
+      packed.put("pack", encrypted.getPayload());
+      packed.put("tag", encrypted.getTag());
+      assertEquals(
+          message.getString("pad"), receiver.decrypt(packed).getString("pad"), "" + length);
+
+      EncryptionService frameReceiver = new EncryptionService();
+      frameReceiver.restore("gcm", "0123456789abcdef");
+      GreeFrameCodec.Envelope envelope =
+          new GreeFrameCodec.Envelope("pack", encrypted.getPayload(), encrypted.getTag());
+      assertEquals("dat", frameReceiver.decrypt(envelope).getType(), "" + length);
+    }
+  }
+
+  @Test
+  void testCipherStateIsRebuiltAfterBindOkKey() throws Exception {
+    JSONObject bindOk = new JSONObject();
+    bindOk.put("t", "bindok");
+    bindOk.put("key", "0123456789abcdef");
+    EncryptionService.EncryptedMessage encryptedBindOk = encryptionService.encrypt(bindOk);
+
+    JSONObject received = new JSONObject();
+    received.put("pack", encryptedBindOk.getPayload());
+    encryptionService.decrypt(received);
+    assertEquals("0123456789abcdef", encryptionService.getKey());
+
+    JSONObject message = new JSONObject();
+    message.put("t", "status");
+    EncryptionService.EncryptedMessage encrypted = encryptionService.encrypt(message);
+    assertEquals("0123456789abcdef", encrypted.getKey());
+
+    JSONObject reply = new JSONObject();
+    reply.put("pack", encrypted.getPayload());
+    assertEquals("status", encryptionService.decrypt(reply).getString("t"));
+  }
+
+  @Test
+  void testDecryptRecoversAfterInvalidInput() throws Exception {
+    JSONObject invalid = new JSONObject();
+    invalid.put("pack", "YWJjZGVmZ2hpams=");
+    assertThrows(Exception.class, () -> encryptionService.decrypt(invalid));
+
+    JSONObject message = new JSONObject();
+    message.put("t", "status");
+    JSONObject received = new JSONObject();
+    received.put("pack", encryptionService.encrypt(message).getPayload());
+
+    assertEquals("status", encryptionService.decrypt(received).getString("t"));
+  }
+
+  @Test
+  void testConcurrentUseOfSharedInstance() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        int counter = i;
+        results.add(
+            executor.submit(
+                () -> {
+                  JSONObject message = new JSONObject();
+                  message.put("counter", counter);
+                  JSONObject received = new JSONObject();
+                  received.put("pack", encryptionService.encrypt(message).getPayload());
+                  return encryptionService.decrypt(received).toString();
+                }));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        assertEquals("{\"counter\":" + i + "}", results.get(i).get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testGetCipherReflectsBindFallback() throws Exception {
+    assertEquals("ecb", encryptionService.getCipher());
+
+    JSONObject bindMessage = new JSONObject();
+    bindMessage.put("t", "bind");
+    encryptionService.encrypt(bindMessage);
+    assertEquals("ecb", encryptionService.getCipher());
+
+    encryptionService.encrypt(bindMessage);
+    assertEquals("gcm", encryptionService.getCipher());
+  }
+
+  @Test
+  void testDecryptEnvelopeMatchesJsonPath() throws Exception {
+    GreeFrameCodec codec = new GreeFrameCodec();
+    JSONObject message = new JSONObject();
+    message.put("t", "dat");
+    message.put("cols", new JSONArray(List.of("Pow", "SetTem")));
+    message.put("dat", new JSONArray(List.of(1, 24)));
+
+    for (String cipher : List.of("ecb", "gcm")) {
+      if ("gcm".equals(cipher)) {
+        JSONObject bind = new JSONObject();
+        bind.put("t", "bind");
+        encryptionService.encrypt(bind);
+        encryptionService.encrypt(bind);
+      }
+      EncryptionService.EncryptedMessage encrypted = encryptionService.encrypt(message);
+      JSONObject received = new JSONObject();
+      received.put("t", "pack");
+      received.put("pack", encrypted.getPayload());
+      if (encrypted.getTag() != null) {
+        received.put("tag", encrypted.getTag());
+      }
+
+      GreeFrame streamed =
+          encryptionService.decrypt(
+              codec.decodeEnvelope(
+                  ByteBuffer.wrap(received.toString().getBytes(StandardCharsets.UTF_8))));
+      GreeFrame parsed = GreeFrame.fromJson(encryptionService.decrypt(received));
+
+      assertEquals(parsed, streamed, cipher);
+      assertEquals(List.of("Pow", "SetTem"), streamed.getColumns());
+    }
+  }
+
+  @Test
+  void testDecryptEnvelopeAppliesBindOkKey() throws Exception {
+    JSONObject bindOk = new JSONObject();
+    bindOk.put("t", "bindok");
+    bindOk.put("key", "0123456789abcdef");
+
+    GreeFrame frame =
+        encryptionService.decrypt(
+            new GreeFrameCodec.Envelope(
+                "pack", encryptionService.encrypt(bindOk).getPayload(), null));
+
+    assertEquals("bindok", frame.getType());
+    assertEquals("0123456789abcdef", encryptionService.getKey());
+  }
+
+  @Test
+  void testDecryptEnvelopeRejectsBindOkWithoutKey() throws Exception {
+    JSONObject bindOk = new JSONObject();
+    bindOk.put("t", "bindok");
+    GreeFrameCodec.Envelope envelope =
+        new GreeFrameCodec.Envelope("pack", encryptionService.encrypt(bindOk).getPayload(), null);
+
+    assertThrows(IllegalArgumentException.class, () -> encryptionService.decrypt(envelope));
+  }
 }
@@ -0,0 +1,203 @@
+package com.gree.hvac.protocol;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class GreeFrameCodecTest {
+
+  private GreeFrameCodec codec;
+
+  @BeforeEach
+  void setUp() {
+    codec = new GreeFrameCodec();
+  }
+
+  @Test
+  void testDecodeEnvelope() {
+    GreeFrameCodec.Envelope envelope =
+        codec.decodeEnvelope(
+            buffer(
+                "{\"t\":\"pack\",\"i\":0,\"uid\":0,\"cid\":\"f4911e7aca59\",\"tcid\":\"\","
+                    + "\"pack\":\"YWJj\",\"tag\":\"ZGVm\"}"));
+
+    assertEquals("pack", envelope.getType());
+    assertEquals("YWJj", envelope.getPack());
+    assertEquals("ZGVm", envelope.getTag());
+  }
+
+  @Test
+  void testDecodeEnvelopeWithoutTag() {
+    GreeFrameCodec.Envelope envelope =
+        codec.decodeEnvelope(buffer("{\"t\":\"pack\",\"pack\":\"YWJj\"}"));
+
+    assertEquals("YWJj", envelope.getPack());
+    assertNull(envelope.getTag());
+  }
+
+  @Test
+  void testDecodeEnvelopeWithoutPackFails() {
+    assertThrows(
+        IllegalArgumentException.class, () -> codec.decodeEnvelope(buffer("{\"t\":\"scan\"}")));
+  }
+
+  @Test
+  void testDecodeStatusResponse() {
+    GreeFrame frame =
+        codec.decode(
+            buffer(
+                "{\"t\":\"dat\",\"mac\":\"f4911e7aca59\",\"r\":200,"
+                    + "\"cols\":[\"Pow\",\"SetTem\",\"TemSen\"],\"dat\":[1,24,63]}"));
+
+    assertEquals("dat", frame.getType());
+    assertEquals("f4911e7aca59", frame.getMac());
+    assertEquals("", frame.getCid());
+    assertNull(frame.getKey());
+    assertEquals(List.of("Pow", "SetTem", "TemSen"), frame.getColumns());
+    assertEquals(List.of(1, 24, 63), frame.getData());
+    assertNull(frame.getOptions());
+  }
+
+  @Test
+  void testDecodeCommandResultPrefersVal() {
+    GreeFrame frame =
+        codec.decode(
+            buffer(
+                "{\"t\":\"res\",\"opt\":[\"Pow\",\"Lig\"],\"p\":[0,0],\"val\":[1,1],\"r\":200}"));
+
+    assertEquals(List.of("Pow", "Lig"), frame.getOptions());
+    assertEquals(List.of(1, 1), frame.getValues());
+  }
+
+  @Test
+  void testDecodeCommandResultFallsBackToP() {
+    GreeFrame frame = codec.decode(buffer("{\"t\":\"res\",\"opt\":[\"Pow\"],\"p\":[1]}"));
+
+    assertEquals(List.of(1), frame.getValues());
+  }
+
+  @Test
+  void testDecodeBindOk() {
+    GreeFrame frame =
+        codec.decode(buffer("{\"t\":\"bindok\",\"mac\":\"abc\",\"key\":\"0123456789abcdef\"}"));
+
+    assertEquals("bindok", frame.getType());
+    assertEquals("0123456789abcdef", frame.getKey());
+  }
+
+  @Test
+  void testDecodeEscapesAndUnicode() {
+    GreeFrame frame =
+        codec.decode(
+            buffer("{\"t\":\"dev\",\"c\\u0069d\":\"a\\\"b\\\\c\\/d\\u00e9\",\"mac\":\"Küche\"}"));
+
+    assertEquals("a\"b\\c/dé", frame.getCid());
+    assertEquals("Küche", frame.getMac());
+  }
+
+  @Test
+  void testDecodeSkipsUnknownNestedValues() {
+    GreeFrame frame =
+        codec.decode(
+            buffer(
+                " { \"extra\" : {\"a\":[1,{\"b\":\"]}\"}]} ,\n \"t\" : \"dat\" , "
+                    + "\"cols\" : [ \"Pow\" ] , \"dat\" : [ 1 ] } "));
+
+    assertEquals("dat", frame.getType());
+    assertEquals(List.of("Pow"), frame.getColumns());
+    assertEquals(List.of(1), frame.getData());
+  }
+
+  @Test
+  void testDecodeReadsFromBufferPosition() {
+    byte[] bytes = "xx{\"t\":\"dat\"}yy".getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 4);
+
+    assertEquals("dat", codec.decode(buffer).getType());
+  }
+
+  @Test
+  void testDecodeDirectReadOnlyBuffer() {
+    byte[] bytes = "{\"t\":\"dat\",\"mac\":\"é\"}".getBytes(StandardCharsets.UTF_8);
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+    GreeFrame frame = codec.decode(direct.asReadOnlyBuffer());
+
+    assertEquals("é", frame.getMac());
+  }
+
+  @Test
+  void testValueTypesMatchOrgJson() {
+    GreeFrame frame =
+        codec.decode(
+            buffer(
+                "{\"dat\":[0,-5,123456789,1234567890,12345678901234567890,1.5,-0,"
+                    + "1e3,true,false,null,\"s\",007,[1,2],{\"a\":1}]}"));
+    JSONArray expected =
+        new JSONObject(
+                "{\"dat\":[0,-5,123456789,1234567890,12345678901234567890,1.5,-0,"
+                    + "1e3,true,false,null,\"s\",007,[1,2],{\"a\":1}]}")
+            .getJSONArray("dat");
+
+    assertEquals(expected.length(), frame.getData().size());
+    for (int i = 0; i < expected.length(); i++) {
+      Object value = frame.getData().get(i);
+      assertEquals(expected.get(i).getClass(), value.getClass(), "type of element " + i);
+      assertEquals(expected.get(i).toString(), value.toString(), "value of element " + i);
+    }
+    assertEquals(new BigDecimal("1.5"), frame.getData().get(5));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "{\"t\":\"dat\",\"mac\":\"f4911e7aca59\",\"r\":200,\"cols\":[\"Pow\",\"Mod\",\"SetTem\"],"
+            + "\"dat\":[1,4,24]}",
+        "{\"t\":\"res\",\"mac\":\"f4911e7aca59\",\"r\":200,\"opt\":[\"Pow\"],\"p\":[1],\"val\":[1]}",
+        "{\"t\":\"res\",\"opt\":[\"SetTem\",\"TemUn\"],\"p\":[24,0]}",
+        "{\"t\":\"dev\",\"cid\":\"f4911e7aca59\",\"bc\":\"gree\",\"mac\":\"f4911e7aca59\","
+            + "\"name\":\"Living Room\",\"ver\":\"V1.2.1\",\"lock\":0}",
+        "{\"t\":\"dev\",\"mac\":\"f4911e7aca59\"}",
+        "{\"t\":\"bindok\",\"mac\":\"f4911e7aca59\",\"key\":\"St8Vw1Yz4Bc7Ef0H\",\"r\":200}",
+        "{\"t\":5,\"cid\":null,\"mac\":[1,2]}",
+        "{}"
+      })
+  void testDecodeMatchesJsonPath(String payload) {
+    assertEquals(GreeFrame.fromJson(new JSONObject(payload)), codec.decode(buffer(payload)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "[]",
+        "{\"t\":\"dat\"",
+        "{\"t\":\"da",
+        "{\"t\" \"dat\"}",
+        "{\"t\":\"dat\"} x",
+        "{\"cols\":[1]}",
+        "{\"dat\":[1,]}",
+        "{\"t\":\"\\x\"}",
+        "{\"t\":}",
+        "{\"t\":\"dat\" \"cols\":[\"Pow\"]}",
+        "{,\"t\":\"dat\"}",
+        "{\"t\":\"dat\",}",
+        "{\"t\":\"dat\",,\"mac\":\"f4911e7aca59\"}"
+      })
+  void testDecodeRejectsMalformedInput(String payload) {
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer(payload)));
+  }
+
+  private static ByteBuffer buffer(String text) {
+    return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,74 @@
+package com.gree.hvac.protocol;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class GreeFrameTest {
+
+  @Test
+  void testFromJsonDefaults() {
+    GreeFrame frame = GreeFrame.fromJson(new JSONObject());
+
+    assertEquals("", frame.getType());
+    assertEquals("", frame.getCid());
+    assertEquals("", frame.getMac());
+    assertNull(frame.getKey());
+    assertNull(frame.getColumns());
+    assertNull(frame.getData());
+    assertNull(frame.getOptions());
+    assertNull(frame.getValues());
+  }
+
+  @Test
+  void testFromJsonStatusResponse() {
+    GreeFrame frame =
+        GreeFrame.fromJson(
+            new JSONObject("{\"t\":\"dat\",\"cols\":[\"Pow\",\"SetTem\"],\"dat\":[1,24]}"));
+
+    assertEquals("dat", frame.getType());
+    assertEquals(List.of("Pow", "SetTem"), frame.getColumns());
+    assertEquals(List.of(1, 24), frame.getData());
+  }
+
+  @Test
+  void testFromJsonPrefersValOverP() {
+    GreeFrame withVal =
+        GreeFrame.fromJson(new JSONObject("{\"opt\":[\"Pow\"],\"p\":[0],\"val\":[1]}"));
+    GreeFrame withP = GreeFrame.fromJson(new JSONObject("{\"opt\":[\"Pow\"],\"p\":[0]}"));
+
+    assertEquals(List.of(1), withVal.getValues());
+    assertEquals(List.of(0), withP.getValues());
+  }
+
+  @Test
+  void testFromJsonListsAreUnmodifiable() {
+    GreeFrame frame = GreeFrame.fromJson(new JSONObject("{\"cols\":[\"Pow\"],\"dat\":[1]}"));
+
+    assertThrows(UnsupportedOperationException.class, () -> frame.getColumns().add("Mod"));
+    assertThrows(UnsupportedOperationException.class, () -> frame.getData().add(2));
+  }
+
+  @Test
+  void testEqualsAndHashCode() {
+    String payload = "{\"t\":\"bindok\",\"mac\":\"abc\",\"key\":\"0123456789abcdef\"}";
+    GreeFrame first = GreeFrame.fromJson(new JSONObject(payload));
+    GreeFrame second = GreeFrame.fromJson(new JSONObject(payload));
+    GreeFrame other = GreeFrame.fromJson(new JSONObject("{\"t\":\"bindok\",\"mac\":\"abc\"}"));
+
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+    assertNotEquals(first, other);
+  }
+
+  @Test
+  void testToStringOmitsKey() {
+    GreeFrame frame =
+        GreeFrame.fromJson(new JSONObject("{\"t\":\"bindok\",\"key\":\"0123456789abcdef\"}"));
+
+    assertTrue(frame.toString().contains("bindok"));
+    assertFalse(frame.toString().contains("0123456789abcdef"));
+  }
+}
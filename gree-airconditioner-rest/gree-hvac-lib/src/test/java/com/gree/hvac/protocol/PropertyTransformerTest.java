@@ -343,4 +343,79 @@ class PropertyTransformerTest {
     assertEquals(0, result.get("SvSt"));
     assertEquals(1, result.get("StHt"));
   }
+
+  @Test
+  void testPropertyFromVendor() {
+    assertEquals(Property.POWER, transformer.propertyFromVendor("Pow"));
+    assertEquals(Property.SWING_HOR, transformer.propertyFromVendor("SwingLfRig"));
+    assertNull(transformer.propertyFromVendor("Unknown"));
+  }
+
+  @Test
+  void testSingleValueFromVendor() {
+    assertEquals("on", transformer.fromVendor(Property.POWER, 1));
+    assertEquals("cool", transformer.fromVendor(Property.MODE, 1));
+    assertEquals(23, transformer.fromVendor(Property.CURRENT_TEMPERATURE, 63));
+    assertEquals(99, transformer.fromVendor(Property.FAN_SPEED, 99));
+  }
+
+  @Test
+  void testLookupTablesMatchVendorValueMaps() {
+    Map<String, Map<String, Integer>> vendorValues = PropertyValue.getVendorValues();
+    for (Property property : Property.values()) {
+      if (property == Property.CURRENT_TEMPERATURE) {
+        continue;
+      }
+      Map<String, Integer> values = vendorValues.get(property.getValue());
+      for (int code = -2; code < 64; code++) {
+        Object expected = code;
+        for (Map.Entry<String, Integer> entry : values.entrySet()) {
+          if (entry.getValue() == code) {
+            expected = entry.getKey();
+          }
+        }
+        assertEquals(expected, transformer.fromVendor(property, code), property + "=" + code);
+        assertEquals(
+            expected, transformer.fromVendor(property, (Object) code), property + "=" + code);
+      }
+      for (Map.Entry<String, Integer> entry : values.entrySet()) {
+        assertEquals(entry.getValue(), transformer.toVendor(property, entry.getKey()));
+      }
+    }
+  }
+
+  @Test
+  void testSingleValueFromVendorKeepsUnmappedObject() {
+    Long unmapped = 99L;
+
+    assertSame(unmapped, transformer.fromVendor(Property.MODE, unmapped));
+    assertEquals("cool", transformer.fromVendor(Property.MODE, 1L));
+    assertEquals("x", transformer.fromVendor(Property.MODE, "x"));
+    assertEquals(0, transformer.fromVendor(Property.CURRENT_TEMPERATURE, 0));
+    assertEquals(25, transformer.fromVendor(Property.CURRENT_TEMPERATURE, 65L));
+  }
+
+  @Test
+  void testSingleValueToVendor() {
+    assertEquals(1, transformer.toVendor(Property.POWER, "on"));
+    assertEquals(3, transformer.toVendor(Property.FAN_SPEED, "medium"));
+    assertEquals("unknown", transformer.toVendor(Property.MODE, "unknown"));
+    assertEquals(24, transformer.toVendor(Property.TEMPERATURE, 24));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> transformer.toVendor(Property.CURRENT_TEMPERATURE, 20));
+  }
+
+  @Test
+  void testVendorCodes() {
+    assertEquals("Pow", transformer.toVendorCode(Property.POWER));
+    assertEquals("StHt", transformer.toVendorCode(Property.SAFETY_HEATING));
+    assertEquals(
+        List.of("Pow", "SetTem", "TemSen"),
+        transformer.toVendorCodes(
+            List.of(Property.POWER, Property.TEMPERATURE, Property.CURRENT_TEMPERATURE)));
+    for (Property property : Property.values()) {
+      assertEquals(property, transformer.propertyFromVendor(transformer.toVendorCode(property)));
+    }
+  }
 }
@@ -4,6 +4,7 @@ import com.gree.airconditioner.controller.GreeDeviceController;
 import com.gree.airconditioner.dto.api.ApiResponse;
 import com.gree.airconditioner.dto.api.DeviceInfoDto;
 import com.gree.airconditioner.dto.api.DeviceStatusDto;
+import com.gree.airconditioner.service.HvacDeviceService;
 import com.gree.service.DeviceStatusUpdateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +13,11 @@ import org.springframework.stereotype.Component;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 @Component
@@ -23,11 +27,17 @@ public class GetDevicesAssist {
     
     private final GreeDeviceController greeDeviceController;
     private final DeviceStatusUpdateService statusUpdateService;
+    private final HvacDeviceService hvacDeviceService;
+
+    // Status stream subscriptions by device IP address
+    private final Map<String, Flow.Subscription> statusSubscriptions = new ConcurrentHashMap<>();
 
     public GetDevicesAssist(GreeDeviceController greeDeviceController, 
-                           DeviceStatusUpdateService statusUpdateService) {
+                           DeviceStatusUpdateService statusUpdateService,
+                           HvacDeviceService hvacDeviceService) {
         this.greeDeviceController = greeDeviceController;
         this.statusUpdateService = statusUpdateService;
+        this.hvacDeviceService = hvacDeviceService;
     }
 
     /**
@@ -117,70 +127,70 @@ public class GetDevicesAssist {
             
             if (listener != null) {
                 log.info("Setting up real-time status updates for device: {}", device.getIpAddress());
-                
-                // Here we would ideally have a way to register the listener with the HvacClient
-                // For now, we'll use polling as a fallback
-                setupStatusPolling(device, listener);
+                hvacDeviceService.getStatusUpdates(device.getIpAddress())
+                    .subscribe(new StatusSubscriber(device.getIpAddress(), listener));
             }
         } catch (Exception e) {
             log.error("Failed to setup status listener for device {}: {}", device.getIpAddress(), e.getMessage());
         }
     }
-    
-    /**
-     * Setup periodic status polling as a fallback for real-time updates
-     */
-    private void setupStatusPolling(DeviceInfoDto device, Consumer<DeviceStatusDto> listener) {
-        // Poll device status every 10 seconds and notify listener of changes
-        CompletableFuture.runAsync(() -> {
-            DeviceStatusDto lastStatus = null;
-            
-            while (statusUpdateService.isDeviceRegistered(device.getIpAddress())) {
-                try {
-                    ResponseEntity<ApiResponse<DeviceStatusDto>> response = 
-                        getDeviceStatus(device).get();
-                    
-                    if (response.getStatusCode().is2xxSuccessful()) {
-                        DeviceStatusDto currentStatus = response.getBody().getData();
-                        
-                        // Only notify if status changed
-                        if (lastStatus == null || !statusEquals(lastStatus, currentStatus)) {
-                            listener.accept(currentStatus);
-                            lastStatus = currentStatus;
-                        }
-                    }
-                    
-                    Thread.sleep(10000); // Poll every 10 seconds
-                    
-                } catch (Exception e) {
-                    log.warn("Error polling status for device {}: {}", device.getIpAddress(), e.getMessage());
-                    try {
-                        Thread.sleep(5000); // Wait 5 seconds before retry
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            }
-        });
-    }
-    
-    /**
-     * Compare two device statuses for equality
-     */
-    private boolean statusEquals(DeviceStatusDto status1, DeviceStatusDto status2) {
-        if (status1 == null || status2 == null) return false;
-        
-        return java.util.Objects.equals(status1.isPower(), status2.isPower()) &&
-               java.util.Objects.equals(status1.getTemperature(), status2.getTemperature()) &&
-               java.util.Objects.equals(status1.getMode(), status2.getMode()) &&
-               java.util.Objects.equals(status1.getFanSpeed(), status2.getFanSpeed()) &&
-               java.util.Objects.equals(status1.isHealth(), status2.isHealth());
+
+    private void cancelStatusUpdates(String ipAddress) {
+        Flow.Subscription subscription = statusSubscriptions.remove(ipAddress);
+        if (subscription != null) {
+            subscription.cancel();
+        }
     }
 
     public CompletableFuture<ResponseEntity<ApiResponse<String>>> disconnect(DeviceInfoDto device) {
         // Unregister status updates when disconnecting
         statusUpdateService.unregisterDeviceController(device.getIpAddress());
+        cancelStatusUpdates(device.getIpAddress());
         return greeDeviceController.disconnectFromDevice(device.getId());
     }
+
+    /**
+     * Passes status updates on to the listener one at a time; updates arriving meanwhile are conflated
+     * into the latest one by the publisher
+     */
+    private final class StatusSubscriber implements Flow.Subscriber<DeviceStatusDto> {
+        private final String ipAddress;
+        private final Consumer<DeviceStatusDto> listener;
+        private Flow.Subscription subscription;
+
+        StatusSubscriber(String ipAddress, Consumer<DeviceStatusDto> listener) {
+            this.ipAddress = ipAddress;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            Flow.Subscription previous = statusSubscriptions.put(ipAddress, subscription);
+            if (previous != null) {
+                previous.cancel();
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(DeviceStatusDto status) {
+            try {
+                listener.accept(status);
+            } finally {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.warn("Status updates failed for device {}: {}", ipAddress, throwable.getMessage());
+            statusSubscriptions.remove(ipAddress, subscription);
+        }
+
+        @Override
+        public void onComplete() {
+            statusSubscriptions.remove(ipAddress, subscription);
+        }
+    }
 }